@@ -0,0 +1,54 @@
+package bayern.steinbrecher.woodpacker.data;
+
+import bayern.steinbrecher.woodpacker.utility.SerializationUtility;
+import javafx.util.Pair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Measures how fast each {@link CuttingPlanSolver} solves the plank problems which are shipped in the examples
+ * directory. The directory is determined by the system property {@value #EXAMPLES_DIR_PROPERTY} and defaults to
+ * {@code examples} relative to the working directory. The quality of the solutions is reported by
+ * {@link SolutionQualityCounters}.
+ *
+ * @author Stefan Huber
+ * @since 0.1
+ */
+@State(Scope.Benchmark)
+public class ExamplePlankProblemBenchmark {
+    private static final String EXAMPLES_DIR_PROPERTY = "woodpacker.examples";
+
+    @Param({"broad", "broadOversize", "broadOversizeCuttingWidth", "tooSmall"})
+    private String example;
+
+    @Param({ExactCuttingPlanSolver.SOLVER_ID, GreedyRowCuttingPlanSolver.SOLVER_ID,
+            GuillotineCuttingPlanSolver.SOLVER_ID, MaxRectsCuttingPlanSolver.SOLVER_ID,
+            MultiStartCuttingPlanSolver.SOLVER_ID, SkylineCuttingPlanSolver.SOLVER_ID})
+    private String solverId;
+
+    private CuttingPlanSolver solver;
+    private PlankProblemSnapshot problem;
+
+    @Setup(Level.Trial)
+    public void loadProblem() throws IOException, ClassNotFoundException {
+        final Path examplePath = Path.of(System.getProperty(EXAMPLES_DIR_PROPERTY, "examples"), example + ".wp");
+        final PlankProblem plankProblem = SerializationUtility.deserialize(Files.readAllBytes(examplePath));
+        problem = plankProblem.createSnapshot();
+        solver = CuttingPlanSolver.getSolver(solverId);
+    }
+
+    @Benchmark
+    public Pair<Collection<CuttingPlan>, Set<RequiredPlank>> solve(final SolutionQualityCounters qualityCounters) {
+        return qualityCounters.record(problem, solver.solve(problem));
+    }
+}
@@ -0,0 +1,114 @@
+package bayern.steinbrecher.woodpacker.data;
+
+import javafx.util.Pair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Measures how fast each {@link CuttingPlanSolver} solves randomly generated plank problems of different sizes. The
+ * problems are generated with a fixed seed such that consecutive runs solve the same problems. Since the parallel
+ * candidate evaluation solely affects {@link GreedyRowCuttingPlanSolver} it is measured by a separate benchmark. The
+ * quality of the solutions is reported by {@link SolutionQualityCounters}.
+ *
+ * @author Stefan Huber
+ * @since 0.1
+ */
+public class GeneratedPlankProblemBenchmark {
+    private static final long SEED = 20_220_512L;
+    private static final int BASE_PLANK_WIDTH = 2800;
+    private static final int BASE_PLANK_HEIGHT = 2070;
+    private static final int MIN_PLANK_LENGTH = 50;
+
+    @State(Scope.Benchmark)
+    public static class GeneratedProblem {
+        @Param({"10", "100", "1000", "10000"})
+        private int numRequiredPlanks;
+
+        @Param({"0", "4"})
+        private int cuttingWidth;
+
+        @Param({"0", "15"})
+        private int basePlankOversize;
+
+        private PlankProblemSnapshot problem;
+
+        @Setup(Level.Trial)
+        public void generateProblem() {
+            final Random random = new Random(SEED + numRequiredPlanks);
+            final PlankGrainDirection[] grainDirections = PlankGrainDirection.values();
+            final Set<RequiredPlank> requiredPlanks = new HashSet<>();
+            for (int i = 0; i < numRequiredPlanks; i++) {
+                /* NOTE Most planks are rather small compared to the base plank. Some planks are as large as half of
+                 * the base plank.
+                 */
+                final int width = MIN_PLANK_LENGTH + random.nextInt(BASE_PLANK_WIDTH / (random.nextInt(4) + 2));
+                final int height = MIN_PLANK_LENGTH + random.nextInt(BASE_PLANK_HEIGHT / (random.nextInt(4) + 2));
+                requiredPlanks.add(new RequiredPlank(
+                        "plank" + i, width, height, grainDirections[random.nextInt(grainDirections.length)]));
+            }
+            final Map<PlankSolutionCriterion, Double> criterionWeights = new EnumMap<>(PlankSolutionCriterion.class);
+            for (final PlankSolutionCriterion criterion : PlankSolutionCriterion.values()) {
+                criterionWeights.put(criterion, 1d);
+            }
+            final BasePlank basePlank = new BasePlank("base", BASE_PLANK_WIDTH, BASE_PLANK_HEIGHT,
+                    PlankGrainDirection.HORIZONTAL, PlankMaterial.UNDEFINED);
+            problem = new PlankProblemSnapshot(
+                    basePlank, requiredPlanks, criterionWeights, basePlankOversize, cuttingWidth);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class ChosenSolver {
+        @Param({GuillotineCuttingPlanSolver.SOLVER_ID, MaxRectsCuttingPlanSolver.SOLVER_ID,
+                SkylineCuttingPlanSolver.SOLVER_ID})
+        private String solverId;
+
+        private CuttingPlanSolver solver;
+
+        @Setup(Level.Trial)
+        public void chooseSolver() {
+            solver = CuttingPlanSolver.getSolver(solverId);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class GreedySolver {
+        @Param({"false", "true"})
+        private boolean parallelCandidateEvaluation;
+
+        private CuttingPlanSolver solver;
+
+        @Setup(Level.Trial)
+        public void createSolver() {
+            solver = new GreedyRowCuttingPlanSolver(parallelCandidateEvaluation ? ForkJoinPool.commonPool() : null);
+        }
+    }
+
+    @Benchmark
+    public Pair<Collection<CuttingPlan>, Set<RequiredPlank>> solve(
+            final GeneratedProblem generatedProblem, final ChosenSolver chosenSolver,
+            final SolutionQualityCounters qualityCounters) {
+        return qualityCounters.record(
+                generatedProblem.problem, chosenSolver.solver.solve(generatedProblem.problem));
+    }
+
+    @Benchmark
+    public Pair<Collection<CuttingPlan>, Set<RequiredPlank>> solveGreedy(
+            final GeneratedProblem generatedProblem, final GreedySolver greedySolver,
+            final SolutionQualityCounters qualityCounters) {
+        return qualityCounters.record(
+                generatedProblem.problem, greedySolver.solver.solve(generatedProblem.problem));
+    }
+}
@@ -0,0 +1,49 @@
+package bayern.steinbrecher.woodpacker.data;
+
+import javafx.util.Pair;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Reports the {@link SolutionReport} of the last solution a benchmark determined within an iteration as secondary
+ * results of the benchmark. The report is created after each iteration such that it does not affect the measured
+ * time.
+ *
+ * @author Stefan Huber
+ * @since 0.1
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.EVENTS)
+public class SolutionQualityCounters {
+    public double areaUtilization;
+    public int numBasePlanks;
+    public int areaLowerBound;
+    public int numUnplacedPlanks;
+
+    private PlankProblemSnapshot problem;
+    private Pair<Collection<CuttingPlan>, Set<RequiredPlank>> lastSolution;
+
+    Pair<Collection<CuttingPlan>, Set<RequiredPlank>> record(
+            final PlankProblemSnapshot problem, final Pair<Collection<CuttingPlan>, Set<RequiredPlank>> solution) {
+        this.problem = problem;
+        lastSolution = solution;
+        return solution;
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportSolutionQuality() {
+        if (lastSolution != null) {
+            final SolutionReport report = SolutionReport.of(problem, lastSolution);
+            areaUtilization = report.areaUtilization();
+            numBasePlanks = report.numBasePlanks();
+            areaLowerBound = report.areaLowerBound();
+            numUnplacedPlanks = report.numUnplacedPlanks();
+        }
+    }
+}
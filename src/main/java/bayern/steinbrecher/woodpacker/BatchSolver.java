@@ -0,0 +1,250 @@
+package bayern.steinbrecher.woodpacker;
+
+import bayern.steinbrecher.woodpacker.data.CuttingPlan;
+import bayern.steinbrecher.woodpacker.data.CuttingPlanSolver;
+import bayern.steinbrecher.woodpacker.data.MaterialGroupSolver;
+import bayern.steinbrecher.woodpacker.data.OffcutStore;
+import bayern.steinbrecher.woodpacker.data.PlankProblem;
+import bayern.steinbrecher.woodpacker.data.PlankProblemSnapshot;
+import bayern.steinbrecher.woodpacker.data.RequiredPlank;
+import bayern.steinbrecher.woodpacker.data.SolutionReport;
+import bayern.steinbrecher.woodpacker.utility.JSONGenerator;
+import bayern.steinbrecher.woodpacker.utility.PDFGenerator;
+import bayern.steinbrecher.woodpacker.utility.SerializationUtility;
+import javafx.util.Pair;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Solves plank problems stored as {@code *.wp} files without any graphical user interface and without starting the
+ * JavaFX toolkit. Multiple problems are solved in parallel.
+ * <p>
+ * Usage: {@code BatchSolver [--format pdf|json] [--output <directory>] [--threads <count>] [--offcuts]
+ * [--solver <id>] <file or directory>...}
+ * <p>
+ * Every directory is searched (non-recursively) for {@code *.wp} files. The result of each problem is written next to
+ * its input file unless an output directory is given. With {@code --offcuts} every problem first uses the offcuts of
+ * the {@link OffcutStore#openUserStore() offcut store of the user} and stores its own offcuts afterwards. Since the
+ * problems depend on each other in this case they are solved one after another. With {@code --solver} any of the
+ * {@link CuttingPlanSolver#getAvailableSolvers() available solvers} is chosen by its ID instead of the default one.
+ *
+ * @author Stefan Huber
+ * @since 0.1
+ */
+public final class BatchSolver {
+    private static final Logger LOGGER = Logger.getLogger(BatchSolver.class.getName());
+    private static final String PLANK_PROBLEM_EXTENSION = ".wp";
+    private static final String USAGE = "Usage: BatchSolver [--format pdf|json] [--output <directory>] "
+            + "[--threads <count>] [--offcuts] [--solver <id>] <file or directory>...";
+
+    private final OutputFormat outputFormat;
+    private final Path outputDirectory;
+    private final int numThreads;
+    private final OffcutStore offcutStore;
+    private final CuttingPlanSolver solver;
+
+    /**
+     * @param offcutStore The store of offcuts to use and to update. If {@code null} no offcuts are used.
+     */
+    private BatchSolver(final OutputFormat outputFormat, final Path outputDirectory, final int numThreads,
+                        final OffcutStore offcutStore, final CuttingPlanSolver solver) {
+        this.outputFormat = outputFormat;
+        this.outputDirectory = outputDirectory;
+        this.numThreads = (offcutStore == null) ? numThreads : 1;
+        this.offcutStore = offcutStore;
+        this.solver = solver;
+    }
+
+    private static List<Path> collectJobs(final Iterable<Path> inputs) throws IOException {
+        final List<Path> jobs = new ArrayList<>();
+        for (final Path input : inputs) {
+            if (Files.isDirectory(input)) {
+                try (Stream<Path> directoryContent = Files.list(input)) {
+                    directoryContent.filter(Files::isRegularFile)
+                            .filter(path -> path.getFileName().toString().endsWith(PLANK_PROBLEM_EXTENSION))
+                            .sorted()
+                            .forEach(jobs::add);
+                }
+            } else {
+                jobs.add(input);
+            }
+        }
+        return jobs;
+    }
+
+    private Path determineOutputPath(final Path job) {
+        final String jobFileName = job.getFileName().toString();
+        final String baseName = jobFileName.endsWith(PLANK_PROBLEM_EXTENSION)
+                ? jobFileName.substring(0, jobFileName.length() - PLANK_PROBLEM_EXTENSION.length())
+                : jobFileName;
+        final Path targetDirectory = outputDirectory == null ? job.toAbsolutePath().getParent() : outputDirectory;
+        return targetDirectory.resolve(baseName + outputFormat.getExtension());
+    }
+
+    private Path solve(final Path job) throws IOException, ClassNotFoundException {
+        final PlankProblem problem = SerializationUtility.deserialize(Files.readAllBytes(job));
+        problem.setOffcutStore(offcutStore);
+        final PlankProblemSnapshot snapshot = problem.createSnapshot();
+        final Pair<Collection<CuttingPlan>, Set<RequiredPlank>> solution
+                = new MaterialGroupSolver(solver, ForkJoinPool.commonPool()).solve(snapshot);
+        LOGGER.log(Level.INFO, "{0}: {1}", new Object[]{job, SolutionReport.of(snapshot, solution)});
+        final Path outputPath = determineOutputPath(job);
+        final File outputFile = outputPath.toFile();
+        switch (outputFormat) { // NOPMD - All possible values are handled
+            case PDF -> PDFGenerator.generateCuttingPlanDocument(
+                    solution.getKey(), solution.getValue(), problem, outputFile);
+            case JSON -> JSONGenerator.generateCuttingPlanDocument(
+                    solution.getKey(), solution.getValue(), problem, outputFile);
+        }
+        if (offcutStore != null) {
+            offcutStore.commit(solution.getKey());
+        }
+        return outputPath;
+    }
+
+    /**
+     * @return The number of jobs which failed.
+     */
+    private int solveAll(final List<Path> jobs) throws InterruptedException {
+        final ExecutorService jobExecutor = Executors.newFixedThreadPool(numThreads);
+        int numFailedJobs = 0;
+        try {
+            final List<Future<Path>> results = new ArrayList<>(jobs.size());
+            for (final Path job : jobs) {
+                results.add(jobExecutor.submit(() -> solve(job)));
+            }
+            for (int i = 0; i < jobs.size(); i++) {
+                try {
+                    final Path outputPath = results.get(i).get();
+                    LOGGER.log(Level.INFO, "Solved {0} into {1}", new Object[]{jobs.get(i), outputPath});
+                } catch (ExecutionException ex) {
+                    LOGGER.log(Level.SEVERE, String.format("Could not solve %s", jobs.get(i)), ex.getCause());
+                    numFailedJobs++;
+                }
+            }
+        } finally {
+            jobExecutor.shutdownNow();
+        }
+        return numFailedJobs;
+    }
+
+    @SuppressWarnings("PMD.SystemPrintln")
+    private static void exitWithUsage(final String message) {
+        System.err.println(message);
+        System.err.println(USAGE);
+        System.exit(2); // NOPMD - This is the entry point of a command line application
+    }
+
+    public static void main(final String[] args) throws IOException, InterruptedException {
+        OutputFormat outputFormat = OutputFormat.PDF;
+        Path outputDirectory = null;
+        int numThreads = Runtime.getRuntime().availableProcessors();
+        boolean useOffcuts = false;
+        String solverId = CuttingPlanSolver.DEFAULT_SOLVER_ID;
+        final List<Path> inputs = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            final boolean hasValue = i + 1 < args.length;
+            switch (args[i]) {
+                case "--format" -> {
+                    if (!hasValue) {
+                        exitWithUsage("Missing value for --format");
+                    }
+                    i++;
+                    try {
+                        outputFormat = OutputFormat.valueOf(args[i].toUpperCase(Locale.ROOT));
+                    } catch (IllegalArgumentException ex) {
+                        exitWithUsage(String.format("Unknown output format '%s'", args[i]));
+                    }
+                }
+                case "--output" -> {
+                    if (!hasValue) {
+                        exitWithUsage("Missing value for --output");
+                    }
+                    i++;
+                    outputDirectory = Path.of(args[i]);
+                }
+                case "--threads" -> {
+                    if (!hasValue) {
+                        exitWithUsage("Missing value for --threads");
+                    }
+                    i++;
+                    try {
+                        numThreads = Integer.parseInt(args[i]);
+                    } catch (NumberFormatException ex) {
+                        exitWithUsage(String.format("'%s' is not a number of threads", args[i]));
+                    }
+                    if (numThreads <= 0) {
+                        exitWithUsage("The number of threads has to be positive");
+                    }
+                }
+                case "--offcuts" -> useOffcuts = true;
+                case "--solver" -> {
+                    if (!hasValue) {
+                        exitWithUsage("Missing value for --solver");
+                    }
+                    i++;
+                    solverId = args[i];
+                }
+                default -> inputs.add(Path.of(args[i]));
+            }
+        }
+        if (inputs.isEmpty()) {
+            exitWithUsage("No plank problems given");
+        }
+        if (outputDirectory != null) {
+            Files.createDirectories(outputDirectory);
+        }
+
+        CuttingPlanSolver solver = null;
+        try {
+            solver = CuttingPlanSolver.getSolver(solverId);
+        } catch (IllegalArgumentException ex) {
+            exitWithUsage(String.format("Unknown solver '%s'. Available solvers: %s", solverId,
+                    CuttingPlanSolver.getAvailableSolvers()
+                            .stream()
+                            .map(CuttingPlanSolver::getSolverId)
+                            .toList()));
+        }
+
+        final List<Path> jobs = collectJobs(inputs);
+        final OffcutStore offcutStore = useOffcuts ? OffcutStore.openUserStore() : null;
+        final int numFailedJobs = new BatchSolver(outputFormat, outputDirectory, numThreads, offcutStore, solver)
+                .solveAll(jobs);
+        LOGGER.log(Level.INFO, "Solved {0} of {1} plank problem(s)",
+                new Object[]{jobs.size() - numFailedJobs, jobs.size()});
+        if (numFailedJobs > 0) {
+            System.exit(1); // NOPMD - This is the entry point of a command line application
+        }
+    }
+
+    private enum OutputFormat {
+        PDF(".pdf"),
+        JSON(".json");
+
+        private final String extension;
+
+        OutputFormat(final String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+}
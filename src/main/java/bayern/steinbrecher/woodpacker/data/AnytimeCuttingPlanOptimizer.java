@@ -0,0 +1,158 @@
+package bayern.steinbrecher.woodpacker.data;
+
+import javafx.util.Pair;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
+
+/**
+ * Improves a solution of a {@link PlankProblemSnapshot} for as long as it is allowed to. It uses simulated annealing
+ * over the order in which planks are placed and over their preferred orientation. Each order is turned into cutting
+ * plans by a {@link SheetPackingSolver}. A solution is better than another one if it leaves fewer planks unplaced,
+ * requires fewer base planks or, as a tie breaker, fills its base planks more unevenly, i.e. brings the last base
+ * plank closer to becoming unnecessary.
+ *
+ * @author Stefan Huber
+ * @since 0.1
+ */
+public final class AnytimeCuttingPlanOptimizer {
+    private static final long DEFAULT_SEED = 20_220_601L;
+    /**
+     * The probability of accepting a solution which is worse by half a base plank at the start of the optimization.
+     */
+    private static final double INITIAL_ACCEPTANCE_PROBABILITY = 0.1;
+    private static final double INITIAL_TEMPERATURE = -0.5 / Math.log(INITIAL_ACCEPTANCE_PROBABILITY);
+
+    private final PlankProblemSnapshot problem;
+    private final SheetPackingSolver decoder;
+    private final Random random;
+
+    /**
+     * Create an optimizer which places planks using {@link GuillotineCuttingPlanSolver} such that all resulting
+     * cutting plans can be cut with guillotine cuts only.
+     */
+    public AnytimeCuttingPlanOptimizer(final PlankProblemSnapshot problem) {
+        this(problem, new GuillotineCuttingPlanSolver(), DEFAULT_SEED);
+    }
+
+    AnytimeCuttingPlanOptimizer(final PlankProblemSnapshot problem, final SheetPackingSolver decoder,
+                                final long seed) {
+        this.problem = problem;
+        this.decoder = decoder;
+        this.random = new Random(seed);
+    }
+
+    /**
+     * @return The cost of the given solution. The lower the cost the better the solution. Leaving a plank unplaced is
+     * worse than using any number of additional base planks and using an additional base plank is worse than any
+     * distribution of the planks.
+     */
+    static double determineCost(final PlankProblemSnapshot problem,
+                                final Pair<Collection<CuttingPlan>, Set<RequiredPlank>> solution) {
+        final Collection<CuttingPlan> cuttingPlans = solution.getKey();
+        double squaredFillSum = 0;
+        for (final CuttingPlan cuttingPlan : cuttingPlans) {
+            final BasePlank basePlank = cuttingPlan.getBasePlank();
+            final long usableArea = (long) (basePlank.getWidth() - 2 * cuttingPlan.getOversize())
+                    * (basePlank.getHeight() - 2 * cuttingPlan.getOversize());
+            long utilizedArea = 0;
+            for (final PlankSolutionRow row : cuttingPlan.getRows()) {
+                utilizedArea += row.getUtilizedArea();
+            }
+            final double fill = (usableArea <= 0) ? 0 : (((double) utilizedArea) / usableArea);
+            squaredFillSum += fill * fill;
+        }
+        final double meanSquaredFill = cuttingPlans.isEmpty() ? 0 : (squaredFillSum / cuttingPlans.size());
+        return ((double) solution.getValue().size()) * (problem.requiredPlanks().size() + 1)
+                + cuttingPlans.size()
+                - meanSquaredFill;
+    }
+
+    private void mutate(final RequiredPlank[] order, final boolean[] rotatedFirst) {
+        final int first = random.nextInt(order.length);
+        final int second = random.nextInt(order.length);
+        switch (random.nextInt(3)) {
+            case 0 -> {
+                // Swap two planks
+                final RequiredPlank swappedPlank = order[first];
+                order[first] = order[second];
+                order[second] = swappedPlank;
+                final boolean swappedOrientation = rotatedFirst[first];
+                rotatedFirst[first] = rotatedFirst[second];
+                rotatedFirst[second] = swappedOrientation;
+            }
+            case 1 -> {
+                // Move a plank to an earlier position
+                final int from = Math.max(first, second);
+                final int to = Math.min(first, second);
+                final RequiredPlank movedPlank = order[from];
+                final boolean movedOrientation = rotatedFirst[from];
+                System.arraycopy(order, to, order, to + 1, from - to);
+                System.arraycopy(rotatedFirst, to, rotatedFirst, to + 1, from - to);
+                order[to] = movedPlank;
+                rotatedFirst[to] = movedOrientation;
+            }
+            default -> rotatedFirst[first] = !rotatedFirst[first];
+        }
+    }
+
+    /**
+     * Search for better solutions until the time budget is exhausted or the thread running the optimization is
+     * interrupted. Interrupting the thread does not throw any exception but ends the optimization early.
+     *
+     * @param initialSolution The solution to improve.
+     * @param timeBudget      The time to spend at most.
+     * @param onImprovement   Called on the thread running the optimization with each solution which is strictly
+     *                        better than any solution found before including the initial one.
+     * @return The best solution found. This is the initial solution if no better solution was found.
+     */
+    public Pair<Collection<CuttingPlan>, Set<RequiredPlank>> optimize(
+            final Pair<Collection<CuttingPlan>, Set<RequiredPlank>> initialSolution, final Duration timeBudget,
+            final Consumer<Pair<Collection<CuttingPlan>, Set<RequiredPlank>>> onImprovement) {
+        final long startNanos = System.nanoTime();
+        final long budgetNanos = timeBudget.toNanos();
+        Pair<Collection<CuttingPlan>, Set<RequiredPlank>> bestSolution = initialSolution;
+        double bestCost = determineCost(problem, initialSolution);
+
+        RequiredPlank[] order = problem.requiredPlanks()
+                .stream()
+                .sorted(SheetPackingSolver.PLACEMENT_ORDER)
+                .toArray(RequiredPlank[]::new);
+        boolean[] rotatedFirst = new boolean[order.length];
+        if (order.length > 0) {
+            try {
+                double currentCost = determineCost(problem, decoder.solve(problem, order, rotatedFirst));
+                long elapsedNanos = System.nanoTime() - startNanos;
+                while (elapsedNanos < budgetNanos && !Thread.currentThread().isInterrupted()) {
+                    final RequiredPlank[] candidateOrder = order.clone();
+                    final boolean[] candidateRotatedFirst = rotatedFirst.clone();
+                    mutate(candidateOrder, candidateRotatedFirst);
+                    final Pair<Collection<CuttingPlan>, Set<RequiredPlank>> candidate
+                            = decoder.solve(problem, candidateOrder, candidateRotatedFirst);
+                    final double candidateCost = determineCost(problem, candidate);
+
+                    final double temperature = INITIAL_TEMPERATURE * (1 - ((double) elapsedNanos) / budgetNanos);
+                    if (candidateCost <= currentCost
+                            || random.nextDouble() < Math.exp((currentCost - candidateCost) / temperature)) {
+                        order = candidateOrder;
+                        rotatedFirst = candidateRotatedFirst;
+                        currentCost = candidateCost;
+                    }
+                    if (candidateCost < bestCost) {
+                        bestSolution = candidate;
+                        bestCost = candidateCost;
+                        onImprovement.accept(bestSolution);
+                    }
+                    elapsedNanos = System.nanoTime() - startNanos;
+                }
+            } catch (CancellationException ex) { // NOPMD - Interrupting only ends the optimization early
+                // The best solution found so far is returned
+            }
+        }
+        return bestSolution;
+    }
+}
@@ -0,0 +1,160 @@
+package bayern.steinbrecher.woodpacker.data;
+
+import javafx.geometry.Point2D;
+
+import java.util.Arrays;
+import java.util.function.Function;
+
+/**
+ * A row which {@link GreedyCuttingPlanSolver} assembles while evaluating candidates. It behaves like a
+ * {@link PlankSolutionRow} but refers to planks by {@link PlankVariant}s and solely tracks the key figures required for
+ * rating it. Hence, assembling and rating a candidate neither creates any plank nor any collection. Only the
+ * candidate which is actually chosen is converted into a {@link PlankSolutionRow}.
+ *
+ * @author Stefan Huber
+ * @since 0.1
+ */
+final class CandidateRow {
+    private static final int INITIAL_CAPACITY = 8;
+
+    private final int xPos;
+    private final int yPos;
+    private final boolean addingHorizontally;
+    private final int maxLength;
+    private final int maxBreadth;
+    private final int cuttingWidth;
+    private PlankVariant[] variants = new PlankVariant[INITIAL_CAPACITY];
+    private int numPlanks;
+    private int[] distinctBreadths = new int[INITIAL_CAPACITY];
+    private int numBreadths;
+    private int currentLength;
+    private int currentBreadth;
+    private int utilizedArea;
+    /**
+     * The plank which {@link PlankSolutionRow} would list first, i.e. the plank with the greatest breadth and among
+     * these the one with the smallest index. Its grain direction determines which further planks fit.
+     */
+    private PlankVariant leadingVariant;
+
+    CandidateRow(final int xPos, final int yPos, final boolean addingHorizontally, final int maxLength,
+                 final int maxBreadth, final int cuttingWidth) {
+        this.xPos = xPos;
+        this.yPos = yPos;
+        this.addingHorizontally = addingHorizontally;
+        this.maxLength = maxLength;
+        this.maxBreadth = maxBreadth;
+        this.cuttingWidth = cuttingWidth;
+    }
+
+    private int getLength(final PlankVariant variant) {
+        return addingHorizontally ? variant.width() : variant.height();
+    }
+
+    private int getBreadth(final PlankVariant variant) {
+        return addingHorizontally ? variant.height() : variant.width();
+    }
+
+    private boolean hasBreadth(final int breadth) {
+        boolean found = false;
+        for (int i = 0; i < numBreadths && !found; i++) {
+            found = distinctBreadths[i] == breadth;
+        }
+        return found;
+    }
+
+    /**
+     * @see PlankSolutionRow#canContain(Plank)
+     */
+    public boolean canContain(final PlankVariant variant) {
+        return (currentLength + cuttingWidth + getLength(variant)) <= maxLength
+                && getBreadth(variant) <= maxBreadth
+                && (leadingVariant == null || variant.matchesGrainDirection(leadingVariant.grainDirection()));
+    }
+
+    /**
+     * @see PlankSolutionRow#addPlank(RequiredPlank)
+     */
+    public void add(final PlankVariant variant) {
+        assert canContain(variant) : "The candidate can not contain the given plank";
+        if (numPlanks > 0) {
+            currentLength += cuttingWidth;
+        }
+        final int breadth = getBreadth(variant);
+        currentLength += getLength(variant);
+        currentBreadth = Math.max(currentBreadth, breadth);
+        utilizedArea += variant.getArea();
+        if (!hasBreadth(breadth)) {
+            if (numBreadths >= distinctBreadths.length) {
+                distinctBreadths = Arrays.copyOf(distinctBreadths, 2 * distinctBreadths.length);
+            }
+            distinctBreadths[numBreadths] = breadth;
+            numBreadths++;
+        }
+        if (leadingVariant == null || breadth > getBreadth(leadingVariant)
+                || (breadth == getBreadth(leadingVariant) && variant.plankIndex() < leadingVariant.plankIndex())) {
+            leadingVariant = variant;
+        }
+        if (numPlanks >= variants.length) {
+            variants = Arrays.copyOf(variants, 2 * variants.length);
+        }
+        variants[numPlanks] = variant;
+        numPlanks++;
+    }
+
+    public int getXPos() {
+        return xPos;
+    }
+
+    public int getYPos() {
+        return yPos;
+    }
+
+    public boolean isAddingHorizontally() {
+        return addingHorizontally;
+    }
+
+    public int getNumPlanks() {
+        return numPlanks;
+    }
+
+    public int getNumBreadths() {
+        return numBreadths;
+    }
+
+    /**
+     * @see PlankSolutionRow#getBreadths()
+     */
+    public int getNumBreadthsWith(final PlankVariant prospectiveVariant) {
+        return hasBreadth(getBreadth(prospectiveVariant)) ? numBreadths : (numBreadths + 1);
+    }
+
+    /**
+     * @see PlankSolutionRow#getAreaUtilization()
+     */
+    public double getAreaUtilization() {
+        return PlankSolutionRow.calculateAreaUtilization(utilizedArea, currentBreadth * maxLength);
+    }
+
+    /**
+     * @see PlankSolutionRow#getAreaUtilization()
+     */
+    public double getAreaUtilizationWith(final PlankVariant prospectiveVariant) {
+        final int prospectiveBreadth = Math.max(currentBreadth, getBreadth(prospectiveVariant));
+        return PlankSolutionRow.calculateAreaUtilization(
+                utilizedArea + prospectiveVariant.getArea(), prospectiveBreadth * maxLength);
+    }
+
+    /**
+     * @param toRequiredPlank Creates the {@link RequiredPlank} a {@link PlankVariant} represents.
+     * @return A {@link PlankSolutionRow} containing the planks of this candidate in the same order as they were added.
+     */
+    public PlankSolutionRow toSolutionRow(final Function<PlankVariant, RequiredPlank> toRequiredPlank) {
+        final PlankSolutionRow solutionRow = new PlankSolutionRow(
+                new Point2D(xPos, yPos), addingHorizontally, maxLength, maxBreadth, cuttingWidth);
+        for (int i = 0; i < numPlanks; i++) {
+            final boolean added = solutionRow.addPlank(toRequiredPlank.apply(variants[i]));
+            assert added : "The solution row does not accept a plank of the candidate";
+        }
+        return solutionRow;
+    }
+}
@@ -2,6 +2,7 @@ package bayern.steinbrecher.woodpacker.data;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 
 /**
  * @author Stefan Huber
@@ -11,17 +12,37 @@ public class CuttingPlan {
     private final Collection<PlankSolutionRow> rows;
     private final BasePlank basePlank;
     private final int oversize;
+    private final List<Offcut> offcuts;
 
     public CuttingPlan(final Collection<PlankSolutionRow> rows, final BasePlank basePlank, final int oversize) {
+        this(rows, basePlank, oversize, List.of());
+    }
+
+    /**
+     * @param offcuts The parts of the base plank which remain after cutting all rows.
+     */
+    public CuttingPlan(final Collection<PlankSolutionRow> rows, final BasePlank basePlank, final int oversize,
+                       final List<Offcut> offcuts) {
         this.rows = Collections.unmodifiableCollection(rows);
         this.basePlank = basePlank;
         this.oversize = oversize;
+        this.offcuts = List.copyOf(offcuts);
     }
 
     public Collection<PlankSolutionRow> getRows() {
         return rows;
     }
 
+    /**
+     * @return The planks of all rows of this cutting plan together with their positions on the base plank.
+     * @see PlankSolutionRow#getPlacedPlanks()
+     */
+    public List<PlacedPlank> getPlacedPlanks() {
+        return rows.stream()
+                .flatMap(row -> row.getPlacedPlanks().stream())
+                .toList();
+    }
+
     public BasePlank getBasePlank() {
         return basePlank;
     }
@@ -29,4 +50,12 @@ public class CuttingPlan {
     public int getOversize() {
         return oversize;
     }
+
+    /**
+     * @return The parts of the base plank which remain after cutting all rows excluding the oversize. They are
+     * ordered by their position from top to bottom and from left to right.
+     */
+    public List<Offcut> getOffcuts() {
+        return offcuts;
+    }
 }
@@ -0,0 +1,77 @@
+package bayern.steinbrecher.woodpacker.data;
+
+import javafx.util.Pair;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+
+/**
+ * An algorithm which places the required planks of a {@link PlankProblemSnapshot} on cutting plans. Implementations
+ * are service providers which are looked up by {@link #getAvailableSolvers()}. Each implementation needs a public
+ * constructor without any arguments and has to be stateless such that a single instance is able to solve multiple
+ * problems concurrently.
+ *
+ * @author Stefan Huber
+ * @since 0.1
+ */
+public interface CuttingPlanSolver {
+    /**
+     * The ID of the solver which is used if no other solver is chosen explicitly.
+     */
+    String DEFAULT_SOLVER_ID = GreedyRowCuttingPlanSolver.SOLVER_ID;
+
+    /**
+     * @return All solvers which are provided by any module or by the class path ordered by their IDs.
+     */
+    static List<CuttingPlanSolver> getAvailableSolvers() {
+        return ServiceLoader.load(CuttingPlanSolver.class)
+                .stream()
+                .map(ServiceLoader.Provider::get)
+                .sorted((solverA, solverB) -> solverA.getSolverId().compareTo(solverB.getSolverId()))
+                .toList();
+    }
+
+    /**
+     * @throws IllegalArgumentException Thrown if there is no solver with the given ID.
+     */
+    static CuttingPlanSolver getSolver(final String solverId) {
+        return getAvailableSolvers()
+                .stream()
+                .filter(solver -> solver.getSolverId().equals(solverId))
+                .findAny()
+                .orElseThrow(() -> new IllegalArgumentException(
+                        String.format("There is no cutting plan solver with ID '%s'", solverId)));
+    }
+
+    /**
+     * @return The unique ID of this solver. It is used for choosing a solver e.g. on the command line.
+     */
+    String getSolverId();
+
+    /**
+     * @return A list of cutting plans that fit on the offcuts and the stocked base planks and the set of the remaining
+     * planks that do not fit onto any of them.
+     * @throws CancellationException Thrown if the thread running the solver is interrupted before a solution was found.
+     */
+    Pair<Collection<CuttingPlan>, Set<RequiredPlank>> solve(PlankProblemSnapshot problem);
+
+    /**
+     * Determine a solution which may take over parts of a previous solution. By default a solution is determined from
+     * scratch.
+     *
+     * @param previousProblem  The problem the previous solution was determined for. May be {@code null}.
+     * @param previousSolution The solution which was determined for the previous problem. May be {@code null}.
+     * @return A list of cutting plans that fit on the offcuts and the stocked base planks and the set of the remaining
+     * planks that do not fit onto any of them.
+     * @throws CancellationException Thrown if the thread running the solver is interrupted before a solution was found.
+     * @see PlankProblem#incrementalSolvingProperty()
+     */
+    default Pair<Collection<CuttingPlan>, Set<RequiredPlank>> solveIncrementally(
+            final PlankProblemSnapshot problem, final PlankProblemSnapshot previousProblem,
+            final Pair<Collection<CuttingPlan>, Set<RequiredPlank>> previousSolution) {
+        return solve(problem);
+    }
+}
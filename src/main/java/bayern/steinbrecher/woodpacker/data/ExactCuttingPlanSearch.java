@@ -0,0 +1,549 @@
+package bayern.steinbrecher.woodpacker.data;
+
+import bayern.steinbrecher.woodpacker.data.SheetPackingSolver.FreeArea;
+import bayern.steinbrecher.woodpacker.data.SheetPackingSolver.Placement;
+import bayern.steinbrecher.woodpacker.data.SheetPackingSolver.SheetLayout;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Searches for an assignment of the required planks to as few base planks of a single kind as possible using branch
+ * and bound. Each plank is either added to a base plank which already holds other planks or to a new one. Whether a
+ * set of planks fits onto a base plank is determined exactly by {@link #pack(long, int, int)} which tries all
+ * guillotine cuts through the base plank and memoises the result for each combination of planks and sub-rectangle.
+ * Sets of planks are represented by bit masks over the indices of the planks.
+ *
+ * @author Stefan Huber
+ * @since 0.1
+ */
+final class ExactCuttingPlanSearch {
+    private static final Logger LOGGER = Logger.getLogger(ExactCuttingPlanSearch.class.getName());
+    /**
+     * The number of planks following the ones which are assigned up front whose assignment to base planks is explored
+     * concurrently. The assignments of all remaining planks are explored sequentially.
+     */
+    private static final int PARALLEL_DEPTH = 4;
+
+    private final BasePlank basePlank;
+    private final int basePlankOversize;
+    private final int cuttingWidth;
+    /**
+     * The planks ordered by the sequence in which they are assigned to base planks.
+     */
+    private final RequiredPlank[] planks;
+    private final List<List<PlankVariant>> plankVariants = new ArrayList<>();
+    private final long[] plankAreas;
+    private final int sheetWidth;
+    private final int sheetHeight;
+    private final long sheetArea;
+    /**
+     * The number of planks which pairwise do not fit onto the same base plank. They are assigned to base planks of
+     * their own before the search starts.
+     */
+    private final int numPreassigned;
+    private final int lowerBound;
+    private final long deadlineNanos;
+    private final SheetPackingSolver heuristicPacker = new GuillotineCuttingPlanSolver();
+    private final Map<Region, Optional<SheetLayout>> layouts = new ConcurrentHashMap<>();
+    private final Map<Long, BitSet> normalWidths = new ConcurrentHashMap<>();
+    private final Map<Long, BitSet> normalHeights = new ConcurrentHashMap<>();
+    private volatile boolean cancelled;
+    private volatile boolean optimalFound;
+    private volatile int bestNumSheets;
+    private long[] bestSheetMasks;
+
+    /**
+     * @param upperBound    The number of base planks required by a known solution. Only solutions requiring less base
+     *                      planks are searched for.
+     * @param deadlineNanos The value of {@link System#nanoTime()} at which the search stops.
+     */
+    ExactCuttingPlanSearch(final PlankProblemSnapshot problem, final BasePlank basePlank, final int upperBound,
+                           final long deadlineNanos) {
+        this.basePlank = basePlank;
+        this.basePlankOversize = problem.basePlankOversize();
+        this.cuttingWidth = problem.cuttingWidth();
+        this.sheetWidth = basePlank.getWidth() - 2 * basePlankOversize + cuttingWidth;
+        this.sheetHeight = basePlank.getHeight() - 2 * basePlankOversize + cuttingWidth;
+        this.sheetArea = ((long) sheetWidth) * sheetHeight;
+        this.bestNumSheets = upperBound;
+        this.deadlineNanos = deadlineNanos;
+
+        final RequiredPlank[] sortedPlanks = problem.requiredPlanks()
+                .stream()
+                .sorted(SheetPackingSolver.PLACEMENT_ORDER)
+                .toArray(RequiredPlank[]::new);
+        final List<List<PlankVariant>> sortedVariants = new ArrayList<>();
+        for (int i = 0; i < sortedPlanks.length; i++) {
+            sortedVariants.add(SheetPackingSolver.createVariants(
+                    sortedPlanks[i], i, cuttingWidth, basePlank.getGrainDirection(), false));
+        }
+
+        // Planks which pairwise do not fit onto a common base plank each require a base plank of their own
+        final List<Integer> incompatibleIndices = new ArrayList<>();
+        final List<Integer> remainingIndices = new ArrayList<>();
+        for (int i = 0; i < sortedPlanks.length; i++) {
+            final List<PlankVariant> variants = sortedVariants.get(i);
+            final boolean incompatibleToAll = incompatibleIndices.stream()
+                    .noneMatch(j -> fitTogether(variants, sortedVariants.get(j)));
+            (incompatibleToAll ? incompatibleIndices : remainingIndices).add(i);
+        }
+        numPreassigned = incompatibleIndices.size();
+
+        planks = new RequiredPlank[sortedPlanks.length];
+        plankAreas = new long[sortedPlanks.length];
+        long totalArea = 0;
+        int position = 0;
+        for (final int sortedIndex : incompatibleIndices) {
+            totalArea += addPlank(position, sortedPlanks[sortedIndex]);
+            position++;
+        }
+        for (final int sortedIndex : remainingIndices) {
+            totalArea += addPlank(position, sortedPlanks[sortedIndex]);
+            position++;
+        }
+        lowerBound = (int) Math.max(numPreassigned, (totalArea + sheetArea - 1) / sheetArea);
+    }
+
+    /**
+     * @return The area of the added plank including the cutting width.
+     */
+    private long addPlank(final int position, final RequiredPlank plank) {
+        planks[position] = plank;
+        final List<PlankVariant> variants = SheetPackingSolver.createVariants(
+                plank, position, cuttingWidth, basePlank.getGrainDirection(), false);
+        plankVariants.add(variants);
+        plankAreas[position] = variants.get(0).getArea();
+        return plankAreas[position];
+    }
+
+    /**
+     * @return {@code true} iff there are orientations of both planks such that they fit next to each other or one
+     * below the other onto a base plank.
+     */
+    private boolean fitTogether(final List<PlankVariant> variantsA, final List<PlankVariant> variantsB) {
+        boolean fitTogether = false;
+        for (final PlankVariant variantA : variantsA) {
+            for (final PlankVariant variantB : variantsB) {
+                fitTogether |= (variantA.width() + variantB.width() <= sheetWidth
+                        && Math.max(variantA.height(), variantB.height()) <= sheetHeight)
+                        || (variantA.height() + variantB.height() <= sheetHeight
+                        && Math.max(variantA.width(), variantB.width()) <= sheetWidth);
+            }
+        }
+        return fitTogether;
+    }
+
+    private boolean isStopped() {
+        return cancelled || optimalFound || System.nanoTime() - deadlineNanos >= 0;
+    }
+
+    /**
+     * Run the search on the given pool.
+     *
+     * @return The cutting plans of a solution which requires less base planks than the upper bound or {@code null} if
+     * no such solution was found before the deadline or if there is none.
+     * @throws CancellationException Thrown if the thread waiting for the search is interrupted.
+     */
+    Collection<CuttingPlan> run(final ForkJoinPool searchPool) {
+        if (lowerBound < bestNumSheets) {
+            final long[] sheetMasks = new long[planks.length];
+            final long[] usedAreas = new long[planks.length];
+            long remainingArea = 0;
+            for (int i = 0; i < planks.length; i++) {
+                if (i < numPreassigned) {
+                    sheetMasks[i] = 1L << i;
+                    usedAreas[i] = plankAreas[i];
+                } else {
+                    remainingArea += plankAreas[i];
+                }
+            }
+            final ForkJoinTask<Void> search = searchPool.submit(
+                    new SearchTask(numPreassigned, sheetMasks, numPreassigned, usedAreas, remainingArea));
+            try {
+                search.get();
+            } catch (InterruptedException ex) {
+                cancelled = true;
+                Thread.currentThread().interrupt();
+                throw (CancellationException) new CancellationException(
+                        "The solver was interrupted while searching for an exact solution").initCause(ex);
+            } catch (ExecutionException ex) {
+                throw new IllegalStateException("Could not search for an exact solution", ex.getCause());
+            }
+            if (!optimalFound) {
+                LOGGER.log(Level.FINE, String.format("The exact search ended without proving optimality. The best "
+                        + "solution requires %d base planks. At least %d are required.", bestNumSheets, lowerBound));
+            }
+        }
+
+        List<CuttingPlan> cuttingPlans = null;
+        final long[] sheetMasks = getBestSheetMasks();
+        if (sheetMasks != null) {
+            cuttingPlans = new ArrayList<>();
+            for (final long sheetMask : sheetMasks) {
+                final SheetLayout layout = pack(sheetMask, sheetWidth, sheetHeight);
+                assert layout != null : "The layout of an accepted base plank is not known anymore";
+                cuttingPlans.add(SheetPackingSolver.createCuttingPlan(
+                        basePlank, basePlankOversize, cuttingWidth, planks, layout));
+            }
+        }
+        return cuttingPlans;
+    }
+
+    private synchronized long[] getBestSheetMasks() {
+        return bestSheetMasks;
+    }
+
+    private synchronized void recordSolution(final long[] sheetMasks, final int numSheets) {
+        if (numSheets < bestNumSheets) {
+            bestSheetMasks = Arrays.copyOf(sheetMasks, numSheets);
+            bestNumSheets = numSheets;
+            optimalFound = numSheets <= lowerBound;
+        }
+    }
+
+    /**
+     * @return A lower bound of the number of base planks any solution requires which extends the given partial
+     * assignment.
+     */
+    private int determineLowerBound(final int numSheets, final long[] usedAreas, final long remainingArea) {
+        long freeArea = 0;
+        for (int i = 0; i < numSheets; i++) {
+            freeArea += sheetArea - usedAreas[i];
+        }
+        final long uncoveredArea = remainingArea - freeArea;
+        final int numAdditionalSheets = (uncoveredArea <= 0) ? 0 : (int) ((uncoveredArea + sheetArea - 1) / sheetArea);
+        return Math.max(lowerBound, numSheets + numAdditionalSheets);
+    }
+
+    /**
+     * Explore all assignments of the plank at the given position and of all subsequent planks.
+     *
+     * @param sheetMasks The planks assigned to each base plank. It is restored before returning.
+     * @param usedAreas  The area of all planks assigned to each base plank. It is restored before returning.
+     */
+    private void explore(final int position, final long[] sheetMasks, final int numSheets, final long[] usedAreas,
+                         final long remainingArea) {
+        if (position >= planks.length) {
+            recordSolution(sheetMasks, numSheets);
+        } else if (!isStopped() && determineLowerBound(numSheets, usedAreas, remainingArea) < bestNumSheets) {
+            final long plankMask = 1L << position;
+            final long plankArea = plankAreas[position];
+            final boolean exploreConcurrently = position < numPreassigned + PARALLEL_DEPTH;
+            final List<SearchTask> subtasks = new ArrayList<>();
+            // Opening a new base plank is only worth it if it results in less base planks than the best solution
+            final int numCandidateSheets = Math.min(numSheets + 1, bestNumSheets - 1);
+            for (int sheet = 0; sheet < numCandidateSheets; sheet++) {
+                final boolean isNewSheet = sheet == numSheets;
+                final boolean fits = isNewSheet
+                        || (usedAreas[sheet] + plankArea <= sheetArea
+                        && pack(sheetMasks[sheet] | plankMask, sheetWidth, sheetHeight) != null);
+                if (fits) {
+                    final int nextNumSheets = isNewSheet ? numSheets + 1 : numSheets;
+                    if (exploreConcurrently) {
+                        final long[] nextSheetMasks = sheetMasks.clone();
+                        final long[] nextUsedAreas = usedAreas.clone();
+                        nextSheetMasks[sheet] |= plankMask;
+                        nextUsedAreas[sheet] += plankArea;
+                        subtasks.add(new SearchTask(position + 1, nextSheetMasks, nextNumSheets, nextUsedAreas,
+                                remainingArea - plankArea));
+                    } else {
+                        sheetMasks[sheet] |= plankMask;
+                        usedAreas[sheet] += plankArea;
+                        explore(position + 1, sheetMasks, nextNumSheets, usedAreas, remainingArea - plankArea);
+                        sheetMasks[sheet] &= ~plankMask;
+                        usedAreas[sheet] -= plankArea;
+                    }
+                }
+            }
+            if (!subtasks.isEmpty()) {
+                ForkJoinTask.invokeAll(subtasks);
+            }
+        }
+    }
+
+    private List<List<PlankVariant>> collectVariants(final long plankSet) {
+        final List<List<PlankVariant>> variants = new ArrayList<>(Long.bitCount(plankSet));
+        for (long remaining = plankSet; remaining != 0; remaining &= remaining - 1) {
+            variants.add(plankVariants.get(Long.numberOfTrailingZeros(remaining)));
+        }
+        return variants;
+    }
+
+    /**
+     * @param horizontal {@code true} iff the lengths along the width of the planks are determined.
+     * @return Which lengths up to the size of the sheet equal the sum of the widths or heights of any subset of the
+     * given planks in any of their orientations. Only cuts at such lengths have to be considered (normal patterns).
+     */
+    private BitSet determineNormalLengths(final long plankSet, final boolean horizontal) {
+        final Map<Long, BitSet> knownNormalLengths = horizontal ? normalWidths : normalHeights;
+        BitSet normalLengths = knownNormalLengths.get(plankSet);
+        if (normalLengths == null) {
+            final int limit = horizontal ? sheetWidth : sheetHeight;
+            if (plankSet == 0) {
+                normalLengths = new BitSet(limit + 1);
+                normalLengths.set(0);
+            } else {
+                // Extend the normal lengths of all but the lowest plank by the lengths of the lowest plank
+                final long lowestPlank = Long.lowestOneBit(plankSet);
+                final BitSet otherNormalLengths = determineNormalLengths(plankSet ^ lowestPlank, horizontal);
+                normalLengths = (BitSet) otherNormalLengths.clone();
+                for (final PlankVariant variant : plankVariants.get(Long.numberOfTrailingZeros(lowestPlank))) {
+                    final int dimension = horizontal ? variant.width() : variant.height();
+                    for (int length = otherNormalLengths.nextSetBit(0);
+                         length >= 0 && length + dimension <= limit;
+                         length = otherNormalLengths.nextSetBit(length + 1)) {
+                        normalLengths.set(length + dimension);
+                    }
+                }
+            }
+            knownNormalLengths.putIfAbsent(plankSet, normalLengths);
+        }
+        return normalLengths;
+    }
+
+    /**
+     * @return The largest normal length which does not exceed the given limit or {@code 0} if there is none.
+     */
+    private int findLargestNormalLength(final long plankSet, final int limit, final boolean horizontal) {
+        return Math.max(0, determineNormalLengths(plankSet, horizontal).previousSetBit(limit));
+    }
+
+    /**
+     * @return A guillotine layout of all the given planks on a sheet of the given size or {@code null} if there is
+     * none or the search was stopped before finding one.
+     */
+    private SheetLayout pack(final long plankSet, final int width, final int height) {
+        final Region region = new Region(plankSet, width, height);
+        final Optional<SheetLayout> knownLayout = layouts.get(region);
+        SheetLayout layout;
+        if (knownLayout == null) {
+            // Shrinking the sheet to the largest normal lengths does not change whether the planks fit
+            final int normalWidth = findLargestNormalLength(plankSet, width, true);
+            final int normalHeight = findLargestNormalLength(plankSet, height, false);
+            if (normalWidth <= 0 || normalHeight <= 0) {
+                layout = null;
+            } else if (normalWidth == width && normalHeight == height) {
+                layout = determineLayout(plankSet, width, height);
+            } else {
+                final SheetLayout normalLayout = pack(plankSet, normalWidth, normalHeight);
+                layout = (normalLayout == null)
+                        ? null
+                        : enlarge(normalLayout, normalWidth, normalHeight, width, height);
+            }
+            // Layouts which were not found due to stopping the search are not known to be impossible
+            if (layout != null || !isStopped()) {
+                layouts.putIfAbsent(region, Optional.ofNullable(layout));
+            }
+        } else {
+            layout = knownLayout.orElse(null);
+        }
+        return layout;
+    }
+
+    private static SheetLayout enlarge(final SheetLayout layout, final int width, final int height,
+                                       final int enlargedWidth, final int enlargedHeight) {
+        SheetLayout enlargedLayout = layout;
+        if (enlargedWidth > width || enlargedHeight > height) {
+            final List<FreeArea> remainingAreas = new ArrayList<>(layout.remainingAreas());
+            if (enlargedWidth > width) {
+                remainingAreas.add(new FreeArea(width, 0, enlargedWidth - width, enlargedHeight));
+            }
+            if (enlargedHeight > height) {
+                remainingAreas.add(new FreeArea(0, height, width, enlargedHeight - height));
+            }
+            enlargedLayout = new SheetLayout(layout.placements(), remainingAreas);
+        }
+        return enlargedLayout;
+    }
+
+    private static SheetLayout combine(final SheetLayout first, final SheetLayout second, final int secondXOffset,
+                                       final int secondYOffset) {
+        final List<Placement> placements = new ArrayList<>(first.placements());
+        for (final Placement placement : second.placements()) {
+            placements.add(new Placement(
+                    placement.variant(), placement.x() + secondXOffset, placement.y() + secondYOffset));
+        }
+        final List<FreeArea> remainingAreas = new ArrayList<>(first.remainingAreas());
+        for (final FreeArea area : second.remainingAreas()) {
+            remainingAreas.add(new FreeArea(
+                    area.x() + secondXOffset, area.y() + secondYOffset, area.width(), area.height()));
+        }
+        return new SheetLayout(placements, remainingAreas);
+    }
+
+    private long determineArea(final long plankSet) {
+        long area = 0;
+        for (long remaining = plankSet; remaining != 0; remaining &= remaining - 1) {
+            area += plankAreas[Long.numberOfTrailingZeros(remaining)];
+        }
+        return area;
+    }
+
+    /**
+     * @return A layout where the first planks are placed left of a vertical cut or above a horizontal cut and the
+     * second planks on the other side of it.
+     */
+    private SheetLayout split(final long firstPlanks, final long secondPlanks, final int width, final int height,
+                              final boolean vertical) {
+        final int length = vertical ? width : height;
+        final int breadth = vertical ? height : width;
+        final long minCut = Math.max(1, (determineArea(firstPlanks) + breadth - 1) / breadth);
+        final long maxCut = length - (determineArea(secondPlanks) + breadth - 1) / breadth;
+        SheetLayout layout = null;
+        if (minCut <= maxCut) {
+            final int[] cuts = determineNormalLengths(firstPlanks, vertical)
+                    .stream()
+                    .filter(cut -> cut >= minCut && cut <= maxCut)
+                    .toArray();
+            if (cuts.length > 0) {
+                // Whether the first planks fit only grows with the cut. The smallest cut which fits leaves the most
+                // space for the second planks and is found by bisection.
+                int lowIndex = 0;
+                int highIndex = cuts.length - 1;
+                SheetLayout firstLayout = packPart(firstPlanks, width, height, cuts[highIndex], vertical);
+                if (firstLayout != null) {
+                    while (lowIndex < highIndex) {
+                        final int middleIndex = (lowIndex + highIndex) / 2;
+                        final SheetLayout middleLayout
+                                = packPart(firstPlanks, width, height, cuts[middleIndex], vertical);
+                        if (middleLayout == null) {
+                            lowIndex = middleIndex + 1;
+                        } else {
+                            highIndex = middleIndex;
+                            firstLayout = middleLayout;
+                        }
+                    }
+                    final int cut = cuts[highIndex];
+                    final SheetLayout secondLayout = packPart(secondPlanks, width, height, length - cut, vertical);
+                    if (secondLayout != null) {
+                        layout = vertical
+                                ? combine(firstLayout, secondLayout, cut, 0)
+                                : combine(firstLayout, secondLayout, 0, cut);
+                    }
+                }
+            }
+        }
+        return layout;
+    }
+
+    /**
+     * @return A layout of the given planks on the part of the sheet with the given length along the axis of the cut.
+     */
+    private SheetLayout packPart(final long plankSet, final int width, final int height, final int length,
+                                 final boolean vertical) {
+        return vertical ? pack(plankSet, length, height) : pack(plankSet, width, length);
+    }
+
+    /**
+     * Check necessary conditions for placing the given planks on a sheet of the given size. Every plank has to fit on
+     * its own. Planks which are wider than half of the sheet in any orientation that fits can not be placed next to
+     * each other. Hence, their heights have to fit one below the other. The same applies to planks which are higher
+     * than half of the sheet.
+     */
+    private boolean passesDimensionBounds(final long plankSet, final int width, final int height) {
+        boolean passes = true;
+        long wideHeightSum = 0;
+        long highWidthSum = 0;
+        for (long remaining = plankSet; remaining != 0 && passes; remaining &= remaining - 1) {
+            int minWideHeight = Integer.MAX_VALUE;
+            int minHighWidth = Integer.MAX_VALUE;
+            boolean fits = false;
+            boolean alwaysWide = true;
+            boolean alwaysHigh = true;
+            for (final PlankVariant variant : plankVariants.get(Long.numberOfTrailingZeros(remaining))) {
+                if (variant.width() <= width && variant.height() <= height) {
+                    fits = true;
+                    alwaysWide &= 2 * variant.width() > width;
+                    alwaysHigh &= 2 * variant.height() > height;
+                    minWideHeight = Math.min(minWideHeight, variant.height());
+                    minHighWidth = Math.min(minHighWidth, variant.width());
+                }
+            }
+            passes = fits;
+            if (fits && alwaysWide) {
+                wideHeightSum += minWideHeight;
+            }
+            if (fits && alwaysHigh) {
+                highWidthSum += minHighWidth;
+            }
+        }
+        return passes && wideHeightSum <= height && highWidthSum <= width;
+    }
+
+    private SheetLayout determineLayout(final long plankSet, final int width, final int height) {
+        SheetLayout layout = null;
+        if (determineArea(plankSet) <= ((long) width) * height && passesDimensionBounds(plankSet, width, height)) {
+            // Most sets of planks are placed by the heuristic already. It is exact for single planks.
+            final SheetLayout heuristicLayout = heuristicPacker.packSheet(width, height, collectVariants(plankSet));
+            if (heuristicLayout.placements().size() == Long.bitCount(plankSet)) {
+                layout = heuristicLayout;
+            } else if (Long.bitCount(plankSet) > 1) {
+                // Mirroring a layout keeps it valid. Hence, the lowest plank may always be left of or above the cut.
+                final long lowestPlank = Long.lowestOneBit(plankSet);
+                final long otherPlanks = plankSet ^ lowestPlank;
+                long subset = otherPlanks;
+                boolean searchSubset = true;
+                while (searchSubset && !isStopped()) {
+                    final long firstPlanks = subset | lowestPlank;
+                    final long secondPlanks = plankSet ^ firstPlanks;
+                    if (secondPlanks != 0) {
+                        layout = split(firstPlanks, secondPlanks, width, height, true);
+                        if (layout == null) {
+                            layout = split(firstPlanks, secondPlanks, width, height, false);
+                        }
+                    }
+                    searchSubset = layout == null && subset != 0;
+                    subset = (subset - 1) & otherPlanks;
+                }
+            }
+        }
+        return layout;
+    }
+
+    /**
+     * A set of planks together with the size of the sheet they have to be placed on.
+     */
+    private record Region(
+            long plankSet,
+            int width,
+            int height
+    ) {
+    }
+
+    private final class SearchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int position;
+        private final long[] sheetMasks;
+        private final int numSheets;
+        private final long[] usedAreas;
+        private final long remainingArea;
+
+        SearchTask(final int position, final long[] sheetMasks, final int numSheets, final long[] usedAreas,
+                   final long remainingArea) {
+            this.position = position;
+            this.sheetMasks = sheetMasks;
+            this.numSheets = numSheets;
+            this.usedAreas = usedAreas;
+            this.remainingArea = remainingArea;
+        }
+
+        @Override
+        protected void compute() {
+            explore(position, sheetMasks, numSheets, usedAreas, remainingArea);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package bayern.steinbrecher.woodpacker.data;
+
+import javafx.util.Pair;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Determines cutting plans which require the minimal number of base planks among all cutting plans that can be cut
+ * with guillotine cuts only. The search starts from the solution of {@link GuillotineCuttingPlanSolver} and prunes
+ * with lower bounds based on the area and on the dimensions of the planks. Since its running time grows exponentially
+ * with the number of planks it is meant for small jobs. If the time limit is reached the best solution found so far
+ * is returned. Problems which use offcuts, which stock more than one kind of base plank, which have more than
+ * {@link #MAX_EXACT_PLANKS} required planks or where not all planks fit are solved by
+ * {@link GuillotineCuttingPlanSolver} only. Like the latter it ignores the {@link PlankSolutionCriterion}s of a
+ * problem.
+ *
+ * @author Stefan Huber
+ * @since 0.1
+ */
+public final class ExactCuttingPlanSolver implements CuttingPlanSolver {
+    public static final String SOLVER_ID = "exact";
+    public static final int MAX_EXACT_PLANKS = 30;
+    public static final Duration DEFAULT_TIME_LIMIT = Duration.ofSeconds(5);
+
+    private final ForkJoinPool searchPool;
+    private final Duration timeLimit;
+
+    /**
+     * Create a solver which searches on the common pool for at most {@link #DEFAULT_TIME_LIMIT}.
+     */
+    public ExactCuttingPlanSolver() {
+        this(ForkJoinPool.commonPool(), DEFAULT_TIME_LIMIT);
+    }
+
+    /**
+     * @param searchPool The pool to explore the assignments of planks to base planks on concurrently.
+     * @param timeLimit  The time after which the best solution found so far is returned.
+     */
+    public ExactCuttingPlanSolver(final ForkJoinPool searchPool, final Duration timeLimit) {
+        this.searchPool = searchPool;
+        this.timeLimit = timeLimit;
+    }
+
+    @Override
+    public String getSolverId() {
+        return SOLVER_ID;
+    }
+
+    @Override
+    public Pair<Collection<CuttingPlan>, Set<RequiredPlank>> solve(final PlankProblemSnapshot problem) {
+        final long deadlineNanos = System.nanoTime() + timeLimit.toNanos();
+        final Pair<Collection<CuttingPlan>, Set<RequiredPlank>> heuristicSolution
+                = new GuillotineCuttingPlanSolver().solve(problem);
+        Pair<Collection<CuttingPlan>, Set<RequiredPlank>> solution = heuristicSolution;
+        final int numPlanks = problem.requiredPlanks().size();
+        final boolean exactlySolvable = problem.offcuts().isEmpty()
+                && problem.basePlankStock().size() == 1
+                && numPlanks > 0 && numPlanks <= MAX_EXACT_PLANKS
+                && heuristicSolution.getValue().isEmpty();
+        if (exactlySolvable) {
+            final Collection<CuttingPlan> cuttingPlans = new ExactCuttingPlanSearch(
+                    problem, problem.basePlankStock().get(0).getBasePlank(), heuristicSolution.getKey().size(),
+                    deadlineNanos)
+                    .run(searchPool);
+            if (cuttingPlans != null) {
+                solution = new Pair<>(cuttingPlans, new HashSet<>());
+            }
+        }
+        return solution;
+    }
+}
@@ -0,0 +1,104 @@
+package bayern.steinbrecher.woodpacker.data;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/**
+ * The rectangular partitions of a base plank which are not covered by any row yet. Partitions are identified by the
+ * position of their left upper corner and ordered by their shorter and their longer side. Hence, the partitions which
+ * are large enough for a certain plank are found without visiting any smaller partition. Adding and removing a
+ * partition takes O(log n).
+ *
+ * @author Stefan Huber
+ * @since 0.1
+ */
+final class FreePartitions {
+    private static final Comparator<Partition> SIZE_ORDER = Comparator.comparingInt(Partition::getShorterSide)
+            .thenComparingInt(Partition::getLongerSide)
+            .thenComparingInt(Partition::x)
+            .thenComparingInt(Partition::y);
+
+    private final Map<Long, Partition> partitionsByPosition = new HashMap<>();
+    private final NavigableSet<Partition> partitionsBySize = new TreeSet<>(SIZE_ORDER);
+
+    private static long toPositionKey(final int xPos, final int yPos) {
+        return (((long) xPos) << Integer.SIZE) | (yPos & 0xFFFF_FFFFL);
+    }
+
+    /**
+     * @throws IllegalArgumentException Thrown if there is already a partition at the position of the given one.
+     */
+    public void add(final Partition partition) {
+        final Partition previous = partitionsByPosition.putIfAbsent(
+                toPositionKey(partition.x(), partition.y()), partition);
+        if (previous != null) {
+            throw new IllegalArgumentException(
+                    String.format("There is already a partition at (%d, %d)", partition.x(), partition.y()));
+        }
+        partitionsBySize.add(partition);
+    }
+
+    /**
+     * @return The removed partition or {@code null} if there is no partition at the given position.
+     */
+    public Partition remove(final int xPos, final int yPos) {
+        final Partition removed = partitionsByPosition.remove(toPositionKey(xPos, yPos));
+        if (removed != null) {
+            partitionsBySize.remove(removed);
+        }
+        return removed;
+    }
+
+    /**
+     * @return All partitions whose shorter side and whose longer side are at least as long as given. The partitions
+     * are ordered ascending by their shorter side.
+     */
+    public Stream<Partition> streamAtLeast(final int minShorterSide, final int minLongerSide) {
+        final Partition lowerBound = new Partition(Integer.MIN_VALUE, Integer.MIN_VALUE, minShorterSide,
+                minShorterSide, null);
+        return partitionsBySize.tailSet(lowerBound, true)
+                .stream()
+                .filter(partition -> partition.getLongerSide() >= minLongerSide);
+    }
+
+    public Collection<Partition> getPartitions() {
+        return Collections.unmodifiableCollection(partitionsByPosition.values());
+    }
+
+    public int size() {
+        return partitionsByPosition.size();
+    }
+
+    public boolean isEmpty() {
+        return partitionsByPosition.isEmpty();
+    }
+
+    /**
+     * @param x                            The x coordinate of the left upper corner in the base plank space.
+     * @param y                            The y coordinate of the left upper corner in the base plank space.
+     * @param restrictToVerticalCandidates {@code true} --> Only vertical candidates are allowed.
+     *                                     {@code false} --> Only horizontal candidates are allowed.
+     *                                     {@code null} --> Both vertical and horizontal candidates are allowed.
+     */
+    record Partition(
+            int x,
+            int y,
+            int width,
+            int height,
+            Boolean restrictToVerticalCandidates
+    ) {
+        public int getShorterSide() {
+            return Math.min(width(), height());
+        }
+
+        public int getLongerSide() {
+            return Math.max(width(), height());
+        }
+    }
+}
@@ -0,0 +1,1013 @@
+package bayern.steinbrecher.woodpacker.data;
+
+import bayern.steinbrecher.woodpacker.data.FreePartitions.Partition;
+import javafx.geometry.Point2D;
+import javafx.util.Pair;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Places the required planks of a {@link PlankProblemSnapshot} greedily row by row onto as few base planks as
+ * possible. In case multiple base planks are in stock each cutting plan is cut out of the base plank which fulfills the
+ * {@link StockSelectionObjective} of the problem best. Offcuts of the problem are used before any base plank of the
+ * stock. Since the solver solely works on a {@link PlankProblemSnapshot} it may run on any thread. A running solve
+ * stops as soon as the thread running it is interrupted.
+ *
+ * @author Stefan Huber
+ * @since 0.1
+ */
+final class GreedyCuttingPlanSolver {
+    /**
+     * The maximum relative deviation of the criterion weights of a perturbed solver from the weights of the problem.
+     */
+    private static final double WEIGHT_JITTER = 0.2;
+
+    /**
+     * Orders candidates ascending by their quality. Candidates of equal quality are ordered such that the candidate
+     * which is closest to the upper left corner of the base plank wins. At the same position a horizontal row wins
+     * over a vertical row. Since every partition yields at most one candidate per direction the order is total which
+     * ensures that the best candidate does not depend on the order in which the candidates are evaluated.
+     */
+    private static final Comparator<RatedCandidate> CANDIDATE_RANKING
+            = Comparator.comparingDouble(RatedCandidate::quality)
+            .thenComparing(Comparator.comparingInt((RatedCandidate c) -> c.row().getYPos())
+                    .reversed())
+            .thenComparing(Comparator.comparingInt((RatedCandidate c) -> c.row().getXPos())
+                    .reversed())
+            .thenComparing(c -> c.row().isAddingHorizontally());
+
+    private final PlankProblemSnapshot problem;
+    private final ForkJoinPool candidateEvaluationPool;
+    /**
+     * The required planks ordered by their IDs. The position of a plank is the index {@link PlankVariant}s refer to.
+     */
+    private final RequiredPlank[] requiredPlanksByIndex;
+    private final Map<RequiredPlank, Integer> plankIndices = new HashMap<>();
+    /**
+     * The criteria and their weights in the order in which the ratings are summed up. The order equals the iteration
+     * order of {@link PlankProblemSnapshot#criterionWeights()}.
+     */
+    private final PlankSolutionCriterion[] criteria;
+    private final double[] criterionWeights;
+    /**
+     * The rank of each plank among planks of equal area. Planks of lower rank are placed first.
+     */
+    private final int[] tieBreakRanks;
+    /**
+     * Which planks prefer being rotated in case both orientations result in rows of equal quality.
+     */
+    private final boolean[] rotatedFirst;
+    /**
+     * Sort {@link PlankVariationGroup}s by descending area and ascending by the tie break rank of their pivot.
+     */
+    private final Comparator<PlankVariationGroup> variationGroupSorter;
+
+    /**
+     * Create a solver which evaluates all candidates sequentially on the thread running the solver.
+     */
+    GreedyCuttingPlanSolver(final PlankProblemSnapshot problem) {
+        this(problem, null);
+    }
+
+    /**
+     * @param candidateEvaluationPool The pool to evaluate the candidates for the next row on concurrently. If
+     *                                {@code null} all candidates are evaluated sequentially on the thread running the
+     *                                solver. The solution does not depend on whether candidates are evaluated
+     *                                concurrently.
+     */
+    GreedyCuttingPlanSolver(final PlankProblemSnapshot problem, final ForkJoinPool candidateEvaluationPool) {
+        this(problem, candidateEvaluationPool, null);
+    }
+
+    /**
+     * @param candidateEvaluationPool The pool to evaluate the candidates for the next row on concurrently. If
+     *                                {@code null} all candidates are evaluated sequentially on the thread running the
+     *                                solver. The solution does not depend on whether candidates are evaluated
+     *                                concurrently.
+     * @param perturbation            The source of randomness for perturbing the greedy choices. It jitters the
+     *                                criterion weights, shuffles planks of equal area and randomises which orientation
+     *                                of a plank wins on equal qualities. It is only used while creating the solver.
+     *                                Hence, solvers created from equally seeded sources yield the same solution. If
+     *                                {@code null} the choices are not perturbed.
+     */
+    GreedyCuttingPlanSolver(final PlankProblemSnapshot problem, final ForkJoinPool candidateEvaluationPool,
+                            final Random perturbation) {
+        this.problem = problem;
+        this.candidateEvaluationPool = candidateEvaluationPool;
+        requiredPlanksByIndex = problem.requiredPlanks()
+                .stream()
+                .sorted(RequiredPlank.ID_ORDER)
+                .toArray(RequiredPlank[]::new);
+        for (int i = 0; i < requiredPlanksByIndex.length; i++) {
+            plankIndices.put(requiredPlanksByIndex[i], i);
+        }
+        final Map<PlankSolutionCriterion, Double> weights = problem.criterionWeights();
+        criteria = weights.keySet().toArray(PlankSolutionCriterion[]::new);
+        criterionWeights = new double[criteria.length];
+        for (int i = 0; i < criteria.length; i++) {
+            criterionWeights[i] = weights.get(criteria[i]);
+        }
+
+        tieBreakRanks = new int[requiredPlanksByIndex.length];
+        rotatedFirst = new boolean[requiredPlanksByIndex.length];
+        if (perturbation == null) {
+            // Planks of equal area are ordered by their IDs
+            Arrays.setAll(tieBreakRanks, i -> i);
+        } else {
+            for (int i = 0; i < criterionWeights.length; i++) {
+                criterionWeights[i] *= 1 + WEIGHT_JITTER * (2 * perturbation.nextDouble() - 1);
+            }
+            final List<Integer> shuffledIndices = new ArrayList<>();
+            for (int i = 0; i < requiredPlanksByIndex.length; i++) {
+                shuffledIndices.add(i);
+            }
+            Collections.shuffle(shuffledIndices, perturbation);
+            for (int rank = 0; rank < shuffledIndices.size(); rank++) {
+                tieBreakRanks[shuffledIndices.get(rank)] = rank;
+            }
+            for (int i = 0; i < rotatedFirst.length; i++) {
+                rotatedFirst[i] = perturbation.nextBoolean();
+            }
+        }
+        variationGroupSorter = Comparator.comparingInt((PlankVariationGroup group) -> group.getPivot().getArea())
+                .reversed()
+                .thenComparingInt(group -> tieBreakRanks[group.getPivotIndex()]);
+    }
+
+    private double determineQuality(final int numPlanks, final int numBreadths, final double areaUtilization) {
+        double quality = 0;
+        for (int i = 0; i < criteria.length; i++) {
+            quality += criteria[i].getRating(numPlanks, numBreadths, areaUtilization, requiredPlanksByIndex.length)
+                    * criterionWeights[i];
+        }
+        return quality;
+    }
+
+    private double determineCandidateQuality(final CandidateRow candidate) {
+        return determineQuality(candidate.getNumPlanks(), candidate.getNumBreadths(), candidate.getAreaUtilization());
+    }
+
+    private double determineCandidateQuality(final CandidateRow candidate, final PlankVariant prospectiveVariant) {
+        return determineQuality(candidate.getNumPlanks() + 1, candidate.getNumBreadthsWith(prospectiveVariant),
+                candidate.getAreaUtilizationWith(prospectiveVariant));
+    }
+
+    private RequiredPlank toRequiredPlank(final PlankVariant variant) {
+        final RequiredPlank requiredPlank = requiredPlanksByIndex[variant.plankIndex()];
+        return variant.rotated() ? requiredPlank.rotated() : requiredPlank;
+    }
+
+    private CandidateRow createCandidate(
+            final boolean horizontal, final Partition availablePartition, final UnplacedPlankPool unplacedPlanks) {
+        assert !unplacedPlanks.isEmpty() : "No planks left for creating a candidate";
+        int maxLength;
+        int maxBreadth;
+        if (horizontal) {
+            maxLength = availablePartition.width();
+            maxBreadth = availablePartition.height();
+        } else {
+            maxLength = availablePartition.height();
+            maxBreadth = availablePartition.width();
+        }
+        final CandidateRow finalCandidate = new CandidateRow(availablePartition.x(), availablePartition.y(),
+                horizontal, maxLength, maxBreadth, problem.cuttingWidth());
+        double finalQuality = determineCandidateQuality(finalCandidate);
+        // Any plank of the row requires a cut before it. Planks not fitting into the empty row are never evaluated.
+        final int maxPlankLength = maxLength - problem.cuttingWidth();
+        final Collection<PlankVariationGroup> fittingGroups = horizontal
+                ? unplacedPlanks.findFitting(maxPlankLength, maxBreadth)
+                : unplacedPlanks.findFitting(maxBreadth, maxPlankLength);
+        for (final PlankVariationGroup group : fittingGroups) {
+            // Identical planks are added one after another as long as each of them improves the candidate
+            int memberPosition = group.nextUnplacedPosition(0);
+            boolean improved = true;
+            while (improved && memberPosition >= 0) {
+                final int memberIndex = group.getMemberIndex(memberPosition);
+                PlankVariant bestVariant = null;
+                double bestQuality = Double.NEGATIVE_INFINITY;
+                for (final PlankVariant variant : group.getVariations()) {
+                    if (finalCandidate.canContain(variant)) {
+                        final double quality = determineCandidateQuality(finalCandidate, variant);
+                        // On equal qualities the first variant wins
+                        if (bestVariant == null || quality > bestQuality) {
+                            bestVariant = variant;
+                            bestQuality = quality;
+                        }
+                    }
+                }
+                improved = bestVariant != null && bestQuality > finalQuality;
+                if (improved) {
+                    finalCandidate.add(bestVariant.withPlankIndex(memberIndex));
+                    finalQuality = bestQuality;
+                }
+                memberPosition = group.nextUnplacedPosition(memberPosition + 1);
+            }
+        }
+        return finalCandidate;
+    }
+
+    private Stream<CandidateRow> createCandidates(
+            final Partition partition, final UnplacedPlankPool unplacedPlanks) {
+        final Boolean restrictToVerticalCandidates = partition.restrictToVerticalCandidates();
+        final List<CandidateRow> candidates = new ArrayList<>(2);
+        if (restrictToVerticalCandidates == null || restrictToVerticalCandidates) {
+            candidates.add(createCandidate(false, partition, unplacedPlanks));
+        }
+        if (restrictToVerticalCandidates == null || !restrictToVerticalCandidates) {
+            candidates.add(createCandidate(true, partition, unplacedPlanks));
+        }
+        return candidates.stream();
+    }
+
+    /**
+     * @return The best candidate for the next row. Only this candidate is converted into a {@link PlankSolutionRow}.
+     */
+    private Optional<PlankSolutionRow> determineBestCandidate(
+            final UnplacedPlankPool unplacedPlanks, final FreePartitions freePartitions) {
+        // Any plank fitting into a partition requires the partition to be at least as large as the smallest plank
+        int minShorterSide = Integer.MAX_VALUE;
+        int minLongerSide = Integer.MAX_VALUE;
+        for (final PlankVariationGroup group : unplacedPlanks.getGroups()) {
+            final RequiredPlank pivot = group.getPivot();
+            minShorterSide = Math.min(minShorterSide, Math.min(pivot.getWidth(), pivot.getHeight()));
+            minLongerSide = Math.min(minLongerSide, Math.max(pivot.getWidth(), pivot.getHeight()));
+        }
+        final List<Partition> suitablePartitions = freePartitions.streamAtLeast(minShorterSide, minLongerSide)
+                .toList();
+
+        final boolean evaluateInParallel = candidateEvaluationPool != null && suitablePartitions.size() > 1;
+        // Set as soon as the result of the evaluation is not needed anymore
+        final AtomicBoolean abandoned = new AtomicBoolean(false);
+        final Supplier<Optional<CandidateRow>> evaluation = () -> {
+            Stream<Partition> partitions = suitablePartitions.stream();
+            if (evaluateInParallel) {
+                partitions = partitions.parallel();
+            }
+            return partitions.filter(partition -> !abandoned.get())
+                    .flatMap(partition -> createCandidates(partition, unplacedPlanks))
+                    .filter(c -> c.getNumPlanks() > 0)
+                    .map(c -> new RatedCandidate(c, determineCandidateQuality(c)))
+                    .max(CANDIDATE_RANKING)
+                    .map(RatedCandidate::row);
+        };
+
+        Optional<CandidateRow> bestCandidate;
+        if (evaluateInParallel) {
+            final ForkJoinTask<Optional<CandidateRow>> evaluationTask = candidateEvaluationPool.submit(evaluation::get);
+            try {
+                bestCandidate = evaluationTask.get();
+            } catch (InterruptedException ex) {
+                /* NOTE Cancelling a ForkJoinTask does not interrupt the workers which already evaluate partitions.
+                 * Hence, the remaining partitions are skipped explicitly.
+                 */
+                abandoned.set(true);
+                evaluationTask.cancel(true);
+                Thread.currentThread().interrupt();
+                throw (CancellationException) new CancellationException(
+                        "The solver was interrupted while evaluating candidates").initCause(ex);
+            } catch (ExecutionException ex) {
+                throw new IllegalStateException("Could not evaluate the candidates for the next row", ex.getCause());
+            }
+        } else {
+            bestCandidate = evaluation.get();
+        }
+        return bestCandidate.map(candidate -> candidate.toSolutionRow(this::toRequiredPlank));
+    }
+
+    private void shrinkFreePartitions(final FreePartitions freePartitions, final PlankSolutionRow rowToAdd) {
+        final int selectedX = (int) rowToAdd.getStartOffset().getX();
+        final int selectedY = (int) rowToAdd.getStartOffset().getY();
+        final Partition selectedPartition = freePartitions.remove(selectedX, selectedY);
+        assert selectedPartition != null : "The row to add does not start at any free partition";
+
+        // Split partition containing the row to add into remaining partitions
+        final int inRowOffset = rowToAdd.getCurrentLength() + problem.cuttingWidth();
+        final int notInRowOffset = rowToAdd.getCurrentBreadth() + problem.cuttingWidth();
+
+        if (rowToAdd.isAddingHorizontally()) {
+            if (notInRowOffset < selectedPartition.height()) {
+                freePartitions.add(new Partition(selectedX, selectedY + notInRowOffset,
+                        selectedPartition.width(), selectedPartition.height() - notInRowOffset, null));
+            }
+            if (inRowOffset < selectedPartition.width()) {
+                freePartitions.add(new Partition(selectedX + inRowOffset, selectedY,
+                        selectedPartition.width() - inRowOffset, rowToAdd.getCurrentBreadth(), true));
+            }
+        } else {
+            if (notInRowOffset < selectedPartition.width()) {
+                freePartitions.add(new Partition(selectedX + notInRowOffset, selectedY,
+                        selectedPartition.width() - notInRowOffset, selectedPartition.height(), null));
+            }
+            if (inRowOffset < selectedPartition.height()) {
+                freePartitions.add(new Partition(selectedX, selectedY + inRowOffset,
+                        rowToAdd.getCurrentBreadth(), selectedPartition.height() - inRowOffset, false));
+            }
+        }
+    }
+
+    /**
+     * Place planks greedily row by row onto the given base plank until no further plank fits.
+     *
+     * @param unplacedPlanks The planks to place. Placed planks are removed.
+     * @return The resulting cutting plan. It has no rows if not a single plank fits onto the base plank.
+     * @throws CancellationException Thrown if the thread running the solver is interrupted.
+     */
+    private CuttingPlan fillBasePlank(final BasePlank basePlank, final int basePlankOversize,
+                                      final UnplacedPlankPool unplacedPlanks) {
+        final List<PlankSolutionRow> solutionRows = new ArrayList<>();
+        final List<Offcut> offcuts = new ArrayList<>();
+        if (2 * basePlankOversize < basePlank.getWidth() && 2 * basePlankOversize < basePlank.getHeight()) {
+            final FreePartitions freePartitions = new FreePartitions();
+            freePartitions.add(new Partition(basePlankOversize, basePlankOversize,
+                    basePlank.getWidth() - 2 * basePlankOversize, basePlank.getHeight() - 2 * basePlankOversize, null));
+
+            Optional<PlankSolutionRow> optBestCandidate;
+            do {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new CancellationException("The solver was interrupted before a solution was found");
+                }
+                optBestCandidate = determineBestCandidate(unplacedPlanks, freePartitions);
+                optBestCandidate.ifPresent(bestCandidateRow -> {
+                    shrinkFreePartitions(freePartitions, bestCandidateRow);
+                    solutionRows.add(bestCandidateRow);
+                    unplacedPlanks.removeAll(bestCandidateRow.getPlanks());
+                });
+            } while (optBestCandidate.isPresent() && !unplacedPlanks.isEmpty());
+
+            for (final Partition partition : freePartitions.getPartitions()) {
+                offcuts.add(new Offcut(new BasePlank(basePlank.getPlankId(), partition.width(), partition.height(),
+                        basePlank.getGrainDirection(), basePlank.getMaterial(), basePlank.getComment()),
+                        new Point2D(partition.x(), partition.y())));
+            }
+            offcuts.sort(Comparator.comparingDouble((Offcut offcut) -> offcut.position().getY())
+                    .thenComparingDouble(offcut -> offcut.position().getX()));
+        }
+        return new CuttingPlan(solutionRows, basePlank, basePlankOversize, offcuts);
+    }
+
+    /**
+     * Determine the next cutting plan by trying each stocked base plank which is still available and choosing the one
+     * which fulfills the {@link StockSelectionObjective} best.
+     *
+     * @param remainingQuantities     The number of base planks which are still available for each stocked base plank.
+     * @param unplacedPlankVariations The variations of the unplaced planks for each base plank grain direction.
+     *                                Missing entries are created lazily. Existing entries are not changed.
+     * @return The next cutting plan together with the index of the stocked base plank it is cut out of. The result is
+     * empty if no unplaced plank fits on any of the available base planks.
+     */
+    private Optional<Pair<CuttingPlan, Integer>> determineNextCuttingPlan(
+            final int[] remainingQuantities, final Set<RequiredPlank> unplacedPlanks,
+            final Map<PlankGrainDirection, UnplacedPlankPool> unplacedPlankVariations) {
+        final List<StockedBasePlank> stock = problem.basePlankStock();
+        final StockSelectionObjective objective = problem.stockSelectionObjective();
+        // Base planks of the same format yield the same rows. Hence, they are tried only once.
+        final Map<BasePlankFormat, CuttingPlan> cuttingPlanPerFormat = new HashMap<>();
+        Pair<CuttingPlan, Integer> bestCuttingPlan = null;
+        double bestRating = Double.NEGATIVE_INFINITY;
+        long bestPlacedArea = 0;
+        for (int i = 0; i < stock.size(); i++) {
+            if (remainingQuantities[i] == 0) {
+                continue;
+            }
+            final BasePlank basePlank = stock.get(i).getBasePlank();
+            final CuttingPlan cuttingPlan = cuttingPlanPerFormat.computeIfAbsent(
+                    BasePlankFormat.of(basePlank), format -> fillBasePlank(basePlank, problem.basePlankOversize(),
+                            new UnplacedPlankPool(unplacedPlankVariations.computeIfAbsent(
+                                    basePlank.getGrainDirection(), gd -> new UnplacedPlankPool(unplacedPlanks, gd)))));
+            if (!cuttingPlan.getRows().isEmpty()) {
+                final long placedArea = cuttingPlan.getRows()
+                        .stream()
+                        .mapToLong(PlankSolutionRow::getUtilizedArea)
+                        .sum();
+                final double rating = objective.getRating(stock.get(i), placedArea);
+                // On equally good plans prefer base planks which are earlier in the stock
+                if (bestCuttingPlan == null
+                        || StockSelectionObjective.isBetter(rating, placedArea, bestRating, bestPlacedArea)) {
+                    bestCuttingPlan = new Pair<>(new CuttingPlan(cuttingPlan.getRows(), basePlank,
+                            cuttingPlan.getOversize(), cuttingPlan.getOffcuts()), i);
+                    bestRating = rating;
+                    bestPlacedArea = placedArea;
+                }
+            }
+        }
+        return Optional.ofNullable(bestCuttingPlan);
+    }
+
+    private void addCuttingPlan(
+            final CuttingPlan cuttingPlan, final Collection<CuttingPlan> cuttingPlans,
+            final Set<RequiredPlank> unplacedPlanks,
+            final Map<PlankGrainDirection, UnplacedPlankPool> unplacedPlankVariations) {
+        cuttingPlans.add(cuttingPlan);
+        final Set<RequiredPlank> placedPlanks = cuttingPlan.getRows()
+                .stream()
+                .flatMap(row -> row.getPlanks().stream())
+                .collect(Collectors.toSet());
+        unplacedPlanks.removeAll(placedPlanks);
+        unplacedPlankVariations.values()
+                .forEach(variations -> variations.removeAll(placedPlanks));
+    }
+
+    /**
+     * @return {@code true} iff the given problem places planks exactly like the problem of this solver, i.e. iff both
+     * problems solely differ in their required planks and their offcuts.
+     */
+    private boolean hasSamePlacementSettings(final PlankProblemSnapshot otherProblem) {
+        return problem.criterionWeights().equals(otherProblem.criterionWeights())
+                && problem.basePlankOversize() == otherProblem.basePlankOversize()
+                && problem.cuttingWidth() == otherProblem.cuttingWidth()
+                && problem.basePlankStock().equals(otherProblem.basePlankStock())
+                && problem.stockSelectionObjective() == otherProblem.stockSelectionObjective();
+    }
+
+    private static boolean hasSameShape(final Plank plankA, final Plank plankB) {
+        return plankA.getWidth() == plankB.getWidth()
+                && plankA.getHeight() == plankB.getHeight()
+                && plankA.getGrainDirection() == plankB.getGrainDirection();
+    }
+
+    /**
+     * @return The given required plank in the orientation of the previously placed plank or {@code null} if the shape
+     * of the plank changed in the meantime.
+     */
+    private static RequiredPlank orientLike(final RequiredPlank requiredPlank, final RequiredPlank previousPlank) {
+        RequiredPlank orientedPlank;
+        if (hasSameShape(requiredPlank, previousPlank)) {
+            orientedPlank = requiredPlank;
+        } else if (hasSameShape(requiredPlank.rotated(), previousPlank)) {
+            orientedPlank = requiredPlank.rotated();
+        } else {
+            orientedPlank = null;
+        }
+        return orientedPlank;
+    }
+
+    private static boolean fitsInto(final RequiredPlank requiredPlank, final BasePlank remnant) {
+        final PlankVariant variant = new PlankVariant(
+                0, requiredPlank.getWidth(), requiredPlank.getHeight(), requiredPlank.getGrainDirection(), false);
+        boolean fits = false;
+        for (final PlankVariant orientation : List.of(variant, variant.rotate())) {
+            fits |= orientation.width() <= remnant.getWidth()
+                    && orientation.height() <= remnant.getHeight()
+                    && orientation.matchesGrainDirection(remnant.getGrainDirection());
+        }
+        return fits;
+    }
+
+    /**
+     * Try to take over a cutting plan of a previous solution unchanged. This is possible if the base plank it is cut
+     * out of is still available, all of its planks are still required and unplaced with an unchanged shape and no
+     * newly required plank fits into any of its offcuts.
+     *
+     * @param currentPlanks       All required planks of the problem mapped from any plank equal to them, e.g. the
+     *                            corresponding plank of the previous problem.
+     * @param unplacedPlanks      The planks which are not placed yet.
+     * @param addedPlanks         The planks which neither were placed nor ignored by the previous solution.
+     * @param unusedOffcuts       The offcuts which were not used yet. The offcut the plan is cut out of is removed.
+     * @param remainingQuantities The number of base planks which are still available for each stocked base plank. The
+     *                            quantity of the base plank the plan is cut out of is decreased.
+     * @return The cutting plan referring to the current required planks or {@code null} if the plan can not be taken
+     * over.
+     */
+    private CuttingPlan reuseCuttingPlan(
+            final CuttingPlan previousCuttingPlan, final Map<RequiredPlank, RequiredPlank> currentPlanks,
+            final Set<RequiredPlank> unplacedPlanks, final Set<RequiredPlank> addedPlanks,
+            final List<BasePlank> unusedOffcuts, final int[] remainingQuantities) {
+        final BasePlank previousBasePlank = previousCuttingPlan.getBasePlank();
+        final BasePlankFormat previousFormat = BasePlankFormat.of(previousBasePlank);
+        int offcutIndex = -1;
+        if (previousCuttingPlan.getOversize() == 0) {
+            for (int i = 0; i < unusedOffcuts.size() && offcutIndex < 0; i++) {
+                final BasePlank offcut = unusedOffcuts.get(i);
+                if (offcut.equals(previousBasePlank) && BasePlankFormat.of(offcut).equals(previousFormat)) {
+                    offcutIndex = i;
+                }
+            }
+        }
+        int stockIndex = -1;
+        if (offcutIndex < 0 && previousCuttingPlan.getOversize() == problem.basePlankOversize()) {
+            final List<StockedBasePlank> stock = problem.basePlankStock();
+            for (int i = 0; i < stock.size() && stockIndex < 0; i++) {
+                final BasePlank basePlank = stock.get(i).getBasePlank();
+                if (remainingQuantities[i] != 0 && basePlank.equals(previousBasePlank)
+                        && BasePlankFormat.of(basePlank).equals(previousFormat)) {
+                    stockIndex = i;
+                }
+            }
+        }
+        boolean reusable = offcutIndex >= 0 || stockIndex >= 0;
+
+        final Iterator<Offcut> previousOffcuts = previousCuttingPlan.getOffcuts().iterator();
+        while (reusable && previousOffcuts.hasNext()) {
+            final BasePlank remnant = previousOffcuts.next().remnant();
+            reusable = addedPlanks.stream()
+                    .noneMatch(addedPlank -> fitsInto(addedPlank, remnant));
+        }
+
+        final List<PlankSolutionRow> rows = new ArrayList<>();
+        final Iterator<PlankSolutionRow> previousRows = previousCuttingPlan.getRows().iterator();
+        while (reusable && previousRows.hasNext()) {
+            final PlankSolutionRow previousRow = previousRows.next();
+            final PlankSolutionRow row = new PlankSolutionRow(previousRow.getStartOffset(),
+                    previousRow.isAddingHorizontally(), previousRow.getMaxLength(), previousRow.getMaxBreadth(),
+                    previousRow.getCuttingWidth());
+            for (final RequiredPlank previousPlank : previousRow.getPlanks()) {
+                final RequiredPlank requiredPlank = currentPlanks.get(previousPlank);
+                if (reusable && requiredPlank != null && unplacedPlanks.contains(requiredPlank)) {
+                    final RequiredPlank orientedPlank = orientLike(requiredPlank, previousPlank);
+                    reusable = orientedPlank != null && row.addPlank(orientedPlank);
+                } else {
+                    reusable = false;
+                }
+            }
+            rows.add(row);
+        }
+
+        CuttingPlan reusedCuttingPlan = null;
+        if (reusable) {
+            BasePlank basePlank;
+            if (offcutIndex >= 0) {
+                basePlank = unusedOffcuts.remove(offcutIndex);
+            } else {
+                basePlank = problem.basePlankStock().get(stockIndex).getBasePlank();
+                if (remainingQuantities[stockIndex] != StockedBasePlank.UNLIMITED_QUANTITY) {
+                    remainingQuantities[stockIndex]--;
+                }
+            }
+            reusedCuttingPlan = new CuttingPlan(
+                    rows, basePlank, previousCuttingPlan.getOversize(), previousCuttingPlan.getOffcuts());
+        }
+        return reusedCuttingPlan;
+    }
+
+    /**
+     * @return A list of cutting plans that fit on the offcuts and the stocked base planks and the set of the remaining
+     * planks that do not fit onto any of them.
+     * @throws CancellationException Thrown if the thread running the solver is interrupted before a solution was found.
+     */
+    public Pair<Collection<CuttingPlan>, Set<RequiredPlank>> solve() {
+        return solveIncrementally(null, null);
+    }
+
+    /**
+     * Determine a solution which takes over the leading cutting plans of a previous solution as long as they are not
+     * affected by the changes of the problem. Only the remaining planks are placed anew starting with the first
+     * affected cutting plan. A cutting plan is affected if its base plank is no longer available, any of its planks is
+     * no longer required or changed its shape or any newly required plank fits into any of its offcuts. Since the
+     * remaining cutting plans are determined greedily the solution may differ from the one {@link #solve()} returns,
+     * e.g. because the ratings of rows depend on the total number of required planks. If the previous problem differs
+     * in anything else than its required planks and its offcuts no cutting plan is taken over.
+     *
+     * @param previousProblem  The problem the previous solution was determined for. May be {@code null}.
+     * @param previousSolution The solution which was determined for the previous problem. May be {@code null}.
+     * @return A list of cutting plans that fit on the offcuts and the stocked base planks and the set of the remaining
+     * planks that do not fit onto any of them.
+     * @throws CancellationException Thrown if the thread running the solver is interrupted before a solution was found.
+     */
+    public Pair<Collection<CuttingPlan>, Set<RequiredPlank>> solveIncrementally(
+            final PlankProblemSnapshot previousProblem,
+            final Pair<Collection<CuttingPlan>, Set<RequiredPlank>> previousSolution) {
+        final Collection<CuttingPlan> cuttingPlans = new ArrayList<>();
+        Set<RequiredPlank> ignoredPlanks;
+        if ((problem.basePlankStock().isEmpty() && problem.offcuts().isEmpty())
+                // Do not place planks if all criteria are disabled, i.e. if they are all neither positive nor negative
+                || problem.criterionWeights().values().stream().allMatch(d -> d == 0)) {
+            ignoredPlanks = problem.requiredPlanks();
+        } else {
+            final Set<RequiredPlank> unplacedPlanks = new HashSet<>(problem.requiredPlanks());
+            /* Planks which fit onto no base plank and no offcut at all are ignored right away. Otherwise, the solver
+             * would discover them only by failing to place them onto an empty base plank.
+             */
+            final Set<RequiredPlank> infeasiblePlanks = new HashSet<>();
+            for (final RequiredPlank requiredPlank : requiredPlanksByIndex) {
+                if (PlankInfeasibility.determine(problem, requiredPlank).isPresent()) {
+                    infeasiblePlanks.add(requiredPlank);
+                }
+            }
+            unplacedPlanks.removeAll(infeasiblePlanks);
+            /* The following map contains all not yet placed planks in all variations in which they are allowed on a
+             * base plank with a certain grain direction. In case the base plank as well as the required plank have a
+             * grain direction there is only one allowed variation of the plank. If either the base plank or the
+             * required plank have no grain direction the collection contains two versions of the plank (i.e. rotated
+             * and not rotated).
+             */
+            final Map<PlankGrainDirection, UnplacedPlankPool> unplacedPlankVariations
+                    = new EnumMap<>(PlankGrainDirection.class);
+            final int[] remainingQuantities = problem.basePlankStock()
+                    .stream()
+                    .mapToInt(StockedBasePlank::getQuantity)
+                    .toArray();
+            final List<BasePlank> unusedOffcuts = new ArrayList<>(problem.offcuts());
+
+            if (previousProblem != null && previousSolution != null && hasSamePlacementSettings(previousProblem)) {
+                // NOTE Planks are equal iff they have the same ID and are the same copy of a plank
+                final Map<RequiredPlank, RequiredPlank> currentPlanks = new HashMap<>();
+                for (final RequiredPlank requiredPlank : requiredPlanksByIndex) {
+                    currentPlanks.put(requiredPlank, requiredPlank);
+                }
+                final Map<RequiredPlank, RequiredPlank> previousPlanks = new HashMap<>();
+                previousSolution.getKey()
+                        .stream()
+                        .flatMap(cuttingPlan -> cuttingPlan.getRows().stream())
+                        .flatMap(row -> row.getPlanks().stream())
+                        .forEach(previousPlank -> previousPlanks.put(previousPlank, previousPlank));
+                previousSolution.getValue()
+                        .forEach(previousPlank -> previousPlanks.put(previousPlank, previousPlank));
+                final Set<RequiredPlank> addedPlanks = new HashSet<>();
+                for (final RequiredPlank requiredPlank : requiredPlanksByIndex) {
+                    final RequiredPlank previousPlank = previousPlanks.get(requiredPlank);
+                    if (previousPlank == null || orientLike(requiredPlank, previousPlank) == null) {
+                        addedPlanks.add(requiredPlank);
+                    }
+                }
+
+                final Iterator<CuttingPlan> previousCuttingPlans = previousSolution.getKey().iterator();
+                boolean reusedPreviousCuttingPlan = true;
+                while (reusedPreviousCuttingPlan && previousCuttingPlans.hasNext()) {
+                    final CuttingPlan reusedCuttingPlan = reuseCuttingPlan(previousCuttingPlans.next(),
+                            currentPlanks, unplacedPlanks, addedPlanks, unusedOffcuts, remainingQuantities);
+                    reusedPreviousCuttingPlan = reusedCuttingPlan != null;
+                    if (reusedPreviousCuttingPlan) {
+                        addCuttingPlan(reusedCuttingPlan, cuttingPlans, unplacedPlanks, unplacedPlankVariations);
+                    }
+                }
+            }
+
+            // Use up offcuts before cutting any new base plank
+            final Iterator<BasePlank> offcutIterator = unusedOffcuts.iterator();
+            while (!unplacedPlanks.isEmpty() && offcutIterator.hasNext()) {
+                final BasePlank offcut = offcutIterator.next();
+                final CuttingPlan cuttingPlan = fillBasePlank(offcut, 0,
+                        unplacedPlankVariations.computeIfAbsent(offcut.getGrainDirection(),
+                                gd -> new UnplacedPlankPool(unplacedPlanks, gd)));
+                if (!cuttingPlan.getRows().isEmpty()) {
+                    addCuttingPlan(cuttingPlan, cuttingPlans, unplacedPlanks, unplacedPlankVariations);
+                }
+            }
+
+            boolean potentialForMorePlacements = true;
+            while (!unplacedPlanks.isEmpty() && potentialForMorePlacements) {
+                final Optional<Pair<CuttingPlan, Integer>> optNextCuttingPlan = determineNextCuttingPlan(
+                        remainingQuantities, unplacedPlanks, unplacedPlankVariations);
+                if (optNextCuttingPlan.isPresent()) {
+                    addCuttingPlan(optNextCuttingPlan.get().getKey(), cuttingPlans, unplacedPlanks,
+                            unplacedPlankVariations);
+                    final int stockIndex = optNextCuttingPlan.get().getValue();
+                    if (remainingQuantities[stockIndex] != StockedBasePlank.UNLIMITED_QUANTITY) {
+                        remainingQuantities[stockIndex]--;
+                    }
+                } else {
+                    // No unplaced plank fits on any of the available base planks
+                    potentialForMorePlacements = false;
+                }
+            }
+
+            unplacedPlanks.addAll(infeasiblePlanks);
+            ignoredPlanks = unplacedPlanks;
+        }
+        return new Pair<>(cuttingPlans, ignoredPlanks);
+    }
+
+    /**
+     * The properties of a base plank which determine which planks can be placed on it and what its offcuts are made
+     * of.
+     */
+    private record BasePlankFormat(
+            int width,
+            int height,
+            PlankGrainDirection grainDirection,
+            PlankMaterial material
+    ) {
+        public static BasePlankFormat of(final BasePlank basePlank) {
+            return new BasePlankFormat(basePlank.getWidth(), basePlank.getHeight(), basePlank.getGrainDirection(),
+                    basePlank.getMaterial());
+        }
+    }
+
+    /**
+     * The properties of a plank which determine where it can be placed.
+     */
+    private record PlankShape(
+            int width,
+            int height,
+            PlankGrainDirection grainDirection
+    ) {
+        public static PlankShape of(final Plank plank) {
+            return new PlankShape(plank.getWidth(), plank.getHeight(), plank.getGrainDirection());
+        }
+    }
+
+    /**
+     * An allowed orientation of the planks of the group at the given position of an {@link UnplacedPlankPool}.
+     */
+    private record IndexedVariation(
+            int groupPosition,
+            int width,
+            int height
+    ) {
+    }
+
+    private record RatedCandidate(
+            CandidateRow row,
+            double quality
+    ) {
+    }
+
+    /**
+     * The unplaced planks of a problem grouped by their shape for base planks of a certain grain direction. The groups
+     * are ordered by {@link #variationGroupSorter}. Placed planks are looked up by their index. Hence, removing a plank
+     * takes O(log n) time where n is the number of groups instead of scanning all groups. The allowed orientations of
+     * all groups are indexed by their dimensions such that the groups fitting into a row are found in
+     * O(log² n + k) where k is the number of found groups.
+     */
+    private final class UnplacedPlankPool {
+        private final SortedSet<PlankVariationGroup> groups = new TreeSet<>(variationGroupSorter);
+        /**
+         * All groups the pool was created with ordered by {@link #variationGroupSorter} including groups which have
+         * no planks left.
+         */
+        private final PlankVariationGroup[] groupsInOrder;
+        /**
+         * The allowed orientations of all groups by their position in {@link #groupsInOrder}. Since the orientations
+         * of a group never change the index is shared between copies of a pool.
+         */
+        private final PlankDimensionIndex<IndexedVariation> variationIndex;
+        private final int maxVariationWidth;
+        private final int maxVariationHeight;
+        /**
+         * The group of each unplaced plank by its index. Entries of placed planks and of planks which are not part of
+         * the pool are {@code null}.
+         */
+        private final PlankVariationGroup[] groupPerPlank = new PlankVariationGroup[requiredPlanksByIndex.length];
+        /**
+         * The position of each plank within its group by its index. Since positions never change the array is shared
+         * between copies of a pool.
+         */
+        private final int[] positionPerPlank;
+
+        /**
+         * Group the given planks by their shape such that identical planks are evaluated only once per candidate. The
+         * planks of a group are ordered by their tie break ranks.
+         */
+        UnplacedPlankPool(final Collection<RequiredPlank> requiredPlanks,
+                          final PlankGrainDirection basePlankGrainDirection) {
+            positionPerPlank = new int[requiredPlanksByIndex.length];
+            final Map<PlankShape, List<Integer>> plankIndicesPerShape = new HashMap<>();
+            for (final RequiredPlank requiredPlank : requiredPlanks) {
+                plankIndicesPerShape.computeIfAbsent(PlankShape.of(requiredPlank), shape -> new ArrayList<>())
+                        .add(plankIndices.get(requiredPlank));
+            }
+            for (final List<Integer> memberIndices : plankIndicesPerShape.values()) {
+                memberIndices.sort(Comparator.comparingInt(plankIndex -> tieBreakRanks[plankIndex]));
+                final int pivotIndex = memberIndices.get(0);
+                final PlankVariationGroup group = new PlankVariationGroup(requiredPlanksByIndex[pivotIndex],
+                        memberIndices.stream().mapToInt(Integer::intValue).toArray(), basePlankGrainDirection,
+                        rotatedFirst[pivotIndex]);
+                groups.add(group);
+                for (int position = 0; position < memberIndices.size(); position++) {
+                    groupPerPlank[memberIndices.get(position)] = group;
+                    positionPerPlank[memberIndices.get(position)] = position;
+                }
+            }
+            groupsInOrder = groups.toArray(PlankVariationGroup[]::new);
+            final List<IndexedVariation> variations = new ArrayList<>();
+            int maxWidth = 0;
+            int maxHeight = 0;
+            for (int groupPosition = 0; groupPosition < groupsInOrder.length; groupPosition++) {
+                for (final PlankVariant variation : groupsInOrder[groupPosition].getVariations()) {
+                    variations.add(new IndexedVariation(groupPosition, variation.width(), variation.height()));
+                    maxWidth = Math.max(maxWidth, variation.width());
+                    maxHeight = Math.max(maxHeight, variation.height());
+                }
+            }
+            maxVariationWidth = maxWidth;
+            maxVariationHeight = maxHeight;
+            variationIndex = new PlankDimensionIndex<>(variations, IndexedVariation::width, IndexedVariation::height);
+        }
+
+        /**
+         * Create a copy whose planks can be removed without affecting the given pool.
+         */
+        UnplacedPlankPool(final UnplacedPlankPool pool) {
+            positionPerPlank = pool.positionPerPlank;
+            variationIndex = pool.variationIndex;
+            maxVariationWidth = pool.maxVariationWidth;
+            maxVariationHeight = pool.maxVariationHeight;
+            groupsInOrder = new PlankVariationGroup[pool.groupsInOrder.length];
+            for (int groupPosition = 0; groupPosition < groupsInOrder.length; groupPosition++) {
+                final PlankVariationGroup groupCopy = new PlankVariationGroup(pool.groupsInOrder[groupPosition]);
+                groupsInOrder[groupPosition] = groupCopy;
+                if (!groupCopy.isEmpty()) {
+                    groups.add(groupCopy);
+                }
+                for (int position = groupCopy.nextUnplacedPosition(0); position >= 0;
+                     position = groupCopy.nextUnplacedPosition(position + 1)) {
+                    groupPerPlank[groupCopy.getMemberIndex(position)] = groupCopy;
+                }
+            }
+        }
+
+        /**
+         * Remove the given planks from their groups and remove any group which has no planks left. Planks which are
+         * not part of this pool are ignored.
+         */
+        void removeAll(final Collection<RequiredPlank> placedPlanks) {
+            for (final RequiredPlank placedPlank : placedPlanks) {
+                final int plankIndex = plankIndices.get(placedPlank);
+                final PlankVariationGroup group = groupPerPlank[plankIndex];
+                if (group != null) {
+                    groupPerPlank[plankIndex] = null;
+                    group.markPlaced(positionPerPlank[plankIndex]);
+                    if (group.isEmpty()) {
+                        groups.remove(group);
+                    }
+                }
+            }
+        }
+
+        /**
+         * @return The groups having at least one unplaced plank and at least one allowed orientation which is at most
+         * as wide and at most as high as given. They are ordered like {@link #getGroups()}. The result must not be
+         * changed.
+         */
+        Collection<PlankVariationGroup> findFitting(final int maxWidth, final int maxHeight) {
+            Collection<PlankVariationGroup> fittingGroups;
+            if (maxWidth >= maxVariationWidth && maxHeight >= maxVariationHeight) {
+                // Querying the index does not pay off if all groups fit
+                fittingGroups = getGroups();
+            } else {
+                final BitSet groupPositions = new BitSet(groupsInOrder.length);
+                variationIndex.forEachAtMost(
+                        maxWidth, maxHeight, variation -> groupPositions.set(variation.groupPosition()));
+                fittingGroups = new ArrayList<>(groupPositions.cardinality());
+                for (int groupPosition = groupPositions.nextSetBit(0); groupPosition >= 0;
+                     groupPosition = groupPositions.nextSetBit(groupPosition + 1)) {
+                    final PlankVariationGroup group = groupsInOrder[groupPosition];
+                    if (!group.isEmpty()) {
+                        fittingGroups.add(group);
+                    }
+                }
+            }
+            return fittingGroups;
+        }
+
+        /**
+         * @return The groups having at least one unplaced plank in the order in which they are evaluated.
+         */
+        Collection<PlankVariationGroup> getGroups() {
+            return Collections.unmodifiableSortedSet(groups);
+        }
+
+        boolean isEmpty() {
+            return groups.isEmpty();
+        }
+    }
+
+    /**
+     * All planks of the same shape together with the orientations they are allowed in on a base plank with a certain
+     * grain direction.
+     */
+    private static class PlankVariationGroup {
+        private final RequiredPlank pivot;
+        /**
+         * The indices of all planks of the group (see {@link PlankVariant#plankIndex()}) in the order in which they
+         * are placed. Since the indices never change the array is shared between copies of a group.
+         */
+        private final int[] memberIndices;
+        private final BitSet placedPositions;
+        private int numUnplacedMembers;
+        private final List<PlankVariant> variations;
+
+        /**
+         * @param memberIndices The indices of all planks of the group in the order in which they are placed. The first
+         *                      one is the index of the pivot.
+         * @param rotatedFirst  Whether the rotated variation comes first and thereby wins on equal qualities.
+         */
+        public PlankVariationGroup(final RequiredPlank pivot, final int[] memberIndices,
+                                   final PlankGrainDirection basePlankGrainDirection, final boolean rotatedFirst) {
+            this.pivot = pivot;
+            this.memberIndices = memberIndices;
+            this.placedPositions = new BitSet(memberIndices.length);
+            this.numUnplacedMembers = memberIndices.length;
+            this.variations = new ArrayList<>(2);
+
+            /* A plank can be placed if either its grain direction the base planks grain direction is irrelevant or
+             * the grain direction matches the base planks grain direction.
+             */
+            final PlankVariant pivotVariant = new PlankVariant(
+                    getPivotIndex(), pivot.getWidth(), pivot.getHeight(), pivot.getGrainDirection(), false);
+            final PlankVariant rotatedPivotVariant = pivotVariant.rotate();
+            final List<PlankVariant> orientations = rotatedFirst
+                    ? List.of(rotatedPivotVariant, pivotVariant)
+                    : List.of(pivotVariant, rotatedPivotVariant);
+            for (final PlankVariant orientation : orientations) {
+                if (orientation.matchesGrainDirection(basePlankGrainDirection)) {
+                    variations.add(orientation);
+                }
+            }
+        }
+
+        /**
+         * Create a copy whose planks can be marked as placed without affecting the given group.
+         */
+        public PlankVariationGroup(final PlankVariationGroup group) {
+            this.pivot = group.pivot;
+            this.memberIndices = group.memberIndices;
+            this.placedPositions = (BitSet) group.placedPositions.clone();
+            this.numUnplacedMembers = group.numUnplacedMembers;
+            this.variations = group.variations;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            boolean isEqual;
+            if (this == other) {
+                isEqual = true;
+            } else if (other == null || getClass() != other.getClass()) {
+                isEqual = false;
+            } else {
+                final PlankVariationGroup that = (PlankVariationGroup) other;
+                isEqual = this.getPivot().equals(that.getPivot());
+            }
+            return isEqual;
+        }
+
+        @Override
+        public int hashCode() {
+            return getPivot().hashCode();
+        }
+
+        /**
+         * @return The pivot element which yielded all variations. It is the first plank of the group which stays the
+         * pivot even after it was placed. NOTE It is not necessarily the case that this pivot is an allowed variation
+         * itself.
+         */
+        public RequiredPlank getPivot() {
+            return pivot;
+        }
+
+        /**
+         * @return The index of the pivot which determines the position of the group among groups of equal area.
+         */
+        public int getPivotIndex() {
+            return memberIndices[0];
+        }
+
+        /**
+         * @return The position of the first unplaced plank at or after the given position or {@code -1} if there is
+         * none.
+         */
+        public int nextUnplacedPosition(final int fromPosition) {
+            final int position = placedPositions.nextClearBit(fromPosition);
+            return (position < memberIndices.length) ? position : -1;
+        }
+
+        /**
+         * @return The index of the plank at the given position of the group. The variations of the group apply to it.
+         */
+        public int getMemberIndex(final int position) {
+            return memberIndices[position];
+        }
+
+        public void markPlaced(final int position) {
+            if (!placedPositions.get(position)) {
+                placedPositions.set(position);
+                numUnplacedMembers--;
+            }
+        }
+
+        public boolean isEmpty() {
+            return numUnplacedMembers == 0;
+        }
+
+        /**
+         * @return The allowed orientations of the planks of this group. They refer to the pivot.
+         */
+        public List<PlankVariant> getVariations() {
+            return Collections.unmodifiableList(variations);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package bayern.steinbrecher.woodpacker.data;
+
+import javafx.util.Pair;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Places planks greedily row by row such that every cutting plan can be cut with guillotine cuts only. Rows are rated
+ * by the {@link PlankSolutionCriterion}s of the problem. This is the default solver. It is the slowest one but the
+ * only one which considers the criteria of the problem and which supports solving incrementally.
+ *
+ * @author Stefan Huber
+ * @since 0.1
+ */
+public final class GreedyRowCuttingPlanSolver implements CuttingPlanSolver {
+    public static final String SOLVER_ID = "greedyRows";
+
+    private final ForkJoinPool candidateEvaluationPool;
+
+    /**
+     * Create a solver which evaluates all candidates sequentially on the thread running the solver.
+     */
+    public GreedyRowCuttingPlanSolver() {
+        this(null);
+    }
+
+    /**
+     * @param candidateEvaluationPool The pool to evaluate the candidates for the next row on concurrently. If
+     *                                {@code null} all candidates are evaluated sequentially.
+     */
+    public GreedyRowCuttingPlanSolver(final ForkJoinPool candidateEvaluationPool) {
+        this.candidateEvaluationPool = candidateEvaluationPool;
+    }
+
+    @Override
+    public String getSolverId() {
+        return SOLVER_ID;
+    }
+
+    @Override
+    public Pair<Collection<CuttingPlan>, Set<RequiredPlank>> solve(final PlankProblemSnapshot problem) {
+        return new GreedyCuttingPlanSolver(problem, candidateEvaluationPool).solve();
+    }
+
+    @Override
+    public Pair<Collection<CuttingPlan>, Set<RequiredPlank>> solveIncrementally(
+            final PlankProblemSnapshot problem, final PlankProblemSnapshot previousProblem,
+            final Pair<Collection<CuttingPlan>, Set<RequiredPlank>> previousSolution) {
+        return new GreedyCuttingPlanSolver(problem, candidateEvaluationPool)
+                .solveIncrementally(previousProblem, previousSolution);
+    }
+}
@@ -0,0 +1,88 @@
+package bayern.steinbrecher.woodpacker.data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Places planks using a guillotine bottom-left-fill algorithm. The free space of a base plank is kept as
+ * non-overlapping rectangles. Each plank is placed into the left upper corner of the free rectangle which is closest
+ * to the left upper corner of the base plank. Afterwards the rectangle is split along its shorter axis. Hence, every
+ * cutting plan can be cut with guillotine cuts only and the remaining rectangles are reported as offcuts. It is faster
+ * than {@link GreedyRowCuttingPlanSolver} but ignores the {@link PlankSolutionCriterion}s of a problem.
+ *
+ * @author Stefan Huber
+ * @since 0.1
+ */
+public final class GuillotineCuttingPlanSolver extends SheetPackingSolver {
+    public static final String SOLVER_ID = "guillotine";
+
+    @Override
+    public String getSolverId() {
+        return SOLVER_ID;
+    }
+
+    /**
+     * Split the given area into the space right of the placed plank and the space below the placed plank. The cut
+     * which separates both goes along the shorter axis of the area such that the larger one of both spaces is as large
+     * as possible.
+     */
+    private static void splitFreeArea(final List<FreeArea> freeAreas, final FreeArea area, final PlankVariant variant) {
+        final int leftoverWidth = area.width() - variant.width();
+        final int leftoverHeight = area.height() - variant.height();
+        FreeArea rightArea;
+        FreeArea lowerArea;
+        if (area.width() < area.height()) {
+            rightArea = new FreeArea(area.x() + variant.width(), area.y(), leftoverWidth, variant.height());
+            lowerArea = new FreeArea(area.x(), area.y() + variant.height(), area.width(), leftoverHeight);
+        } else {
+            rightArea = new FreeArea(area.x() + variant.width(), area.y(), leftoverWidth, area.height());
+            lowerArea = new FreeArea(area.x(), area.y() + variant.height(), variant.width(), leftoverHeight);
+        }
+        for (final FreeArea splitArea : List.of(rightArea, lowerArea)) {
+            if (splitArea.width() > 0 && splitArea.height() > 0) {
+                freeAreas.add(splitArea);
+            }
+        }
+    }
+
+    @Override
+    SheetLayout packSheet(final int sheetWidth, final int sheetHeight, final List<List<PlankVariant>> plankVariants) {
+        final List<FreeArea> freeAreas = new ArrayList<>();
+        freeAreas.add(new FreeArea(0, 0, sheetWidth, sheetHeight));
+        final List<Placement> placements = new ArrayList<>();
+        for (final List<PlankVariant> variants : plankVariants) {
+            int bestAreaIndex = -1;
+            PlankVariant bestVariant = null;
+            int bestShortSideFit = Integer.MAX_VALUE;
+            for (int i = 0; i < freeAreas.size(); i++) {
+                final FreeArea area = freeAreas.get(i);
+                for (final PlankVariant variant : variants) {
+                    if (area.canContain(variant)) {
+                        final int shortSideFit
+                                = Math.min(area.width() - variant.width(), area.height() - variant.height());
+                        boolean isBetter;
+                        if (bestVariant == null) {
+                            isBetter = true;
+                        } else {
+                            final FreeArea bestArea = freeAreas.get(bestAreaIndex);
+                            isBetter = area.y() < bestArea.y()
+                                    || (area.y() == bestArea.y() && area.x() < bestArea.x())
+                                    || (area.equals(bestArea) && shortSideFit < bestShortSideFit);
+                        }
+                        if (isBetter) {
+                            bestAreaIndex = i;
+                            bestVariant = variant;
+                            bestShortSideFit = shortSideFit;
+                        }
+                    }
+                }
+            }
+            if (bestVariant != null) {
+                final FreeArea bestArea = freeAreas.remove(bestAreaIndex);
+                placements.add(new Placement(bestVariant, bestArea.x(), bestArea.y()));
+                splitFreeArea(freeAreas, bestArea, bestVariant);
+            }
+        }
+        return new SheetLayout(placements, freeAreas);
+    }
+}
@@ -0,0 +1,173 @@
+package bayern.steinbrecher.woodpacker.data;
+
+import javafx.util.Pair;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Solves each problem of {@link PlankProblemSnapshot#partitionByMaterial()} independently using a
+ * {@link CuttingPlanSolver} and merges their solutions. If there are multiple problems they are solved concurrently.
+ * The cutting plans of the merged solution are ordered by material and keep their order within each material.
+ *
+ * @author Stefan Huber
+ * @since 0.1
+ */
+public final class MaterialGroupSolver {
+    private final CuttingPlanSolver solver;
+    private final ForkJoinPool groupPool;
+
+    /**
+     * @param solver    The solver to solve the problem of each material with.
+     * @param groupPool The pool to solve the problems of the materials on concurrently.
+     */
+    public MaterialGroupSolver(final CuttingPlanSolver solver, final ForkJoinPool groupPool) {
+        this.solver = solver;
+        this.groupPool = groupPool;
+    }
+
+    /**
+     * @return The part of the given solution which solves the given problem of a single material.
+     */
+    private static Pair<Collection<CuttingPlan>, Set<RequiredPlank>> restrictSolution(
+            final Pair<Collection<CuttingPlan>, Set<RequiredPlank>> solution, final PlankProblemSnapshot group) {
+        final Collection<CuttingPlan> cuttingPlans = new ArrayList<>();
+        for (final CuttingPlan cuttingPlan : solution.getKey()) {
+            // Each cutting plan solely contains planks of a single material
+            final boolean belongsToGroup = cuttingPlan.getPlacedPlanks()
+                    .stream()
+                    .anyMatch(placedPlank -> group.requiredPlanks().contains(placedPlank.plank()));
+            if (belongsToGroup) {
+                cuttingPlans.add(cuttingPlan);
+            }
+        }
+        final Set<RequiredPlank> ignoredPlanks = new HashSet<>(solution.getValue());
+        ignoredPlanks.retainAll(group.requiredPlanks());
+        return new Pair<>(cuttingPlans, ignoredPlanks);
+    }
+
+    /**
+     * @return A list of cutting plans that fit on the offcuts and the base planks of all materials and the set of the
+     * remaining planks that do not fit onto any of them.
+     * @throws CancellationException Thrown if the thread running the solver is interrupted before a solution was found.
+     */
+    public Pair<Collection<CuttingPlan>, Set<RequiredPlank>> solve(final PlankProblemSnapshot problem) {
+        return solveIncrementally(problem, null, null);
+    }
+
+    /**
+     * Determine a solution which may take over parts of a previous solution. The problem of each material is solved
+     * incrementally based on the problem of the same material of the previous problem. If the thread running the
+     * solver is interrupted problems which were not started yet are cancelled and the threads solving the remaining
+     * problems are interrupted.
+     *
+     * @param previousProblem  The problem the previous solution was determined for. May be {@code null}.
+     * @param previousSolution The solution which was determined for the previous problem. May be {@code null}.
+     * @return A list of cutting plans that fit on the offcuts and the base planks of all materials and the set of the
+     * remaining planks that do not fit onto any of them.
+     * @throws CancellationException Thrown if the thread running the solver is interrupted before a solution was found.
+     * @see CuttingPlanSolver#solveIncrementally(PlankProblemSnapshot, PlankProblemSnapshot, Pair)
+     */
+    public Pair<Collection<CuttingPlan>, Set<RequiredPlank>> solveIncrementally(
+            final PlankProblemSnapshot problem, final PlankProblemSnapshot previousProblem,
+            final Pair<Collection<CuttingPlan>, Set<RequiredPlank>> previousSolution) {
+        Pair<Collection<CuttingPlan>, Set<RequiredPlank>> solution;
+        if (problem.isSplitByMaterial()) {
+            final Map<PlankMaterial, PlankProblemSnapshot> groups = problem.partitionByMaterial();
+            final Map<PlankMaterial, PlankProblemSnapshot> previousGroups
+                    = (previousProblem == null || previousSolution == null)
+                    ? Map.of()
+                    : previousProblem.partitionByMaterial();
+            final List<GroupSolve> groupSolves = new ArrayList<>(groups.size());
+            final List<ForkJoinTask<Pair<Collection<CuttingPlan>, Set<RequiredPlank>>>> groupSolutions
+                    = new ArrayList<>(groups.size());
+            for (final Map.Entry<PlankMaterial, PlankProblemSnapshot> group : groups.entrySet()) {
+                final PlankProblemSnapshot previousGroup = previousGroups.get(group.getKey());
+                final Pair<Collection<CuttingPlan>, Set<RequiredPlank>> previousGroupSolution
+                        = (previousGroup == null) ? null : restrictSolution(previousSolution, previousGroup);
+                final GroupSolve groupSolve = new GroupSolve(group.getValue(), previousGroup, previousGroupSolution);
+                groupSolves.add(groupSolve);
+                groupSolutions.add(groupPool.submit(groupSolve));
+            }
+
+            final Collection<CuttingPlan> cuttingPlans = new ArrayList<>();
+            final Set<RequiredPlank> ignoredPlanks = new HashSet<>();
+            try {
+                for (final ForkJoinTask<Pair<Collection<CuttingPlan>, Set<RequiredPlank>>> groupSolution
+                        : groupSolutions) {
+                    cuttingPlans.addAll(groupSolution.get().getKey());
+                    ignoredPlanks.addAll(groupSolution.get().getValue());
+                }
+            } catch (InterruptedException ex) {
+                groupSolutions.forEach(groupSolution -> groupSolution.cancel(false));
+                groupSolves.forEach(GroupSolve::cancel);
+                Thread.currentThread().interrupt();
+                throw (CancellationException) new CancellationException(
+                        "The solver was interrupted while solving the problems of the materials").initCause(ex);
+            } catch (ExecutionException ex) {
+                throw new IllegalStateException("Could not solve the problem of a material", ex.getCause());
+            }
+            solution = new Pair<>(cuttingPlans, ignoredPlanks);
+        } else {
+            solution = solver.solveIncrementally(problem, previousProblem, previousSolution);
+        }
+        return solution;
+    }
+
+    /**
+     * Solves the problem of a single material. In contrast to {@link ForkJoinTask#cancel(boolean)} cancelling it
+     * interrupts the thread solving the problem. Thereby, the solver stops as soon as it checks for being interrupted.
+     */
+    private final class GroupSolve implements Callable<Pair<Collection<CuttingPlan>, Set<RequiredPlank>>> {
+        private final PlankProblemSnapshot group;
+        private final PlankProblemSnapshot previousGroup;
+        private final Pair<Collection<CuttingPlan>, Set<RequiredPlank>> previousGroupSolution;
+        // Guarded by this
+        private Thread solvingThread;
+        private boolean cancelled;
+
+        private GroupSolve(final PlankProblemSnapshot group, final PlankProblemSnapshot previousGroup,
+                           final Pair<Collection<CuttingPlan>, Set<RequiredPlank>> previousGroupSolution) {
+            this.group = group;
+            this.previousGroup = previousGroup;
+            this.previousGroupSolution = previousGroupSolution;
+        }
+
+        @Override
+        public Pair<Collection<CuttingPlan>, Set<RequiredPlank>> call() {
+            synchronized (this) {
+                if (cancelled) {
+                    throw new CancellationException("The problem of the material was cancelled before being solved");
+                }
+                solvingThread = Thread.currentThread();
+            }
+            try {
+                return solver.solveIncrementally(group, previousGroup, previousGroupSolution);
+            } finally {
+                synchronized (this) {
+                    solvingThread = null;
+                    if (cancelled) {
+                        // NOTE The interrupt solely addresses this solve and must not affect later tasks of the pool
+                        Thread.interrupted();
+                    }
+                }
+            }
+        }
+
+        private synchronized void cancel() {
+            cancelled = true;
+            if (solvingThread != null) {
+                solvingThread.interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package bayern.steinbrecher.woodpacker.data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Places planks using the MaxRects algorithm. It keeps track of all maximal free rectangles of a base plank and places
+ * each plank into the free rectangle where it leaves the shortest side over (best short side fit). It usually achieves
+ * the densest placements but the resulting cutting plans may not be cuttable with guillotine cuts only. Since the
+ * free rectangles overlap no offcuts are reported.
+ *
+ * @author Stefan Huber
+ * @since 0.1
+ */
+public final class MaxRectsCuttingPlanSolver extends SheetPackingSolver {
+    public static final String SOLVER_ID = "maxRects";
+
+    @Override
+    public String getSolverId() {
+        return SOLVER_ID;
+    }
+
+    private static void splitFreeAreas(final List<FreeArea> freeAreas, final Placement placement) {
+        final int placementRight = placement.x() + placement.variant().width();
+        final int placementBottom = placement.y() + placement.variant().height();
+        final List<FreeArea> splitAreas = new ArrayList<>();
+        freeAreas.removeIf(area -> {
+            final boolean intersects = area.intersects(placement);
+            if (intersects) {
+                final int areaRight = area.x() + area.width();
+                final int areaBottom = area.y() + area.height();
+                if (placement.x() > area.x()) {
+                    splitAreas.add(new FreeArea(area.x(), area.y(), placement.x() - area.x(), area.height()));
+                }
+                if (placementRight < areaRight) {
+                    splitAreas.add(new FreeArea(placementRight, area.y(), areaRight - placementRight, area.height()));
+                }
+                if (placement.y() > area.y()) {
+                    splitAreas.add(new FreeArea(area.x(), area.y(), area.width(), placement.y() - area.y()));
+                }
+                if (placementBottom < areaBottom) {
+                    splitAreas.add(new FreeArea(area.x(), placementBottom, area.width(), areaBottom - placementBottom));
+                }
+            }
+            return intersects;
+        });
+        freeAreas.addAll(splitAreas);
+    }
+
+    /**
+     * Remove all free areas which are contained in any other free area.
+     */
+    private static void pruneFreeAreas(final List<FreeArea> freeAreas) {
+        for (int i = freeAreas.size() - 1; i >= 0; i--) {
+            final FreeArea area = freeAreas.get(i);
+            boolean contained = false;
+            for (int j = 0; j < freeAreas.size() && !contained; j++) {
+                // NOTE Of two equal areas only the one with the higher index is removed
+                contained = i != j && freeAreas.get(j).contains(area) && (j < i || !area.contains(freeAreas.get(j)));
+            }
+            if (contained) {
+                freeAreas.remove(i);
+            }
+        }
+    }
+
+    @Override
+    SheetLayout packSheet(final int sheetWidth, final int sheetHeight, final List<List<PlankVariant>> plankVariants) {
+        final List<FreeArea> freeAreas = new ArrayList<>();
+        freeAreas.add(new FreeArea(0, 0, sheetWidth, sheetHeight));
+        final List<Placement> placements = new ArrayList<>();
+        for (final List<PlankVariant> variants : plankVariants) {
+            Placement bestPlacement = null;
+            int bestShortSideFit = Integer.MAX_VALUE;
+            int bestLongSideFit = Integer.MAX_VALUE;
+            for (final FreeArea area : freeAreas) {
+                for (final PlankVariant variant : variants) {
+                    if (area.canContain(variant)) {
+                        final int leftoverWidth = area.width() - variant.width();
+                        final int leftoverHeight = area.height() - variant.height();
+                        final int shortSideFit = Math.min(leftoverWidth, leftoverHeight);
+                        final int longSideFit = Math.max(leftoverWidth, leftoverHeight);
+                        if (shortSideFit < bestShortSideFit
+                                || (shortSideFit == bestShortSideFit && longSideFit < bestLongSideFit)) {
+                            bestPlacement = new Placement(variant, area.x(), area.y());
+                            bestShortSideFit = shortSideFit;
+                            bestLongSideFit = longSideFit;
+                        }
+                    }
+                }
+            }
+            if (bestPlacement != null) {
+                placements.add(bestPlacement);
+                splitFreeAreas(freeAreas, bestPlacement);
+                pruneFreeAreas(freeAreas);
+            }
+        }
+        return new SheetLayout(placements, List.of());
+    }
+}
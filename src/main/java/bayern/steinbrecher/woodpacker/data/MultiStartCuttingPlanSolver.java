@@ -0,0 +1,150 @@
+package bayern.steinbrecher.woodpacker.data;
+
+import javafx.util.Pair;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs multiple passes of the greedy row placement of {@link GreedyRowCuttingPlanSolver} concurrently and returns the
+ * best solution. The first pass is not perturbed and yields the same solution as {@link GreedyRowCuttingPlanSolver}.
+ * All other passes jitter the weights of the {@link PlankSolutionCriterion}s, shuffle planks of equal area and
+ * randomise which orientation of a plank wins on equal qualities. A solution is better if it leaves fewer planks
+ * unplaced, requires fewer base planks or, as a tie breaker, wastes less area which is neither covered by planks nor
+ * by offcuts. The perturbations of all passes are derived from a single seed. Hence, the same seed and the same
+ * number of passes always yield the same solution.
+ *
+ * @author Stefan Huber
+ * @since 0.1
+ */
+public final class MultiStartCuttingPlanSolver implements CuttingPlanSolver {
+    public static final String SOLVER_ID = "multiStart";
+    public static final int DEFAULT_NUM_PASSES = 16;
+    public static final long DEFAULT_SEED = 20_220_615L;
+    private static final Logger LOGGER = Logger.getLogger(MultiStartCuttingPlanSolver.class.getName());
+    private static final Comparator<PassResult> PASS_RANKING
+            = Comparator.comparingInt(PassResult::numUnplacedPlanks)
+            .thenComparingInt(PassResult::numCuttingPlans)
+            .thenComparingLong(PassResult::wastedArea)
+            // On equal results the earlier pass wins
+            .thenComparingInt(PassResult::passIndex);
+
+    private final ForkJoinPool passPool;
+    private final int numPasses;
+    private final long seed;
+
+    /**
+     * Create a solver which runs {@link #DEFAULT_NUM_PASSES} passes seeded with {@link #DEFAULT_SEED} on the common
+     * pool.
+     */
+    public MultiStartCuttingPlanSolver() {
+        this(ForkJoinPool.commonPool(), DEFAULT_NUM_PASSES, DEFAULT_SEED);
+    }
+
+    /**
+     * @param passPool  The pool to run the passes on concurrently.
+     * @param numPasses The number of passes including the one which is not perturbed. Must be positive.
+     * @param seed      The seed all perturbations are derived from.
+     */
+    public MultiStartCuttingPlanSolver(final ForkJoinPool passPool, final int numPasses, final long seed) {
+        if (numPasses < 1) {
+            throw new IllegalArgumentException("At least a single pass is required");
+        }
+        this.passPool = passPool;
+        this.numPasses = numPasses;
+        this.seed = seed;
+    }
+
+    @Override
+    public String getSolverId() {
+        return SOLVER_ID;
+    }
+
+    private static long determineWastedArea(final Collection<CuttingPlan> cuttingPlans) {
+        long wastedArea = 0;
+        for (final CuttingPlan cuttingPlan : cuttingPlans) {
+            final BasePlank basePlank = cuttingPlan.getBasePlank();
+            wastedArea += ((long) basePlank.getWidth() - 2 * cuttingPlan.getOversize())
+                    * (basePlank.getHeight() - 2 * cuttingPlan.getOversize());
+            for (final PlankSolutionRow row : cuttingPlan.getRows()) {
+                wastedArea -= row.getUtilizedArea();
+            }
+            // Offcuts may be used for later jobs
+            for (final Offcut offcut : cuttingPlan.getOffcuts()) {
+                wastedArea -= ((long) offcut.remnant().getWidth()) * offcut.remnant().getHeight();
+            }
+        }
+        return wastedArea;
+    }
+
+    /**
+     * @return The seed of the perturbation of each pass. The first pass is not perturbed and has no seed.
+     */
+    private long[] derivePassSeeds() {
+        final Random seedSource = new Random(seed);
+        final long[] passSeeds = new long[numPasses];
+        for (int i = 1; i < numPasses; i++) {
+            passSeeds[i] = seedSource.nextLong();
+        }
+        return passSeeds;
+    }
+
+    /**
+     * {@inheritDoc} If the thread running the solver is interrupted passes which did not start yet are cancelled.
+     * Passes which are already running still finish.
+     */
+    @Override
+    public Pair<Collection<CuttingPlan>, Set<RequiredPlank>> solve(final PlankProblemSnapshot problem) {
+        final long[] passSeeds = derivePassSeeds();
+        final List<ForkJoinTask<PassResult>> passes = new ArrayList<>(numPasses);
+        for (int i = 0; i < numPasses; i++) {
+            final int passIndex = i;
+            final Random perturbation = (passIndex == 0) ? null : new Random(passSeeds[passIndex]);
+            passes.add(passPool.submit(() -> {
+                final Pair<Collection<CuttingPlan>, Set<RequiredPlank>> solution
+                        = new GreedyCuttingPlanSolver(problem, null, perturbation).solve();
+                return new PassResult(solution, passIndex, solution.getValue().size(), solution.getKey().size(),
+                        determineWastedArea(solution.getKey()));
+            }));
+        }
+
+        PassResult bestResult = null;
+        try {
+            for (final ForkJoinTask<PassResult> pass : passes) {
+                final PassResult result = pass.get();
+                if (bestResult == null || PASS_RANKING.compare(result, bestResult) < 0) {
+                    bestResult = result;
+                }
+            }
+        } catch (InterruptedException ex) {
+            passes.forEach(pass -> pass.cancel(false));
+            Thread.currentThread().interrupt();
+            throw (CancellationException) new CancellationException(
+                    "The solver was interrupted while running its passes").initCause(ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Could not run a pass of the solver", ex.getCause());
+        }
+        LOGGER.log(Level.FINE, String.format("Pass %d (seed %d) of %d yielded the best solution",
+                bestResult.passIndex(), passSeeds[bestResult.passIndex()], numPasses));
+        return bestResult.solution();
+    }
+
+    private record PassResult(
+            Pair<Collection<CuttingPlan>, Set<RequiredPlank>> solution,
+            int passIndex,
+            int numUnplacedPlanks,
+            int numCuttingPlans,
+            long wastedArea
+    ) {
+    }
+}
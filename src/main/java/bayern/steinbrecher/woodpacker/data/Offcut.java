@@ -0,0 +1,17 @@
+package bayern.steinbrecher.woodpacker.data;
+
+import javafx.geometry.Point2D;
+
+/**
+ * A part of a base plank which remains after cutting a {@link CuttingPlan} out of it.
+ *
+ * @param remnant  The remaining part. It has the grain direction and the material of the base plank it belongs to.
+ * @param position The position of the left upper corner of the remnant in the base plank space.
+ * @author Stefan Huber
+ * @since 0.1
+ */
+public record Offcut(
+        BasePlank remnant,
+        Point2D position
+) {
+}
@@ -0,0 +1,210 @@
+package bayern.steinbrecher.woodpacker.data;
+
+import bayern.steinbrecher.woodpacker.WoodPacker;
+import bayern.steinbrecher.woodpacker.utility.SerializationUtility;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.prefs.BackingStoreException;
+import java.util.prefs.Preferences;
+
+/**
+ * Keeps track of the offcuts which remain after cutting plans were cut such that later plank problems are able to use
+ * them instead of cutting a new base plank. All methods are thread safe.
+ *
+ * @author Stefan Huber
+ * @since 0.1
+ */
+public final class OffcutStore {
+    /**
+     * The length in millimeters which both sides of an offcut must have at least for being worth storing it.
+     */
+    public static final int DEFAULT_MIN_USABLE_LENGTH = 100;
+    private static final Logger LOGGER = Logger.getLogger(OffcutStore.class.getName());
+    private static final int OFFCUT_ID_LENGTH = 8;
+
+    private final Preferences storage;
+    private final int minUsableLength;
+    private final Map<String, BasePlank> offcuts = new HashMap<>();
+    /**
+     * The index of all offcuts per grain direction. It is dropped on any change and recreated on demand.
+     */
+    private final Map<PlankGrainDirection, PlankDimensionIndex<BasePlank>> offcutIndices
+            = new EnumMap<>(PlankGrainDirection.class);
+
+    /**
+     * Create an empty store which only lives in memory.
+     */
+    public OffcutStore() {
+        this(null, DEFAULT_MIN_USABLE_LENGTH);
+    }
+
+    /**
+     * @param storage         The node to persist the offcuts in. If {@code null} the offcuts only live in memory.
+     * @param minUsableLength The length in millimeters which both sides of an offcut must have at least for being
+     *                        stored.
+     */
+    public OffcutStore(final Preferences storage, final int minUsableLength) {
+        this.storage = storage;
+        this.minUsableLength = minUsableLength;
+        if (storage != null) {
+            readOffcuts();
+        }
+    }
+
+    /**
+     * @return The store which persists the offcuts for the current user.
+     */
+    public static OffcutStore openUserStore() {
+        return new OffcutStore(
+                Preferences.userRoot().node("bayern/steinbrecher/woodpacker/offcuts"), DEFAULT_MIN_USABLE_LENGTH);
+    }
+
+    private void readOffcuts() {
+        try {
+            for (final String offcutId : storage.keys()) {
+                final byte[] serializedOffcut = storage.getByteArray(offcutId, null);
+                if (serializedOffcut == null) {
+                    LOGGER.log(Level.WARNING,
+                            String.format("The serialized data for offcut '%s' is not available", offcutId));
+                } else {
+                    try {
+                        final BasePlank offcut = SerializationUtility.deserialize(serializedOffcut);
+                        offcuts.put(offcut.getPlankId(), offcut);
+                    } catch (IOException | ClassNotFoundException ex) {
+                        LOGGER.log(Level.WARNING, String.format("Failed to deserialize offcut '%s'", offcutId), ex);
+                    }
+                }
+            }
+        } catch (BackingStoreException ex) {
+            LOGGER.log(Level.SEVERE, "Could not access the storage of offcuts", ex);
+        }
+    }
+
+    private boolean isUsable(final BasePlank remnant) {
+        return remnant.getWidth() >= minUsableLength && remnant.getHeight() >= minUsableLength;
+    }
+
+    private void put(final BasePlank offcut) {
+        offcuts.put(offcut.getPlankId(), offcut);
+        if (storage != null) {
+            try {
+                storage.putByteArray(offcut.getPlankId(), SerializationUtility.serialize(offcut));
+            } catch (IOException ex) {
+                LOGGER.log(Level.WARNING, "Could not persistently store new offcut", ex);
+            }
+        }
+    }
+
+    private void remove(final BasePlank offcut) {
+        offcuts.remove(offcut.getPlankId());
+        if (storage != null) {
+            storage.remove(offcut.getPlankId());
+        }
+    }
+
+    /**
+     * Store the given remnant if it is usable. The stored offcut gets an ID of its own since IDs of stored offcuts
+     * have to be unique. Its grain direction, material and comment are the ones of the remnant.
+     *
+     * @return {@code true} iff the remnant was stored.
+     */
+    public synchronized boolean add(final BasePlank remnant) {
+        final boolean usable = isUsable(remnant);
+        if (usable) {
+            final String offcutId = WoodPacker.getResource(
+                    "offcut", UUID.randomUUID().toString().substring(0, OFFCUT_ID_LENGTH));
+            put(new BasePlank(offcutId, remnant.getWidth(), remnant.getHeight(), remnant.getGrainDirection(),
+                    remnant.getMaterial(), remnant.getComment()));
+            offcutIndices.clear();
+        }
+        return usable;
+    }
+
+    /**
+     * Record that the given cutting plans are cut. Any stored offcut a cutting plan is cut out of is removed from the
+     * store and all usable offcuts of the cutting plans are added.
+     */
+    public synchronized void commit(final Collection<CuttingPlan> cuttingPlans) {
+        for (final CuttingPlan cuttingPlan : cuttingPlans) {
+            final BasePlank basePlank = cuttingPlan.getBasePlank();
+            if (offcuts.containsKey(basePlank.getPlankId())) {
+                remove(basePlank);
+            }
+        }
+        for (final CuttingPlan cuttingPlan : cuttingPlans) {
+            for (final Offcut offcut : cuttingPlan.getOffcuts()) {
+                add(offcut.remnant());
+            }
+        }
+        offcutIndices.clear();
+    }
+
+    /**
+     * Remove the given offcut from the store, e.g. because it was used otherwise.
+     *
+     * @return {@code true} iff the offcut was stored.
+     */
+    public synchronized boolean discard(final BasePlank offcut) {
+        final boolean contained = offcuts.containsKey(offcut.getPlankId());
+        if (contained) {
+            remove(offcut);
+            offcutIndices.clear();
+        }
+        return contained;
+    }
+
+    /**
+     * @param grainDirection The grain direction of the offcuts to find. Offcuts with an irrelevant grain direction
+     *                       are always found. If the given direction is {@link PlankGrainDirection#IRRELEVANT} offcuts
+     *                       of any grain direction are found.
+     * @return All stored offcuts which are at least as wide and at least as high as given ordered ascending by their
+     * area.
+     */
+    public synchronized List<BasePlank> findOffcuts(
+            final int minWidth, final int minHeight, final PlankGrainDirection grainDirection) {
+        final Set<BasePlank> foundOffcuts = new HashSet<>();
+        for (final PlankGrainDirection offcutGrainDirection : PlankGrainDirection.values()) {
+            if (grainDirection == PlankGrainDirection.IRRELEVANT
+                    || offcutGrainDirection == PlankGrainDirection.IRRELEVANT
+                    || offcutGrainDirection == grainDirection) {
+                final PlankDimensionIndex<BasePlank> offcutIndex = offcutIndices.computeIfAbsent(
+                        offcutGrainDirection, gd -> new PlankDimensionIndex<>(offcuts.values()
+                                .stream()
+                                .filter(offcut -> offcut.getGrainDirection() == gd)
+                                .toList(), BasePlank::getWidth, BasePlank::getHeight));
+                foundOffcuts.addAll(offcutIndex.findAtLeast(minWidth, minHeight));
+            }
+        }
+        return foundOffcuts.stream()
+                .sorted(Comparator.comparingLong((BasePlank offcut) -> (long) offcut.getWidth() * offcut.getHeight())
+                        .thenComparing(BasePlank::getPlankId))
+                .toList();
+    }
+
+    /**
+     * @return All stored offcuts which are at least as wide and at least as high as given ordered ascending by their
+     * area.
+     */
+    public List<BasePlank> findOffcuts(final int minWidth, final int minHeight) {
+        return findOffcuts(minWidth, minHeight, PlankGrainDirection.IRRELEVANT);
+    }
+
+    public synchronized Set<BasePlank> getOffcuts() {
+        return Set.copyOf(offcuts.values());
+    }
+
+    public int getMinUsableLength() {
+        return minUsableLength;
+    }
+}
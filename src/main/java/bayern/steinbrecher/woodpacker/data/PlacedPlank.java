@@ -0,0 +1,17 @@
+package bayern.steinbrecher.woodpacker.data;
+
+import javafx.geometry.Point2D;
+
+/**
+ * A required plank together with the position of its left upper corner on the base plank of a {@link CuttingPlan}.
+ *
+ * @param plank    The placed plank. Its width and height already reflect whether it is rotated.
+ * @param position The position of the left upper corner of the plank in the base plank space.
+ * @author Stefan Huber
+ * @since 0.1
+ */
+public record PlacedPlank(
+        RequiredPlank plank,
+        Point2D position
+) {
+}
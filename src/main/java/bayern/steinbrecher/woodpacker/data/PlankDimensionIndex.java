@@ -0,0 +1,169 @@
+package bayern.steinbrecher.woodpacker.data;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * An immutable two-dimensional range tree over the widths and the heights of planks. It determines all planks which
+ * are at least (or at most) as wide and at least (or at most) as high as requested in O(log² n + k) where k is the
+ * number of resulting planks.
+ *
+ * @param <P> The type of the indexed planks. It is not required to be a {@link Plank} as long as it has a width and a
+ *            height.
+ * @author Stefan Huber
+ * @since 0.1
+ */
+final class PlankDimensionIndex<P> {
+    private final int numLeaves;
+    /**
+     * The widths of all planks sorted ascending. The i-th width belongs to the i-th leaf.
+     */
+    private final int[] sortedWidths;
+    /**
+     * The node with index i has the children 2i and 2i + 1. The leaves start at index {@link #numLeaves}. Each node
+     * contains the planks of all leaves below it sorted ascending by their heights.
+     */
+    private final List<List<P>> nodePlanks;
+    private final int[][] nodeHeights;
+
+    /**
+     * @param widthOf  Determines the width of an indexed plank. It must not change while the plank is indexed.
+     * @param heightOf Determines the height of an indexed plank. It must not change while the plank is indexed.
+     */
+    PlankDimensionIndex(final Collection<P> planks, final ToIntFunction<? super P> widthOf,
+                        final ToIntFunction<? super P> heightOf) {
+        final List<P> planksByWidth = new ArrayList<>(planks);
+        planksByWidth.sort(Comparator.comparingInt(widthOf));
+        numLeaves = planksByWidth.size();
+        sortedWidths = planksByWidth.stream()
+                .mapToInt(widthOf)
+                .toArray();
+        nodePlanks = new ArrayList<>(2 * numLeaves);
+        nodeHeights = new int[2 * numLeaves][];
+        for (int i = 0; i < 2 * numLeaves; i++) {
+            nodePlanks.add(List.of());
+        }
+        for (int i = 0; i < numLeaves; i++) {
+            nodePlanks.set(numLeaves + i, List.of(planksByWidth.get(i)));
+        }
+        for (int i = numLeaves - 1; i > 0; i--) {
+            nodePlanks.set(i, mergeByHeight(nodePlanks.get(2 * i), nodePlanks.get(2 * i + 1), heightOf));
+        }
+        for (int i = 1; i < 2 * numLeaves; i++) {
+            nodeHeights[i] = nodePlanks.get(i)
+                    .stream()
+                    .mapToInt(heightOf)
+                    .toArray();
+        }
+    }
+
+    private static <P> List<P> mergeByHeight(final List<P> first, final List<P> second,
+                                             final ToIntFunction<? super P> heightOf) {
+        final List<P> merged = new ArrayList<>(first.size() + second.size());
+        int firstIndex = 0;
+        int secondIndex = 0;
+        while (firstIndex < first.size() || secondIndex < second.size()) {
+            if (secondIndex >= second.size() || (firstIndex < first.size()
+                    && heightOf.applyAsInt(first.get(firstIndex)) <= heightOf.applyAsInt(second.get(secondIndex)))) {
+                merged.add(first.get(firstIndex));
+                firstIndex++;
+            } else {
+                merged.add(second.get(secondIndex));
+                secondIndex++;
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * @return The smallest index whose value is greater or equal to the given minimum or the length of the array if
+     * there is no such index.
+     */
+    private static int lowerBound(final int[] sortedValues, final int minimum) {
+        int low = 0;
+        int high = sortedValues.length;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (sortedValues[middle] < minimum) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private void collectAtLeast(final int node, final int minHeight, final Collection<P> result) {
+        final List<P> planks = nodePlanks.get(node);
+        result.addAll(planks.subList(lowerBound(nodeHeights[node], minHeight), planks.size()));
+    }
+
+    private void visitAtMost(final int node, final int maxHeight, final Consumer<? super P> action) {
+        final int[] heights = nodeHeights[node];
+        // Guard against overflows of maxHeight + 1
+        final int end = (maxHeight == Integer.MAX_VALUE) ? heights.length : lowerBound(heights, maxHeight + 1);
+        final List<P> planks = nodePlanks.get(node);
+        for (int i = 0; i < end; i++) {
+            action.accept(planks.get(i));
+        }
+    }
+
+    /**
+     * @return All indexed planks which are at least as wide and at least as high as given in no particular order.
+     */
+    public List<P> findAtLeast(final int minWidth, final int minHeight) {
+        final List<P> result = new ArrayList<>();
+        int left = lowerBound(sortedWidths, minWidth) + numLeaves;
+        int right = 2 * numLeaves;
+        while (left < right) {
+            if ((left & 1) == 1) {
+                collectAtLeast(left, minHeight, result);
+                left++;
+            }
+            if ((right & 1) == 1) {
+                right--;
+                collectAtLeast(right, minHeight, result);
+            }
+            left >>= 1;
+            right >>= 1;
+        }
+        return result;
+    }
+
+    /**
+     * @return All indexed planks which are at most as wide and at most as high as given in no particular order.
+     */
+    public List<P> findAtMost(final int maxWidth, final int maxHeight) {
+        final List<P> result = new ArrayList<>();
+        forEachAtMost(maxWidth, maxHeight, result::add);
+        return result;
+    }
+
+    /**
+     * Pass all indexed planks which are at most as wide and at most as high as given to the given action in no
+     * particular order. In contrast to {@link #findAtMost(int, int)} no intermediate list is created.
+     */
+    public void forEachAtMost(final int maxWidth, final int maxHeight, final Consumer<? super P> action) {
+        if (maxWidth >= 0 && maxHeight >= 0) {
+            int left = numLeaves;
+            int right = ((maxWidth == Integer.MAX_VALUE) ? numLeaves : lowerBound(sortedWidths, maxWidth + 1))
+                    + numLeaves;
+            while (left < right) {
+                if ((left & 1) == 1) {
+                    visitAtMost(left, maxHeight, action);
+                    left++;
+                }
+                if ((right & 1) == 1) {
+                    right--;
+                    visitAtMost(right, maxHeight, action);
+                }
+                left >>= 1;
+                right >>= 1;
+            }
+        }
+    }
+}
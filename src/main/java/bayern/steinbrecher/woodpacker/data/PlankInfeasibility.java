@@ -0,0 +1,75 @@
+package bayern.steinbrecher.woodpacker.data;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Describes why a {@link RequiredPlank} can not be placed by any solver regardless of the other required planks. The
+ * check solely compares the dimensions of the plank with the usable area of the base planks and offcuts of a problem.
+ * Hence, planks which only fail to fit because of the cutting width are not detected.
+ *
+ * @author Stefan Huber
+ * @since 0.1
+ */
+public enum PlankInfeasibility {
+    /**
+     * The problem neither stocks any base plank nor offers any offcut.
+     */
+    NO_BASE_PLANK,
+    /**
+     * The plank is larger than the usable area of every base plank and every offcut in any orientation.
+     */
+    TOO_LARGE,
+    /**
+     * The plank fits onto a base plank or an offcut solely in an orientation which contradicts its grain direction.
+     */
+    GRAIN_DIRECTION;
+
+    /**
+     * @return The reason why the given plank can not be placed at all or an empty {@link Optional} if there is at
+     * least one base plank or offcut the plank fits onto. Stocked base planks of quantity zero are not considered.
+     */
+    public static Optional<PlankInfeasibility> determine(final PlankProblemSnapshot problem,
+                                                         final RequiredPlank plank) {
+        final PlankVariant variant = new PlankVariant(
+                0, plank.getWidth(), plank.getHeight(), plank.getGrainDirection(), false);
+        final List<PlankVariant> orientations = List.of(variant, variant.rotate());
+        boolean anyBasePlank = false;
+        boolean fitsIgnoringGrain = false;
+        boolean fits = false;
+        for (final StockedBasePlank stockedBasePlank : problem.basePlankStock()) {
+            if (stockedBasePlank.getQuantity() != 0) {
+                final BasePlank basePlank = stockedBasePlank.getBasePlank();
+                anyBasePlank = true;
+                for (final PlankVariant orientation : orientations) {
+                    final boolean fitsDimensions
+                            = orientation.width() <= basePlank.getWidth() - 2 * problem.basePlankOversize()
+                            && orientation.height() <= basePlank.getHeight() - 2 * problem.basePlankOversize();
+                    fitsIgnoringGrain |= fitsDimensions;
+                    fits |= fitsDimensions && orientation.matchesGrainDirection(basePlank.getGrainDirection());
+                }
+            }
+        }
+        for (final BasePlank offcut : problem.offcuts()) {
+            anyBasePlank = true;
+            for (final PlankVariant orientation : orientations) {
+                final boolean fitsDimensions
+                        = orientation.width() <= offcut.getWidth() && orientation.height() <= offcut.getHeight();
+                fitsIgnoringGrain |= fitsDimensions;
+                fits |= fitsDimensions && orientation.matchesGrainDirection(offcut.getGrainDirection());
+            }
+        }
+
+        PlankInfeasibility infeasibility;
+        if (!anyBasePlank) {
+            infeasibility = NO_BASE_PLANK;
+        } else if (fits) {
+            infeasibility = null;
+        } else if (fitsIgnoringGrain) {
+            infeasibility = GRAIN_DIRECTION;
+        } else {
+            infeasibility = TOO_LARGE;
+        }
+        return Optional.ofNullable(infeasibility);
+    }
+}
@@ -2,21 +2,30 @@ package bayern.steinbrecher.woodpacker.data;
 
 import bayern.steinbrecher.javaUtility.SupplyingMap;
 import bayern.steinbrecher.woodpacker.WoodPacker;
+import javafx.application.Platform;
 import javafx.beans.InvalidationListener;
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.ListProperty;
 import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
 import javafx.beans.property.ReadOnlyObjectProperty;
 import javafx.beans.property.ReadOnlyObjectWrapper;
 import javafx.beans.property.SetProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleDoubleProperty;
 import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleListProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleSetProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
 import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.collections.ObservableMap;
 import javafx.collections.ObservableSet;
-import javafx.geometry.Point2D;
 import javafx.util.Pair;
 import org.jetbrains.annotations.NotNull;
 
@@ -25,43 +34,63 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serial;
 import java.io.Serializable;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.Objects;
-import java.util.Optional;
+import java.util.OptionalInt;
 import java.util.Set;
-import java.util.SortedSet;
-import java.util.TreeSet;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.stream.Collectors;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
+ * The inputs of a cutting plan problem together with a solution which is kept up to date automatically. Since the
+ * solution is published by JavaFX properties it is solely maintained while the JavaFX toolkit is running and the inputs
+ * are changed on the JavaFX Application Thread. Without a running toolkit {@link #proposedSolutionProperty()} stays
+ * empty. Headless users determine a solution explicitly by passing {@link #createSnapshot()} to
+ * {@link #solve(PlankProblemSnapshot)} instead.
+ *
  * @author Stefan Huber
  * @since 0.1
  */
 public class PlankProblem implements Serializable {
     @Serial
     private static final long serialVersionUID = 92870523745L;
-    private static final long INTERNAL_SERIAL_VERSION = 3L;
+    private static final long INTERNAL_SERIAL_VERSION = 5L;
+    private static final Logger LOGGER = Logger.getLogger(PlankProblem.class.getName());
+    private static final ExecutorService SOLVER_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        final Thread solverThread = new Thread(runnable, "PlankProblemSolver");
+        solverThread.setDaemon(true);
+        return solverThread;
+    });
+    private static final ExecutorService OPTIMIZER_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        final Thread optimizerThread = new Thread(runnable, "PlankProblemOptimizer");
+        optimizerThread.setDaemon(true);
+        // Optimizing must not slow down determining the initial solution of later inputs
+        optimizerThread.setPriority(Thread.MIN_PRIORITY);
+        return optimizerThread;
+    });
+    private static final ScheduledExecutorService SOLUTION_UPDATE_SCHEDULER
+            = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread schedulerThread = new Thread(runnable, "PlankProblemSolutionUpdateScheduler");
+        schedulerThread.setDaemon(true);
+        return schedulerThread;
+    });
     /**
-     * Sort {@link PlankSolutionRow} by descending area and ascending by the name of the pivot element ascending.
+     * The time to wait for further changes of the inputs of a problem before determining a new solution.
      */
-    private static final Comparator<PlankVariationGroup> VARIATION_GROUP_SORTER = (rpA, rpB) -> {
-        final RequiredPlank pivotA = rpA.getPivot();
-        final RequiredPlank pivotB = rpB.getPivot();
-        final int areaDifference = pivotB.getArea() - pivotA.getArea();
-        if (areaDifference == 0) {
-            return pivotA.getPlankId().compareTo(pivotB.getPlankId());
-        }
-        return areaDifference;
-    };
+    private static final long SOLUTION_UPDATE_DELAY_MILLIS = 100;
 
     // Since internal serial version 1
     private transient /*final*/ ObservableMap<PlankSolutionCriterion, Double> criterionWeights;
@@ -81,25 +110,77 @@ public class PlankProblem implements Serializable {
     // Since internal serial version 3
     private transient /*final*/ StringProperty problemName;
 
+    // Since internal serial version 4
+    private transient /*final*/ ListProperty<StockedBasePlank> basePlankStock;
+    private transient /*final*/ DoubleProperty basePlankCost;
+    private transient /*final*/ ObjectProperty<StockSelectionObjective> stockSelectionObjective;
+
+    // Since internal serial version 5
+    private transient /*final*/ ObservableMap<PlankMaterial, BasePlank> materialBasePlanks;
+
+    // Not serialized
+    private transient /*final*/ ObjectProperty<OffcutStore> offcutStore;
+    private transient /*final*/ BooleanProperty incrementalSolving;
+    private transient /*final*/ ObjectProperty<CuttingPlanSolver> cuttingPlanSolver;
+    private transient /*final*/ ObjectProperty<Duration> optimizationTimeBudget;
+    private transient /*final*/ ReadOnlyBooleanWrapper optimizing;
+    private transient /*final*/ ReadOnlyObjectWrapper<SolutionReport> solutionReport;
+    private transient Future<?> currentOptimization;
+    /**
+     * The snapshot which {@link #proposedSolutionProperty()} was determined for or {@code null} if there is none.
+     */
+    private transient PlankProblemSnapshot solvedSnapshot;
+    /**
+     * The solver which determined {@link #proposedSolutionProperty()} or {@code null} if there is none.
+     */
+    private transient CuttingPlanSolver solvedSolver;
+    private transient /*final*/ AtomicLong latestSolverRun;
+    /* NOTE The following members are solely accessed by the thread changing the inputs which is the JavaFX Application
+     * Thread (see class description). The scheduler and the solver threads never access them directly but hand over
+     * to the JavaFX Application Thread.
+     */
+    private transient Future<?> currentSolverRun;
+    private transient Future<?> pendingSolutionUpdate;
+    private transient int updateDepth;
+    private transient boolean solutionUpdateRequested;
+
     public PlankProblem() {
         initializeTransientMember();
 
+        // NOTE The invalidation listener is notified about replacing the set as well as about changing its content
         requiredPlanksProperty()
-                .addListener((obs, oldList, currentList) -> {
-                    if (currentList != null) {
-                        currentList.addListener((InvalidationListener) observable -> updateSolution());
-                        updateSolution(); // Ensure initial state
-                    }
-                });
+                .addListener((InvalidationListener) observable -> requestSolutionUpdate());
         basePlankProperty()
-                .addListener((obs, previousBasePlank, currentBasePlank) -> updateSolution());
+                .addListener(observable -> requestSolutionUpdate());
         criterionWeightsProperty()
-                .addListener((InvalidationListener) observable -> updateSolution());
+                .addListener((InvalidationListener) observable -> requestSolutionUpdate());
         basePlankOversizeProperty()
-                .addListener(observable -> updateSolution());
+                .addListener(observable -> requestSolutionUpdate());
         cuttingWidthProperty()
-                .addListener(observable -> updateSolution());
-        updateSolution(); // Ensure initial state
+                .addListener(observable -> requestSolutionUpdate());
+        basePlankStockProperty()
+                .addListener((InvalidationListener) observable -> requestSolutionUpdate());
+        basePlankCostProperty()
+                .addListener(observable -> requestSolutionUpdate());
+        stockSelectionObjectiveProperty()
+                .addListener(observable -> requestSolutionUpdate());
+        materialBasePlanksProperty()
+                .addListener((InvalidationListener) observable -> requestSolutionUpdate());
+        offcutStoreProperty()
+                .addListener(observable -> requestSolutionUpdate());
+        incrementalSolvingProperty()
+                .addListener(observable -> requestSolutionUpdate());
+        cuttingPlanSolverProperty()
+                .addListener(observable -> requestSolutionUpdate());
+        optimizationTimeBudgetProperty()
+                .addListener(observable -> {
+                    stopOptimization();
+                    // NOTE If a solver run is pending its solution is optimized as soon as it is available
+                    if (solvedSnapshot != null && (currentSolverRun == null || currentSolverRun.isDone())) {
+                        startOptimization(solvedSnapshot, solvedSolver, getProposedSolution(), latestSolverRun.get());
+                    }
+                });
+        requestSolutionUpdate(); // Ensure initial state
     }
 
     private void initializeTransientMember() {
@@ -110,198 +191,290 @@ public class PlankProblem implements Serializable {
         proposedSolution = new ReadOnlyObjectWrapper<>(new Pair<>(List.of(), Set.of()));
         cuttingWidth = new SimpleIntegerProperty(0);
         problemName = new SimpleStringProperty(WoodPacker.getResource("myCuttingPlan"));
+        basePlankStock = new SimpleListProperty<>(FXCollections.observableArrayList());
+        basePlankCost = new SimpleDoubleProperty(0);
+        stockSelectionObjective = new SimpleObjectProperty<>(StockSelectionObjective.MINIMIZE_WASTE);
+        materialBasePlanks = FXCollections.observableMap(new EnumMap<>(PlankMaterial.class));
+        offcutStore = new SimpleObjectProperty<>(null);
+        incrementalSolving = new SimpleBooleanProperty(false);
+        cuttingPlanSolver = new SimpleObjectProperty<>(new GreedyRowCuttingPlanSolver(ForkJoinPool.commonPool()));
+        optimizationTimeBudget = new SimpleObjectProperty<>(Duration.ZERO);
+        optimizing = new ReadOnlyBooleanWrapper(false);
+        solutionReport = new ReadOnlyObjectWrapper<>(SolutionReport.EMPTY);
+        currentOptimization = null;
+        solvedSnapshot = null;
+        solvedSolver = null;
+        latestSolverRun = new AtomicLong();
+        currentSolverRun = null;
+        pendingSolutionUpdate = null;
+        updateDepth = 0;
+        solutionUpdateRequested = false;
     }
 
-    private double determineCandidateQuality(final PlankSolutionRow candidate) {
-        return criterionWeights.entrySet()
-                .stream()
-                .mapToDouble(criterion -> criterion.getKey().getRating(candidate, this) * criterion.getValue())
-                .sum();
+    private static void runOnFxApplicationThread(final Runnable action) {
+        try {
+            Platform.runLater(action);
+        } catch (IllegalStateException ex) {
+            /* NOTE Without a running JavaFX toolkit (e.g. when being used headless) there is no thread which owns the
+             * solution. Running the action on the current thread instead would race with the thread changing the
+             * inputs. Hence, the action is dropped (see class description).
+             */
+            LOGGER.log(Level.FINE, "The JavaFX toolkit is not running. The action is dropped.", ex);
+        }
     }
 
-    private PlankSolutionRow createCandidate(
-            final boolean horizontal, final Point2D basePlankOffset, final Plank availablePlank,
-            final Set<PlankVariationGroup> plankVariations) {
-        assert !plankVariations.isEmpty() : "No planks left for creating a candidate";
-        int maxLength;
-        int maxBreadth;
-        if (horizontal) {
-            maxLength = availablePlank.getWidth();
-            maxBreadth = availablePlank.getHeight();
-        } else {
-            maxLength = availablePlank.getHeight();
-            maxBreadth = availablePlank.getWidth();
+    /**
+     * @return The stock a snapshot of this problem uses. It starts with an unlimited number of the base plank (if any)
+     * followed by the base plank stock.
+     * @see #createSnapshot()
+     */
+    public List<StockedBasePlank> getEffectiveBasePlankStock() {
+        final List<StockedBasePlank> effectiveStock = new ArrayList<>();
+        if (getBasePlank() != null) {
+            effectiveStock.add(
+                    new StockedBasePlank(getBasePlank(), StockedBasePlank.UNLIMITED_QUANTITY, getBasePlankCost()));
         }
-        final PlankSolutionRow finalCandidate
-                = new PlankSolutionRow(basePlankOffset, horizontal, maxLength, maxBreadth, getCuttingWidth());
-        double finalQuality = determineCandidateQuality(finalCandidate);
-        for (final PlankVariationGroup group : plankVariations) {
-            final Optional<Pair<RequiredPlank, Double>> optBestVariant = group.getVariations()
+        effectiveStock.addAll(getBasePlankStock());
+        return effectiveStock;
+    }
+
+    /**
+     * @return An immutable copy of all inputs relevant for determining a solution of this problem. The stock of the
+     * snapshot is {@link #getEffectiveBasePlankStock()}. If an {@link OffcutStore} is set the snapshot contains all
+     * offcuts which may fit at least one required plank.
+     */
+    public PlankProblemSnapshot createSnapshot() {
+        List<BasePlank> offcuts = List.of();
+        if (getOffcutStore() != null) {
+            // Any plank requires both sides of an offcut being at least as long as its shorter side
+            final OptionalInt minPlankLength = getRequiredPlanks()
                     .stream()
-                    .map(v -> {
-                        final PlankSolutionRow currentVariant = new PlankSolutionRow(finalCandidate);
-                        if (currentVariant.addPlank(v)) {
-                            final double currentVariantQuality = determineCandidateQuality(currentVariant);
-                            return new Pair<>(v, currentVariantQuality);
+                    .mapToInt(rp -> Math.min(rp.getWidth(), rp.getHeight()))
+                    .min();
+            if (minPlankLength.isPresent()) {
+                offcuts = getOffcutStore().findOffcuts(minPlankLength.getAsInt(), minPlankLength.getAsInt());
+            }
+        }
+        return new PlankProblemSnapshot(getBasePlank(), getRequiredPlanks(), criterionWeightsProperty(),
+                getBasePlankOversize(), getCuttingWidth(), getEffectiveBasePlankStock(), getStockSelectionObjective(),
+                offcuts, materialBasePlanksProperty());
+    }
+
+    /**
+     * Determine a solution for the given snapshot on the calling thread. Only if planks of multiple materials are cut
+     * out of their own base planks the materials are solved concurrently on the common pool (see
+     * {@link MaterialGroupSolver}). In contrast to {@link #proposedSolutionProperty()} this does not involve any JavaFX
+     * Application Thread and does not change the state of any {@link RequiredPlank}. Hence, it is suitable for solving
+     * problems headless.
+     *
+     * @return The cutting plans and the required planks which could not be placed on any of them.
+     * @throws CancellationException Thrown iff the calling thread is interrupted while solving.
+     */
+    public static Pair<Collection<CuttingPlan>, Set<RequiredPlank>> solve(final PlankProblemSnapshot snapshot) {
+        return new MaterialGroupSolver(new GreedyRowCuttingPlanSolver(), ForkJoinPool.commonPool())
+                .solve(snapshot);
+    }
+
+    /**
+     * Determine a solution for the given snapshot on the calling thread which takes over all cutting plans of a
+     * previous solution which are not affected by the changes between both snapshots.
+     *
+     * @param previousSnapshot The snapshot the previous solution was determined for.
+     * @param previousSolution The previous solution.
+     * @return The cutting plans and the required planks which could not be placed on any of them.
+     * @throws CancellationException Thrown iff the calling thread is interrupted while solving.
+     * @see #incrementalSolvingProperty()
+     */
+    public static Pair<Collection<CuttingPlan>, Set<RequiredPlank>> solveIncrementally(
+            final PlankProblemSnapshot snapshot, final PlankProblemSnapshot previousSnapshot,
+            final Pair<Collection<CuttingPlan>, Set<RequiredPlank>> previousSolution) {
+        return new MaterialGroupSolver(new GreedyRowCuttingPlanSolver(), ForkJoinPool.commonPool())
+                .solveIncrementally(snapshot, previousSnapshot, previousSolution);
+    }
+
+    /**
+     * @param solver The solver which determined the given solution or the solution the given one improves.
+     * @param report The report of the given solution. It is passed in such that it is determined on the thread which
+     *               determined the solution instead of on the JavaFX Application Thread.
+     */
+    private void applySolution(final PlankProblemSnapshot snapshot, final CuttingPlanSolver solver,
+                               final Pair<Collection<CuttingPlan>, Set<RequiredPlank>> solution,
+                               final SolutionReport report) {
+        // A plank of a quantity greater than one is placed iff all of its copies are placed
+        for (final RequiredPlank requiredPlank : snapshot.requiredPlanks()) {
+            requiredPlank.getOriginal().setPlacedInSolution(true);
+        }
+        for (final RequiredPlank unplacedPlank : solution.getValue()) {
+            unplacedPlank.getOriginal().setPlacedInSolution(false);
+        }
+        solvedSnapshot = snapshot;
+        solvedSolver = solver;
+        // Listeners of the solution should see the report which belongs to it
+        solutionReport.set(report);
+        proposedSolution.set(solution);
+    }
+
+    /**
+     * Improve the given solution in the background for at most {@link #optimizationTimeBudgetProperty()}. Each better
+     * solution is published to {@link #proposedSolutionProperty()} as long as the inputs did not change in the
+     * meantime.
+     */
+    private void startOptimization(final PlankProblemSnapshot snapshot, final CuttingPlanSolver solver,
+                                   final Pair<Collection<CuttingPlan>, Set<RequiredPlank>> solution,
+                                   final long solverRun) {
+        final Duration timeBudget = getOptimizationTimeBudget();
+        // The optimizer would place planks of any material on any base plank
+        if (!timeBudget.isNegative() && !timeBudget.isZero() && !solution.getKey().isEmpty()
+                && !snapshot.isSplitByMaterial()) {
+            optimizing.set(true);
+            currentOptimization = OPTIMIZER_EXECUTOR.submit(() -> {
+                try {
+                    new AnytimeCuttingPlanOptimizer(snapshot)
+                            .optimize(solution, timeBudget, improvedSolution -> {
+                                final SolutionReport report = SolutionReport.of(snapshot, improvedSolution);
+                                runOnFxApplicationThread(() -> {
+                                    if (solverRun == latestSolverRun.get()) {
+                                        applySolution(snapshot, solver, improvedSolution, report);
+                                    }
+                                });
+                            });
+                } catch (RuntimeException ex) {
+                    LOGGER.log(Level.SEVERE, "Could not optimize the solution of the plank problem", ex);
+                } finally {
+                    runOnFxApplicationThread(() -> {
+                        if (solverRun == latestSolverRun.get()) {
+                            optimizing.set(false);
                         }
-                        return null;
-                    })
-                    .filter(Objects::nonNull)
-                    .max(Comparator.comparing(Pair::getValue));
-            if (optBestVariant.isPresent()) {
-                final Pair<RequiredPlank, Double> bestVariant = optBestVariant.get();
-                if (bestVariant.getValue() > finalQuality) {
-                    finalCandidate.addPlank(bestVariant.getKey());
-                    finalQuality = bestVariant.getValue();
+                    });
                 }
-            }
+            });
         }
-        return finalCandidate;
-    }
-
-    private Optional<PlankSolutionRow> determineBestCandidate(
-            final SortedSet<PlankVariationGroup> unplacedPlanks,
-            final Map<Point2D, RemainingBasePlank> remainingPartitions) {
-        return remainingPartitions.entrySet()
-                .stream()
-                .flatMap(entry -> {
-                    final RemainingBasePlank remaining = entry.getValue();
-                    final List<PlankSolutionRow> candidates = new ArrayList<>();
-                    if (remaining.isRestrictToVerticalCandidates() == null
-                            || remaining.isRestrictToVerticalCandidates()) {
-                        candidates.add(createCandidate(
-                                false, entry.getKey(), remaining.getBasePlank(), unplacedPlanks));
-                    }
-                    if (remaining.isRestrictToVerticalCandidates() == null
-                            || !remaining.isRestrictToVerticalCandidates()) {
-                        candidates.add(createCandidate(
-                                true, entry.getKey(), remaining.getBasePlank(), unplacedPlanks));
-                    }
-                    return candidates.stream();
-                })
-                .filter(c -> c.getPlanks().size() > 0)
-                .map(c -> new Pair<>(c, determineCandidateQuality(c)))
-                .max(Comparator.comparing(Pair::getValue))
-                .map(Pair::getKey);
-    }
-
-    private void shrinkRemainingPartitions(
-            final Map<Point2D, RemainingBasePlank> remainingPartitions, final PlankSolutionRow rowToAdd) {
-        final Point2D selectedOffset = rowToAdd.getStartOffset();
-        final RemainingBasePlank selectedRemaining = remainingPartitions.remove(selectedOffset);
-        final BasePlank selectedPartition = selectedRemaining.getBasePlank();
-
-        // Split partition containing the row to add into remaining partitions
-        final int inRowOffset = rowToAdd.getCurrentLength() + getCuttingWidth();
-        final int notInRowOffset = rowToAdd.getCurrentBreadth() + getCuttingWidth();
-
-        if (rowToAdd.isAddingHorizontally()) {
-            final Optional<BasePlank> remainingPartitionNotInRow = selectedPartition.heightDecreased(notInRowOffset);
-            remainingPartitionNotInRow.ifPresent(
-                    bp -> remainingPartitions.put(
-                            selectedOffset.add(0, notInRowOffset),
-                            new RemainingBasePlank(null, bp)));
-
-            selectedPartition.widthDecreased(inRowOffset)
-                    .ifPresent(bp -> remainingPartitions.put(
-                            selectedOffset.add(inRowOffset, 0),
-                            new RemainingBasePlank(true,
-                                    new BasePlank(bp.getPlankId(), bp.getWidth(), rowToAdd.getCurrentBreadth(),
-                                            bp.getGrainDirection(), bp.getMaterial()))
-                    ));
-        } else {
-            final Optional<BasePlank> remainingPartitionNotInRow
-                    = selectedPartition.widthDecreased(notInRowOffset);
-            remainingPartitionNotInRow.ifPresent(
-                    bp -> remainingPartitions.put(
-                            selectedOffset.add(notInRowOffset, 0),
-                            new RemainingBasePlank(null, bp)));
-
-            selectedPartition.heightDecreased(inRowOffset)
-                    .ifPresent(bp -> remainingPartitions.put(
-                            selectedOffset.add(0, inRowOffset),
-                            new RemainingBasePlank(false,
-                                    new BasePlank(bp.getPlankId(), rowToAdd.getCurrentBreadth(), bp.getHeight(),
-                                            bp.getGrainDirection(), bp.getMaterial()))
-                    ));
+    }
+
+    /**
+     * Stop improving the current solution. The best solution found so far stays the proposed solution.
+     */
+    public void stopOptimization() {
+        if (currentOptimization != null) {
+            currentOptimization.cancel(true);
+            currentOptimization = null;
         }
+        optimizing.set(false);
     }
 
+    /**
+     * Determine a new solution in the background. Any solution which is still being determined for previous inputs is
+     * cancelled and only the solution for the most recent inputs is published to {@link #proposedSolutionProperty()}.
+     * This method is solely called on the JavaFX Application Thread (see {@link #requestSolutionUpdate()}). Otherwise,
+     * creating the snapshot could race with changes of the inputs.
+     */
     private void updateSolution() {
-        final Collection<CuttingPlan> cuttingPlans = new ArrayList<>();
-        Set<RequiredPlank> ignoredPlanks;
-        if (getBasePlank() == null
-                // Do not place planks if all criteria are disabled, i.e. if they are all neither positive nor negative
-                || criterionWeights.values().stream().allMatch(d -> d == 0)) {
-            ignoredPlanks = requiredPlanks;
-        } else {
-            /* The following collection contains all not yet placed planks in all variations in which they are allowed.
-             * In case the base plank as well as the required plank have a grain direction there is only one allowed
-             * variation of the plank. If either the base plank or the required plank have no grain direction the
-             * collection contains two versions of the plank (i.e. rotated and not rotated).
-             */
-            final SortedSet<PlankVariationGroup> unplacedPlanks = requiredPlanks.stream()
-                    .peek(rp -> rp.setPlacedInSolution(false))
-                    .map(rp -> new PlankVariationGroup(rp, getBasePlank()))
-                    // Sort by area decreasing
-                    .collect(Collectors.toCollection(() -> new TreeSet<>(VARIATION_GROUP_SORTER)));
-
-            final Map<Point2D, RemainingBasePlank> remainingPartitions = new ConcurrentHashMap<>();
-            final Collection<PlankSolutionRow> currentSolutionRows = new ArrayList<>();
-            final AtomicBoolean potentialForMorePlacements = new AtomicBoolean(true);
-            final Runnable resetCurrentCuttingPlan = () -> {
-                currentSolutionRows.clear();
-                remainingPartitions.clear();
-                final Optional<BasePlank> emptyBasePlank = getBasePlank().widthDecreased(2 * getBasePlankOversize())
-                        .flatMap(bp -> bp.heightDecreased(2 * getBasePlankOversize()));
-                if (emptyBasePlank.isPresent()) {
-                    final Point2D initialOffset = new Point2D(getBasePlankOversize(), getBasePlankOversize());
-                    remainingPartitions.put(initialOffset, new RemainingBasePlank(null, emptyBasePlank.get()));
-                } else {
-                    potentialForMorePlacements.set(false);
-                }
-            };
-            resetCurrentCuttingPlan.run();
-
-            while (!unplacedPlanks.isEmpty() && potentialForMorePlacements.get()) {
-                final Optional<PlankSolutionRow> optBestCandidate
-                        = determineBestCandidate(unplacedPlanks, remainingPartitions);
-                if (optBestCandidate.isPresent()) {
-                    final PlankSolutionRow bestCandidateRow = optBestCandidate.get();
-                    shrinkRemainingPartitions(remainingPartitions, bestCandidateRow);
-
-                    currentSolutionRows.add(bestCandidateRow);
-                    bestCandidateRow.getPlanks()
-                            .forEach(p -> unplacedPlanks.removeIf(up -> {
-                                final RequiredPlank pivot = up.getPivot();
-                                final boolean wasPlaced = pivot.equals(p);
-                                if (wasPlaced) {
-                                    pivot.setPlacedInSolution(true);
-                                }
-                                return wasPlaced;
-                            }));
-                } else {
-                    // No further candidates can be found for the current set of remaining base plank partitions
-                    if (currentSolutionRows.isEmpty()) { // If on an empty base plank there are no candidates available
-                        potentialForMorePlacements.set(false);
-                    } else {
-                        cuttingPlans.add(new CuttingPlan(
-                                new ArrayList<>(currentSolutionRows), getBasePlank(), getBasePlankOversize()));
-                        resetCurrentCuttingPlan.run();
+        final PlankProblemSnapshot snapshot = createSnapshot();
+        final CuttingPlanSolver solver = getCuttingPlanSolver();
+        // The cutting plans of another solver are not taken over. Otherwise, changing the solver would not take effect.
+        final PlankProblemSnapshot previousSnapshot
+                = (isIncrementalSolving() && solver == solvedSolver) ? solvedSnapshot : null;
+        final Pair<Collection<CuttingPlan>, Set<RequiredPlank>> previousSolution = getProposedSolution();
+        if (currentSolverRun != null) {
+            currentSolverRun.cancel(true);
+        }
+        stopOptimization();
+        final long solverRun = latestSolverRun.incrementAndGet();
+        currentSolverRun = SOLVER_EXECUTOR.submit(() -> {
+            try {
+                final Pair<Collection<CuttingPlan>, Set<RequiredPlank>> solution
+                        = new MaterialGroupSolver(solver, ForkJoinPool.commonPool())
+                        .solveIncrementally(snapshot, previousSnapshot, previousSolution);
+                final SolutionReport report = SolutionReport.of(snapshot, solution);
+                runOnFxApplicationThread(() -> {
+                    // Drop solutions which were outdated by newer inputs in the meantime
+                    if (solverRun == latestSolverRun.get()) {
+                        applySolution(snapshot, solver, solution, report);
+                        startOptimization(snapshot, solver, solution, solverRun);
                     }
-                }
+                });
+            } catch (CancellationException ex) {
+                LOGGER.log(Level.FINE, "Solver run was cancelled in favour of a more recent one", ex);
+            } catch (RuntimeException ex) {
+                LOGGER.log(Level.SEVERE, "Could not determine a solution for the plank problem", ex);
             }
-            if (!currentSolutionRows.isEmpty()) {
-                cuttingPlans.add(new CuttingPlan(
-                        new ArrayList<>(currentSolutionRows), getBasePlank(), getBasePlankOversize()));
+        });
+    }
+
+    /**
+     * Request a new solution for the current inputs. Requests which arrive within a short period of time are
+     * coalesced into a single update. Requests which arrive between {@link #beginUpdate()} and {@link #endUpdate()}
+     * are deferred until the outermost {@link #endUpdate()}. The update itself is handed over to the JavaFX
+     * Application Thread. Hence, it is dropped if the JavaFX toolkit is not running.
+     */
+    private void requestSolutionUpdate() {
+        if (updateDepth > 0) {
+            solutionUpdateRequested = true;
+        } else {
+            if (pendingSolutionUpdate != null) {
+                pendingSolutionUpdate.cancel(false);
             }
+            pendingSolutionUpdate = SOLUTION_UPDATE_SCHEDULER.schedule(
+                    () -> runOnFxApplicationThread(() -> {
+                        if (updateDepth > 0) {
+                            solutionUpdateRequested = true;
+                        } else {
+                            updateSolution();
+                        }
+                    }),
+                    SOLUTION_UPDATE_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Start a batch of changes to the inputs of this problem. No new solution is determined before the matching call
+     * of {@link #endUpdate()}. Batches may be nested.
+     */
+    public void beginUpdate() {
+        updateDepth++;
+    }
 
-            ignoredPlanks = unplacedPlanks.stream()
-                    .map(PlankVariationGroup::getPivot)
-                    .collect(Collectors.toSet());
-            ignoredPlanks.forEach(p -> p.setPlacedInSolution(false));
+    /**
+     * End a batch of changes started by {@link #beginUpdate()}. If this ends the outermost batch and any input changed
+     * since its beginning exactly one new solution is requested.
+     */
+    public void endUpdate() {
+        if (updateDepth <= 0) {
+            throw new IllegalStateException("There is no batch of changes to end");
+        }
+        updateDepth--;
+        if (updateDepth == 0 && solutionUpdateRequested) {
+            solutionUpdateRequested = false;
+            requestSolutionUpdate();
+        }
+    }
+
+    /**
+     * Replace all inputs of this problem by the ones of the given problem. The inputs are exactly the members which
+     * are serialized. Hence, whenever a member is added to the serialization it has to be added here as well. The
+     * collections of the given problem are taken over instead of being copied. A new solution is determined at most
+     * once.
+     */
+    public void copyInputsFrom(final PlankProblem source) {
+        beginUpdate();
+        try {
+            criterionWeightsProperty()
+                    .putAll(source.criterionWeightsProperty());
+            setRequiredPlanks(source.getRequiredPlanks());
+            setBasePlank(source.getBasePlank());
+            setBasePlankOversize(source.getBasePlankOversize());
+            setCuttingWidth(source.getCuttingWidth());
+            setProblemName(source.getProblemName());
+            setBasePlankStock(source.getBasePlankStock());
+            setBasePlankCost(source.getBasePlankCost());
+            setStockSelectionObjective(source.getStockSelectionObjective());
+            materialBasePlanksProperty()
+                    .clear();
+            materialBasePlanksProperty()
+                    .putAll(source.materialBasePlanksProperty());
+        } finally {
+            endUpdate();
         }
-        proposedSolution.set(new Pair<>(cuttingPlans, ignoredPlanks));
     }
 
     @Serial
@@ -330,6 +503,20 @@ public class PlankProblem implements Serializable {
         if (inputSerialVersion >= 3) {
             setProblemName(input.readUTF());
         }
+
+        // Internal serial version 4
+        if (inputSerialVersion >= 4) {
+            basePlankStockProperty()
+                    .addAll((ArrayList<StockedBasePlank>) input.readObject());
+            setBasePlankCost(input.readDouble());
+            setStockSelectionObjective((StockSelectionObjective) input.readObject());
+        }
+
+        // Internal serial version 5
+        if (inputSerialVersion >= 5) {
+            materialBasePlanksProperty()
+                    .putAll((HashMap<PlankMaterial, BasePlank>) input.readObject());
+        }
     }
 
     @Serial
@@ -347,6 +534,14 @@ public class PlankProblem implements Serializable {
 
         // Internal serial version 3
         output.writeUTF(getProblemName());
+
+        // Internal serial version 4
+        output.writeObject(new ArrayList<>(getBasePlankStock()));
+        output.writeDouble(getBasePlankCost());
+        output.writeObject(getStockSelectionObjective());
+
+        // Internal serial version 5
+        output.writeObject(new HashMap<>(materialBasePlanksProperty()));
     }
 
     public ObservableMap<PlankSolutionCriterion, Double> criterionWeightsProperty() {
@@ -436,77 +631,175 @@ public class PlankProblem implements Serializable {
         problemNameProperty().set(name);
     }
 
-    private static class RemainingBasePlank {
-        /**
-         * {@code true} --> Only vertical candidates are allowed.
-         * {@code false} --> Only horizontal candidates are allowed.
-         * {@code null} --> Both vertical and horizontal candidates are allowed.
-         */
-        private final Boolean restrictToVerticalCandidates;
-        private final BasePlank basePlank;
+    /**
+     * @return Further base planks in addition to {@link #basePlankProperty()} which may be cut for solving this
+     * problem.
+     */
+    public ListProperty<StockedBasePlank> basePlankStockProperty() {
+        return basePlankStock;
+    }
 
-        private RemainingBasePlank(final Boolean restrictToVerticalCandidates, final BasePlank basePlank) {
-            this.restrictToVerticalCandidates = restrictToVerticalCandidates;
-            this.basePlank = basePlank;
-        }
+    public ObservableList<StockedBasePlank> getBasePlankStock() {
+        return basePlankStockProperty().get();
+    }
 
-        public Boolean isRestrictToVerticalCandidates() {
-            return restrictToVerticalCandidates;
-        }
+    public void setBasePlankStock(final ObservableList<StockedBasePlank> basePlankStock) {
+        basePlankStockProperty().set(basePlankStock);
+    }
 
-        public BasePlank getBasePlank() {
-            return basePlank;
+    /**
+     * @return The cost of a single base plank of {@link #basePlankProperty()}.
+     * @see StockedBasePlank#getCost()
+     */
+    public DoubleProperty basePlankCostProperty() {
+        return basePlankCost;
+    }
+
+    public double getBasePlankCost() {
+        return basePlankCostProperty().get();
+    }
+
+    public void setBasePlankCost(final double basePlankCost) {
+        if (basePlankCost < 0) {
+            throw new IllegalArgumentException("The cost of a base plank has to be non-negative");
         }
+        basePlankCostProperty().set(basePlankCost);
     }
 
-    private static class PlankVariationGroup {
-        private final RequiredPlank pivot;
-        private final List<RequiredPlank> variations = new ArrayList<>();
+    public ObjectProperty<StockSelectionObjective> stockSelectionObjectiveProperty() {
+        return stockSelectionObjective;
+    }
 
-        public PlankVariationGroup(final RequiredPlank pivot, final BasePlank basePlank) {
-            this.pivot = pivot;
+    public StockSelectionObjective getStockSelectionObjective() {
+        return stockSelectionObjectiveProperty().get();
+    }
 
-            /* A plank can be placed if either its grain direction the base planks grain direction is irrelevant or
-             * the grain direction matches the base planks grain direction.
-             */
-            if (pivot.matchesGrainDirection(basePlank.getGrainDirection())) {
-                variations.add(pivot);
-            }
-            final RequiredPlank rotatedPivot = pivot.rotated();
-            if (rotatedPivot.matchesGrainDirection(basePlank.getGrainDirection())) {
-                variations.add(pivot.rotated());
-            }
-        }
+    public void setStockSelectionObjective(@NotNull final StockSelectionObjective objective) {
+        stockSelectionObjectiveProperty().set(objective);
+    }
 
-        @Override
-        public boolean equals(final Object other) {
-            boolean isEqual;
-            if (this == other) {
-                isEqual = true;
-            } else if (other == null || getClass() != other.getClass()) {
-                isEqual = false;
-            } else {
-                final PlankVariationGroup that = (PlankVariationGroup) other;
-                isEqual = this.getPivot().equals(that.getPivot());
-            }
-            return isEqual;
-        }
+    /**
+     * @return The base plank to cut the required planks of a certain material out of instead of
+     * {@link #basePlankProperty()} and {@link #basePlankStockProperty()}. Required planks of a material without a
+     * base plank are cut out of the latter. A base plank for {@link PlankMaterial#UNDEFINED} is ignored. The planks
+     * of each material are solved independently and concurrently.
+     * @see RequiredPlank#getMaterial()
+     * @see PlankProblemSnapshot#partitionByMaterial()
+     */
+    public ObservableMap<PlankMaterial, BasePlank> materialBasePlanksProperty() {
+        return materialBasePlanks;
+    }
 
-        @Override
-        public int hashCode() {
-            return getPivot().hashCode();
-        }
+    public ObservableMap<PlankMaterial, BasePlank> getMaterialBasePlanks() {
+        return materialBasePlanksProperty();
+    }
 
-        /**
-         * @return The pivot element which yielded all variations. NOTE It is not necessarily the case that this pivot
-         * is an allowed variation itself.
-         */
-        public RequiredPlank getPivot() {
-            return pivot;
-        }
+    public BasePlank getMaterialBasePlank(final PlankMaterial material) {
+        return materialBasePlanksProperty().get(material);
+    }
 
-        public List<RequiredPlank> getVariations() {
-            return Collections.unmodifiableList(variations);
+    /**
+     * @param basePlank The base plank to cut the required planks of the given material out of. If {@code null} they
+     *                  are cut out of {@link #basePlankProperty()} and {@link #basePlankStockProperty()} again.
+     */
+    public void setMaterialBasePlank(final PlankMaterial material, final BasePlank basePlank) {
+        if (basePlank == null) {
+            materialBasePlanksProperty().remove(material);
+        } else {
+            materialBasePlanksProperty().put(material, basePlank);
         }
     }
+
+    /**
+     * @return The store of offcuts to use before cutting any new base plank. If {@code null} no offcuts are used.
+     * NOTE Changes of the content of the store do not trigger a new solution.
+     */
+    public ObjectProperty<OffcutStore> offcutStoreProperty() {
+        return offcutStore;
+    }
+
+    public OffcutStore getOffcutStore() {
+        return offcutStoreProperty().get();
+    }
+
+    public void setOffcutStore(final OffcutStore offcutStore) {
+        offcutStoreProperty().set(offcutStore);
+    }
+
+    /**
+     * @return Whether a new solution takes over the cutting plans of the current solution which are not affected by
+     * the changes of the inputs. Only the remaining planks are placed anew starting with the first affected cutting
+     * plan. This makes small changes of large problems cheap but the solution may be worse than a solution which is
+     * determined from scratch. Changes of any input other than the required planks and the offcuts always lead to a
+     * solution from scratch.
+     */
+    public BooleanProperty incrementalSolvingProperty() {
+        return incrementalSolving;
+    }
+
+    public boolean isIncrementalSolving() {
+        return incrementalSolvingProperty().get();
+    }
+
+    public void setIncrementalSolving(final boolean incrementalSolving) {
+        incrementalSolvingProperty().set(incrementalSolving);
+    }
+
+    /**
+     * @return The algorithm which determines {@link #proposedSolutionProperty()}. By default this is
+     * {@link GreedyRowCuttingPlanSolver} evaluating candidates concurrently.
+     * @see CuttingPlanSolver#getAvailableSolvers()
+     */
+    public ObjectProperty<CuttingPlanSolver> cuttingPlanSolverProperty() {
+        return cuttingPlanSolver;
+    }
+
+    public CuttingPlanSolver getCuttingPlanSolver() {
+        return cuttingPlanSolverProperty().get();
+    }
+
+    public void setCuttingPlanSolver(@NotNull final CuttingPlanSolver cuttingPlanSolver) {
+        cuttingPlanSolverProperty().set(cuttingPlanSolver);
+    }
+
+    /**
+     * @return The time to spend at most on improving each new solution in the background. The improvement starts as
+     * soon as the solution is proposed and is cancelled by any change of the inputs. A zero duration disables it.
+     * @see AnytimeCuttingPlanOptimizer
+     * @see #stopOptimization()
+     */
+    public ObjectProperty<Duration> optimizationTimeBudgetProperty() {
+        return optimizationTimeBudget;
+    }
+
+    public Duration getOptimizationTimeBudget() {
+        return optimizationTimeBudgetProperty().get();
+    }
+
+    public void setOptimizationTimeBudget(@NotNull final Duration optimizationTimeBudget) {
+        optimizationTimeBudgetProperty().set(optimizationTimeBudget);
+    }
+
+    /**
+     * @return Whether the current solution is being improved in the background.
+     */
+    public ReadOnlyBooleanProperty optimizingProperty() {
+        return optimizing.getReadOnlyProperty();
+    }
+
+    public boolean isOptimizing() {
+        return optimizingProperty().get();
+    }
+
+    /**
+     * @return The report of {@link #proposedSolutionProperty()} which includes how far the solution is at most from
+     * an optimal one. It is updated right before the proposed solution.
+     */
+    public ReadOnlyObjectProperty<SolutionReport> solutionReportProperty() {
+        return solutionReport.getReadOnlyProperty();
+    }
+
+    public SolutionReport getSolutionReport() {
+        return solutionReportProperty().get();
+    }
 }
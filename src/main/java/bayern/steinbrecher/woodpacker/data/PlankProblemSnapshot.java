@@ -0,0 +1,171 @@
+package bayern.steinbrecher.woodpacker.data;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An immutable copy of all inputs of a {@link PlankProblem} which are relevant for determining a solution. In contrast
+ * to {@link PlankProblem} itself a snapshot can safely be passed to threads other than the JavaFX Application Thread.
+ * For this purpose it solely holds copies of the given required planks which are never exposed by the
+ * {@link PlankProblem}. Consecutive snapshots share these copies as long as the planks do not change. Hence, these
+ * copies must not be modified.
+ *
+ * @param basePlank               The {@link BasePlank} the problem is primarily about. May be {@code null}.
+ * @param requiredPlanks          The planks to place. Each plank is replaced by its copies (see
+ *                                {@link RequiredPlank#createCopies()}) such that solvers solely deal with planks of
+ *                                quantity one.
+ * @param criterionWeights        The weight of every {@link PlankSolutionCriterion}.
+ * @param basePlankOversize       The oversize to cut off at each side of the base plank.
+ * @param cuttingWidth            The width of a single cut.
+ * @param basePlankStock          All base planks to place the required planks on. If multiple ones are available the
+ *                                ones earlier in the list are preferred.
+ * @param stockSelectionObjective Determines which of the stocked base planks to cut next.
+ * @param offcuts                 Offcuts of previous cutting plans to place required planks on before cutting any base
+ *                                plank of the stock. They are used in the given order and have no oversize.
+ * @param materialBasePlanks      The base plank to cut the required planks of a certain material out of instead of the
+ *                                stock. See {@link #partitionByMaterial()}.
+ * @author Stefan Huber
+ * @since 0.1
+ */
+public record PlankProblemSnapshot(
+        BasePlank basePlank,
+        Set<RequiredPlank> requiredPlanks,
+        Map<PlankSolutionCriterion, Double> criterionWeights,
+        int basePlankOversize,
+        int cuttingWidth,
+        List<StockedBasePlank> basePlankStock,
+        StockSelectionObjective stockSelectionObjective,
+        List<BasePlank> offcuts,
+        Map<PlankMaterial, BasePlank> materialBasePlanks
+) {
+    /**
+     * Create a snapshot whose stock solely consists of an unlimited number of the given base plank.
+     */
+    public PlankProblemSnapshot(final BasePlank basePlank, final Set<RequiredPlank> requiredPlanks,
+                                final Map<PlankSolutionCriterion, Double> criterionWeights,
+                                final int basePlankOversize, final int cuttingWidth) {
+        this(basePlank, requiredPlanks, criterionWeights, basePlankOversize, cuttingWidth,
+                (basePlank == null)
+                        ? List.of()
+                        : List.of(new StockedBasePlank(basePlank, StockedBasePlank.UNLIMITED_QUANTITY, 0)),
+                StockSelectionObjective.MINIMIZE_WASTE);
+    }
+
+    /**
+     * Create a snapshot which does not use any offcuts.
+     */
+    public PlankProblemSnapshot(final BasePlank basePlank, final Set<RequiredPlank> requiredPlanks,
+                                final Map<PlankSolutionCriterion, Double> criterionWeights,
+                                final int basePlankOversize, final int cuttingWidth,
+                                final List<StockedBasePlank> basePlankStock,
+                                final StockSelectionObjective stockSelectionObjective) {
+        this(basePlank, requiredPlanks, criterionWeights, basePlankOversize, cuttingWidth, basePlankStock,
+                stockSelectionObjective, List.of());
+    }
+
+    public PlankProblemSnapshot(final BasePlank basePlank, final Set<RequiredPlank> requiredPlanks,
+                                final Map<PlankSolutionCriterion, Double> criterionWeights,
+                                final int basePlankOversize, final int cuttingWidth,
+                                final List<StockedBasePlank> basePlankStock,
+                                final StockSelectionObjective stockSelectionObjective,
+                                final List<BasePlank> offcuts) {
+        this(basePlank, requiredPlanks, criterionWeights, basePlankOversize, cuttingWidth, basePlankStock,
+                stockSelectionObjective, offcuts, Map.of());
+    }
+
+    public PlankProblemSnapshot(final BasePlank basePlank, final Set<RequiredPlank> requiredPlanks,
+                                final Map<PlankSolutionCriterion, Double> criterionWeights,
+                                final int basePlankOversize, final int cuttingWidth,
+                                final List<StockedBasePlank> basePlankStock,
+                                final StockSelectionObjective stockSelectionObjective,
+                                final List<BasePlank> offcuts, final Map<PlankMaterial, BasePlank> materialBasePlanks) {
+        this.basePlank = basePlank;
+        final Set<RequiredPlank> requiredPlanksCopy = new HashSet<>();
+        for (final RequiredPlank requiredPlank : requiredPlanks) {
+            requiredPlanksCopy.addAll(requiredPlank.createCopies());
+        }
+        this.requiredPlanks = Collections.unmodifiableSet(requiredPlanksCopy);
+        final Map<PlankSolutionCriterion, Double> weightsCopy = new EnumMap<>(PlankSolutionCriterion.class);
+        for (final PlankSolutionCriterion criterion : PlankSolutionCriterion.values()) {
+            weightsCopy.put(criterion, criterionWeights.get(criterion));
+        }
+        this.criterionWeights = Collections.unmodifiableMap(weightsCopy);
+        this.basePlankOversize = basePlankOversize;
+        this.cuttingWidth = cuttingWidth;
+        this.basePlankStock = List.copyOf(basePlankStock);
+        this.stockSelectionObjective = stockSelectionObjective;
+        this.offcuts = List.copyOf(offcuts);
+        final Map<PlankMaterial, BasePlank> materialBasePlanksCopy = new EnumMap<>(PlankMaterial.class);
+        materialBasePlanksCopy.putAll(materialBasePlanks);
+        // Planks without a material are always cut out of the stock
+        materialBasePlanksCopy.remove(PlankMaterial.UNDEFINED);
+        this.materialBasePlanks = Collections.unmodifiableMap(materialBasePlanksCopy);
+    }
+
+    /**
+     * Split this problem into independent problems, one for each material which has a base plank in
+     * {@link #materialBasePlanks()} and at least one required plank of that material. Such a problem solely consists
+     * of these planks, an unlimited number of the base plank of the material and all offcuts of the material. All
+     * remaining planks and offcuts along with the stock form the problem of {@link PlankMaterial#UNDEFINED}.
+     *
+     * @return The problem of each material ordered by material. If no plank is cut out of a base plank of its material
+     * the map solely maps {@link PlankMaterial#UNDEFINED} to this problem. Otherwise, the problem of
+     * {@link PlankMaterial#UNDEFINED} is omitted if it has no required planks.
+     */
+    public Map<PlankMaterial, PlankProblemSnapshot> partitionByMaterial() {
+        final Map<PlankMaterial, PlankProblemSnapshot> partition = new EnumMap<>(PlankMaterial.class);
+        if (isSplitByMaterial()) {
+            final Map<PlankMaterial, Set<RequiredPlank>> planksPerMaterial = new EnumMap<>(PlankMaterial.class);
+            final Set<RequiredPlank> remainingPlanks = new HashSet<>();
+            for (final RequiredPlank requiredPlank : requiredPlanks()) {
+                if (materialBasePlanks().containsKey(requiredPlank.getMaterial())) {
+                    planksPerMaterial.computeIfAbsent(requiredPlank.getMaterial(), material -> new HashSet<>())
+                            .add(requiredPlank);
+                } else {
+                    remainingPlanks.add(requiredPlank);
+                }
+            }
+
+            final List<BasePlank> remainingOffcuts = new ArrayList<>();
+            for (final BasePlank offcut : offcuts()) {
+                if (!planksPerMaterial.containsKey(offcut.getMaterial())) {
+                    remainingOffcuts.add(offcut);
+                }
+            }
+            for (final Map.Entry<PlankMaterial, Set<RequiredPlank>> entry : planksPerMaterial.entrySet()) {
+                final BasePlank materialBasePlank = materialBasePlanks().get(entry.getKey());
+                final List<BasePlank> materialOffcuts = offcuts()
+                        .stream()
+                        .filter(offcut -> offcut.getMaterial() == entry.getKey())
+                        .toList();
+                partition.put(entry.getKey(), new PlankProblemSnapshot(materialBasePlank, entry.getValue(),
+                        criterionWeights(), basePlankOversize(), cuttingWidth(),
+                        List.of(new StockedBasePlank(materialBasePlank, StockedBasePlank.UNLIMITED_QUANTITY, 0)),
+                        stockSelectionObjective(), materialOffcuts));
+            }
+            if (!remainingPlanks.isEmpty()) {
+                partition.put(PlankMaterial.UNDEFINED, new PlankProblemSnapshot(basePlank(), remainingPlanks,
+                        criterionWeights(), basePlankOversize(), cuttingWidth(), basePlankStock(),
+                        stockSelectionObjective(), remainingOffcuts));
+            }
+        } else {
+            partition.put(PlankMaterial.UNDEFINED, this);
+        }
+        return Collections.unmodifiableMap(partition);
+    }
+
+    /**
+     * @return {@code true} iff at least a single required plank is cut out of the base plank of its material. Only
+     * then {@link #partitionByMaterial()} splits this problem into problems other than this one.
+     */
+    public boolean isSplitByMaterial() {
+        return requiredPlanks()
+                .stream()
+                .anyMatch(requiredPlank -> materialBasePlanks().containsKey(requiredPlank.getMaterial()));
+    }
+}
@@ -13,9 +13,8 @@ public enum PlankSolutionCriterion {
          * The less the breadths of the planks differs the better. Having exactly one breadth is perfect.
          */
         @Override
-        public double getRating(final PlankSolutionRow solutionRow, final PlankProblem plankProblem) {
-            final int numBreadths = solutionRow.getBreadths()
-                    .size();
+        double getRating(final int numPlanks, final int numBreadths, final double areaUtilization,
+                         final int numRequiredPlanks) {
             return (numBreadths > 0) ? (1d / numBreadths) : 0d; // NOPMD - Parenthesis clarify structure
         }
     },
@@ -24,9 +23,9 @@ public enum PlankSolutionCriterion {
          * The more planks in a row the better.
          */
         @Override
-        public double getRating(final PlankSolutionRow solutionRow, final PlankProblem plankProblem) {
-            return ((double) solutionRow.getPlanks().size())
-                    / plankProblem.getRequiredPlanks().size();
+        double getRating(final int numPlanks, final int numBreadths, final double areaUtilization,
+                         final int numRequiredPlanks) {
+            return ((double) numPlanks) / numRequiredPlanks;
         }
     },
     ROW_SPACE_WASTE("rowSpaceWaste") {
@@ -34,8 +33,9 @@ public enum PlankSolutionCriterion {
          * The less space a row wastes when being cut off the better.
          */
         @Override
-        public double getRating(final PlankSolutionRow solutionRow, final PlankProblem plankProblem) {
-            return solutionRow.getAreaUtilization();
+        double getRating(final int numPlanks, final int numBreadths, final double areaUtilization,
+                         final int numRequiredPlanks) {
+            return areaUtilization;
         }
     };
     private final String resourceKey;
@@ -45,14 +45,17 @@ public enum PlankSolutionCriterion {
     }
 
     /**
-     * Rate the given row without considering any weight.
+     * Rate a row solely based on its key figures without considering any weight. This allows rating rows without
+     * creating any {@link PlankSolutionRow}.
      *
-     * @param solutionRow  The {@link PlankSolutionRow} to rate.
-     * @param plankProblem The {@link PlankProblem} the {@link PlankSolutionRow} to rate belongs to.
+     * @param numPlanks         The number of planks in the row.
+     * @param numBreadths       The number of distinct breadths of the planks in the row.
+     * @param areaUtilization   The area utilization of the row (see {@link PlankSolutionRow#getAreaUtilization()}).
+     * @param numRequiredPlanks The number of planks the problem requires in total.
      * @return The returned values area normalized to [0; 1]. The higher the returned value the better the criterion is
      * fulfilled.
      */
-    public abstract double getRating(final PlankSolutionRow solutionRow, final PlankProblem plankProblem);
+    abstract double getRating(int numPlanks, int numBreadths, double areaUtilization, int numRequiredPlanks);
 
     public String getResourceKey() {
         return resourceKey;
@@ -2,8 +2,10 @@ package bayern.steinbrecher.woodpacker.data;
 
 import javafx.geometry.Point2D;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.List;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
@@ -23,6 +25,7 @@ public class PlankSolutionRow {
     private final SortedSet<RequiredPlank> planks;
     private int currentLength;
     private int currentBreadth;
+    private int utilizedArea;
 
     /**
      * @param startOffset        The position in the base plank space of the left upper corner
@@ -42,24 +45,16 @@ public class PlankSolutionRow {
         // FIXME Is this additional sorting required?
         // If horizontal row sort by height descending; otherwise sort by width descending
         final Function<Plank, Integer> compareMethod = isAddingHorizontally() ? Plank::getHeight : Plank::getWidth;
-        final Comparator<Plank> descendingBreadthComparator = (pA, pB) -> {
+        final Comparator<RequiredPlank> descendingBreadthComparator = (pA, pB) -> {
             final int diff = compareMethod.apply(pB) - compareMethod.apply(pA);
             /* NOTE The IDs of the planks have to be considered since otherwise the sorted set of planks could not
              * contain planks of the same size.
              */
-            return (diff == 0) ? pA.getPlankId().compareTo(pB.getPlankId()) : diff;
+            return (diff == 0) ? RequiredPlank.ID_ORDER.compare(pA, pB) : diff;
         };
         this.planks = new TreeSet<>(descendingBreadthComparator);
     }
 
-    public PlankSolutionRow(final PlankSolutionRow toCopy) {
-        this(toCopy.getStartOffset(), toCopy.isAddingHorizontally(), toCopy.getMaxLength(), toCopy.getMaxBreadth(),
-                toCopy.getCuttingWidth());
-        currentBreadth = toCopy.getCurrentBreadth();
-        currentLength = toCopy.getCurrentLength();
-        planks.addAll(toCopy.getPlanks());
-    }
-
     public Point2D getStartOffset() {
         return startOffset;
     }
@@ -80,6 +75,25 @@ public class PlankSolutionRow {
         return Collections.unmodifiableSet(planks);
     }
 
+    /**
+     * @return The planks of this row in the order they are placed together with their positions in the base plank
+     * space.
+     */
+    public List<PlacedPlank> getPlacedPlanks() {
+        final List<PlacedPlank> placedPlanks = new ArrayList<>(planks.size());
+        double plankToRowXOffset = 0;
+        double plankToRowYOffset = 0;
+        for (final RequiredPlank plank : planks) {
+            placedPlanks.add(new PlacedPlank(plank, getStartOffset().add(plankToRowXOffset, plankToRowYOffset)));
+            if (isAddingHorizontally()) {
+                plankToRowXOffset += plank.getWidth() + getCuttingWidth();
+            } else {
+                plankToRowYOffset += plank.getHeight() + getCuttingWidth();
+            }
+        }
+        return placedPlanks;
+    }
+
     public int getCurrentLength() {
         return currentLength;
     }
@@ -93,25 +107,32 @@ public class PlankSolutionRow {
     }
 
     /**
-     * When cutting a plank one has to cut through the complete base plank. The area utilization describes how much of
-     * the cut off plank consists of actually to be used planks.
-     *
-     * @return The area utilization in [0; 1]
+     * @return The sum of the areas of all planks in this row.
      */
-    public double getAreaUtilization() {
-        final int cutOffArea = getCurrentBreadth() * getMaxLength();
+    public int getUtilizedArea() {
+        return utilizedArea;
+    }
+
+    static double calculateAreaUtilization(final int utilizedArea, final int cutOffArea) {
         double areaUtilization;
         if (cutOffArea <= 0) {
             areaUtilization = 0d;
         } else {
-            final int utilizedArea = planks.stream()
-                    .mapToInt(RequiredPlank::getArea)
-                    .sum();
             areaUtilization = ((double) utilizedArea) / cutOffArea;
         }
         return areaUtilization;
     }
 
+    /**
+     * When cutting a plank one has to cut through the complete base plank. The area utilization describes how much of
+     * the cut off plank consists of actually to be used planks.
+     *
+     * @return The area utilization in [0; 1]
+     */
+    public double getAreaUtilization() {
+        return calculateAreaUtilization(getUtilizedArea(), getCurrentBreadth() * getMaxLength());
+    }
+
     private int getPlankLength(final Plank plank) {
         return isAddingHorizontally() ? plank.getWidth() : plank.getHeight();
     }
@@ -147,6 +168,7 @@ public class PlankSolutionRow {
             }
             currentLength = getCurrentLength() + getPlankLength(plank);
             currentBreadth = Math.max(getCurrentBreadth(), getPlankBreadth(plank));
+            utilizedArea += plank.getArea();
 
             final boolean addedPlank = planks.add(plank);
             assert addedPlank : String.format(
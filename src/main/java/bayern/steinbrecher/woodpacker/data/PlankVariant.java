@@ -0,0 +1,55 @@
+package bayern.steinbrecher.woodpacker.data;
+
+/**
+ * A compact representation of a {@link RequiredPlank} in one of the orientations it may be placed in. It is used by
+ * {@link GreedyCuttingPlanSolver} while evaluating candidates such that no {@link RequiredPlank} has to be created for
+ * any orientation which is never placed.
+ *
+ * @param plankIndex     The index of the required plank in the problem. The order of the indices equals the order of
+ *                       the IDs of the required planks.
+ * @param width          The width of the plank in this orientation.
+ * @param height         The height of the plank in this orientation.
+ * @param grainDirection The grain direction of the plank in this orientation.
+ * @param rotated        {@code true} iff this orientation is rotated by 90° compared to the required plank.
+ * @author Stefan Huber
+ * @since 0.1
+ */
+record PlankVariant(
+        int plankIndex,
+        int width,
+        int height,
+        PlankGrainDirection grainDirection,
+        boolean rotated
+) {
+    /**
+     * @see RequiredPlank#rotated()
+     */
+    public PlankVariant rotate() {
+        final PlankGrainDirection rotatedGrainDirection = switch (grainDirection()) {
+            case HORIZONTAL -> PlankGrainDirection.VERTICAL;
+            case VERTICAL -> PlankGrainDirection.HORIZONTAL;
+            case IRRELEVANT -> PlankGrainDirection.IRRELEVANT;
+        };
+        return new PlankVariant(plankIndex(), height(), width(), rotatedGrainDirection, !rotated());
+    }
+
+    /**
+     * @return This orientation for another plank of the same shape.
+     */
+    public PlankVariant withPlankIndex(final int otherPlankIndex) {
+        return new PlankVariant(otherPlankIndex, width(), height(), grainDirection(), rotated());
+    }
+
+    public int getArea() {
+        return width() * height();
+    }
+
+    /**
+     * @see Plank#matchesGrainDirection(PlankGrainDirection)
+     */
+    public boolean matchesGrainDirection(final PlankGrainDirection direction) {
+        return direction == PlankGrainDirection.IRRELEVANT
+                || grainDirection() == PlankGrainDirection.IRRELEVANT
+                || grainDirection() == direction;
+    }
+}
@@ -1,5 +1,6 @@
 package bayern.steinbrecher.woodpacker.data;
 
+import javafx.beans.InvalidationListener;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.SetProperty;
@@ -12,7 +13,10 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serial;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -23,7 +27,14 @@ import java.util.stream.Collectors;
 public class RequiredPlank extends Plank {
     @Serial
     private static final long serialVersionUID = 98072354127L;
-    private static final long INTERNAL_SERIAL_VERSION = 2L;
+    private static final long INTERNAL_SERIAL_VERSION = 4L;
+    private static final String COPY_ID_FORMAT = "%s #%d";
+    /**
+     * Orders planks by their IDs. Copies sharing their ID with another plank (see {@link #createCopies()}) are ordered
+     * by their copy index.
+     */
+    static final Comparator<RequiredPlank> ID_ORDER = Comparator.comparing(RequiredPlank::getPlankId)
+            .thenComparingInt(RequiredPlank::getCopyIndex);
 
     // Since internal serial version 1
     // FIXME Should there be a subclass of RequiredPlank like PlacedPlank containing the following additional property?
@@ -34,10 +45,35 @@ public class RequiredPlank extends Plank {
     private transient /*final*/ SetProperty<EdgeBand> edgeBands;
     private transient /*final*/ IntegerProperty edgeBandThickness;
 
+    // Since internal serial version 3
+    private /*final*/ int quantity;
+
+    // Since internal serial version 4
+    private /*final*/ PlankMaterial material;
+
+    /**
+     * The plank this plank is a copy of (see {@link #createCopies()}) or {@code null} if it is no copy.
+     */
+    private transient /*final*/ RequiredPlank original;
+    /**
+     * The number of this plank among the copies of {@link #original} starting at one or zero if it is no copy.
+     */
+    private transient /*final*/ int copyIndex;
+
+    /**
+     * The rotated variant of this plank which is created lazily by {@link #rotated()}. Since the ID, the dimensions
+     * and the grain direction of a plank never change it is solely invalidated whenever the edge bands change.
+     */
+    private transient volatile RequiredPlank rotatedPlank;
+    /**
+     * The copies of this plank which are created lazily by {@link #createCopies()}. They are invalidated together with
+     * {@link #rotatedPlank} such that consecutive snapshots share the copies and the rotated variants of the copies.
+     */
+    private transient volatile List<RequiredPlank> copies;
+
     public RequiredPlank(final String plankId, final int width, final int height,
                          final PlankGrainDirection grainDirection) {
-        super(plankId, width, height, grainDirection);
-        initializeTransientMember();
+        this(plankId, width, height, grainDirection, "");
     }
 
     public RequiredPlank(final String plankId, final int width, final int height,
@@ -48,20 +84,67 @@ public class RequiredPlank extends Plank {
     public RequiredPlank(final String plankId, final int width, final int height,
                          final PlankGrainDirection grainDirection, final String comment,
                          final Set<EdgeBand> edgeBands, final int edgeBandThickness) {
+        this(plankId, width, height, grainDirection, comment, edgeBands, edgeBandThickness, 1);
+    }
+
+    /**
+     * @param quantity The number of identical planks to cut out. Must be positive.
+     */
+    public RequiredPlank(final String plankId, final int width, final int height,
+                         final PlankGrainDirection grainDirection, final String comment,
+                         final Set<EdgeBand> edgeBands, final int edgeBandThickness, final int quantity) {
+        this(plankId, width, height, grainDirection, comment, edgeBands, edgeBandThickness, quantity,
+                PlankMaterial.UNDEFINED);
+    }
+
+    /**
+     * @param quantity The number of identical planks to cut out. Must be positive.
+     * @param material The material to cut the plank out of. {@link PlankMaterial#UNDEFINED} if the plank may be cut
+     *                 out of the base plank of the problem regardless of its material.
+     * @see PlankProblem#materialBasePlanksProperty()
+     */
+    public RequiredPlank(final String plankId, final int width, final int height,
+                         final PlankGrainDirection grainDirection, final String comment,
+                         final Set<EdgeBand> edgeBands, final int edgeBandThickness, final int quantity,
+                         final PlankMaterial material) {
         super(plankId, width, height, grainDirection, comment);
         initializeTransientMember();
 
         this.edgeBands.addAll(edgeBands);
         this.edgeBandThickness.set(edgeBandThickness);
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity has to be positive");
+        }
+        this.quantity = quantity;
+        this.material = material;
     }
 
     private void initializeTransientMember() {
         placedInSolution = new SimpleBooleanProperty(false);
         edgeBands = new SimpleSetProperty<>(FXCollections.observableSet());
         edgeBandThickness = new SimpleIntegerProperty();
+        final InvalidationListener derivedPlanksInvalidator = observable -> {
+            rotatedPlank = null;
+            copies = null;
+        };
+        edgeBands.addListener(derivedPlanksInvalidator);
+        edgeBandThickness.addListener(derivedPlanksInvalidator);
     }
 
+    /**
+     * @return This plank rotated by 90° clockwise including its edge bands. The rotated plank is created only once and
+     * reused until the edge bands of this plank change. Hence, the returned plank must not be modified.
+     */
     public RequiredPlank rotated() {
+        RequiredPlank rotated = rotatedPlank;
+        if (rotated == null) {
+            rotated = createRotated();
+            rotatedPlank = rotated;
+        }
+        return rotated;
+    }
+
+    private RequiredPlank createRotated() {
         final PlankGrainDirection rotatedGrainDirection = switch (getGrainDirection()) {
             case HORIZONTAL -> PlankGrainDirection.VERTICAL;
             case VERTICAL -> PlankGrainDirection.HORIZONTAL;
@@ -78,22 +161,91 @@ public class RequiredPlank extends Plank {
                         }
                 )
                 .collect(Collectors.toSet());
-        return new RequiredPlank(getPlankId(), getHeight(), getWidth(), rotatedGrainDirection, getComment(),
-                rotatedEdgeBands, getEdgeBandThickness());
+        final RequiredPlank rotated = new RequiredPlank(getPlankId(), getHeight(), getWidth(), rotatedGrainDirection,
+                getComment(), rotatedEdgeBands, getEdgeBandThickness(), getQuantity(), getMaterial());
+        // A rotated copy has to stay equal to the copy
+        rotated.original = original;
+        rotated.copyIndex = copyIndex;
+        return rotated;
+    }
+
+    /**
+     * @return A plank of quantity one for each plank to cut out. If the quantity of this plank is one the list solely
+     * contains a copy with the same ID. Otherwise, the copies are numbered like {@code "<ID> #1"}, {@code "<ID> #2"},
+     * etc. Hence, copies keep their IDs if the quantity changes. The copies do not reflect later changes of this plank
+     * and changing them does not affect this plank. A copy is never equal to a plank which is no copy even if the user
+     * chose the same ID for it. The copies are created only once and reused until the edge bands of this plank change.
+     * Hence, the returned planks must not be modified. Copying a copy of quantity one returns the copy itself.
+     */
+    public List<RequiredPlank> createCopies() {
+        List<RequiredPlank> currentCopies = copies;
+        if (currentCopies == null) {
+            if (getQuantity() == 1) {
+                currentCopies = (original == null)
+                        ? List.of(createCopy(getPlankId(), 0))
+                        : List.of(this);
+            } else {
+                final List<RequiredPlank> numberedCopies = new ArrayList<>(getQuantity());
+                for (int i = 1; i <= getQuantity(); i++) {
+                    numberedCopies.add(createCopy(String.format(COPY_ID_FORMAT, getPlankId(), i), i));
+                }
+                currentCopies = List.copyOf(numberedCopies);
+            }
+            copies = currentCopies;
+        }
+        return currentCopies;
+    }
+
+    private RequiredPlank createCopy(final String copyId, final int copyIndex) {
+        final RequiredPlank copy = new RequiredPlank(copyId, getWidth(), getHeight(), getGrainDirection(),
+                getComment(), getEdgeBands(), getEdgeBandThickness(), 1, getMaterial());
+        copy.original = getOriginal();
+        copy.copyIndex = copyIndex;
+        return copy;
+    }
+
+    /**
+     * @return The plank this plank was copied from by {@link #createCopies()} or this plank itself if it is no copy. If
+     * this plank was copied from a copy the plank the first copy was created from is returned.
+     */
+    RequiredPlank getOriginal() {
+        return (original == null) ? this : original;
+    }
+
+    /**
+     * @return The number of this plank among the copies of its original starting at one or zero if it is no copy.
+     * @see #createCopies()
+     */
+    int getCopyIndex() {
+        return copyIndex;
     }
 
     public int getArea() {
         return getHeight() * getWidth();
     }
 
+    @Override
+    public boolean equals(final Object other) {
+        return super.equals(other) && copyIndex == ((RequiredPlank) other).copyIndex;
+    }
+
+    @Override
+    public int hashCode() {
+        // Planks which are no copies keep the hash of their ID
+        return (copyIndex == 0) ? super.hashCode() : 31 * super.hashCode() + copyIndex;
+    }
+
     @Override
     public String toString() {
         String plankDescription;
-        if (getComment() == null || getComment().isBlank()) {
+        if (getQuantity() == 1) {
             plankDescription = String.format("\"%s\": %d [mm] x %d [mm]", getPlankId(), getWidth(), getHeight());
         } else {
-            plankDescription = String.format("\"%s\": %d [mm] x %d [mm]\n%s",
-                    getPlankId(), getWidth(), getHeight(), getComment());
+            plankDescription = String.format("%d x \"%s\": %d [mm] x %d [mm]",
+                    getQuantity(), getPlankId(), getWidth(), getHeight());
+        }
+        if (getComment() != null && !getComment().isBlank()) {
+            plankDescription += "\n" + getComment();
         }
         return plankDescription;
     }
@@ -115,6 +267,20 @@ public class RequiredPlank extends Plank {
         } else {
             edgeBandsProperty().clear();
         }
+
+        // Internal serial version 3
+        if (inputSerialVersion >= 3) {
+            quantity = input.readInt();
+        } else {
+            quantity = 1;
+        }
+
+        // Internal serial version 4
+        if (inputSerialVersion >= 4) {
+            material = (PlankMaterial) input.readObject();
+        } else {
+            material = PlankMaterial.UNDEFINED;
+        }
     }
 
     @Serial
@@ -127,6 +293,12 @@ public class RequiredPlank extends Plank {
         // Internal serial version 2
         output.writeObject(new HashSet<>(getEdgeBands()));
         output.writeInt(getEdgeBandThickness());
+
+        // Internal serial version 3
+        output.writeInt(getQuantity());
+
+        // Internal serial version 4
+        output.writeObject(getMaterial());
     }
 
     public BooleanProperty placedInSolutionProperty() {
@@ -154,6 +326,20 @@ public class RequiredPlank extends Plank {
         edgeBandsProperty().addAll(edgeBands);
     }
 
+    /**
+     * @return The number of identical planks to cut out.
+     */
+    public int getQuantity() {
+        return quantity;
+    }
+
+    /**
+     * @return The material to cut the plank out of.
+     */
+    public PlankMaterial getMaterial() {
+        return material;
+    }
+
     public IntegerProperty edgeBandThicknessProperty() {
         return edgeBandThickness;
     }
@@ -0,0 +1,312 @@
+package bayern.steinbrecher.woodpacker.data;
+
+import javafx.geometry.Point2D;
+import javafx.util.Pair;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+
+/**
+ * The base of solvers which place each plank individually instead of assembling rows. Subclasses solely decide where
+ * to place planks on a single base plank. Filling one base plank after another, using offcuts first and choosing the
+ * stocked base plank according to the {@link StockSelectionObjective} of the problem is the same for all of them.
+ * These solvers ignore the {@link PlankSolutionCriterion}s of a problem. Each placed plank forms a
+ * {@link PlankSolutionRow} of its own.
+ * <p>
+ * The cutting width is handled by enlarging each plank as well as the base plank by the cutting width at its right and
+ * its lower side. Hence, subclasses place planks without any gap and still there is enough space for each cut.
+ *
+ * @author Stefan Huber
+ * @since 0.1
+ */
+abstract class SheetPackingSolver implements CuttingPlanSolver {
+    /**
+     * Larger planks are placed first. Planks of the same area are ordered by their IDs.
+     */
+    static final Comparator<RequiredPlank> PLACEMENT_ORDER
+            = Comparator.comparingInt(RequiredPlank::getArea)
+            .reversed()
+            .thenComparing(RequiredPlank.ID_ORDER);
+    private static final Comparator<Offcut> OFFCUT_ORDER
+            = Comparator.comparingDouble((Offcut offcut) -> offcut.position().getY())
+            .thenComparingDouble(offcut -> offcut.position().getX());
+
+    /**
+     * Place as many of the given planks as possible on a single sheet.
+     *
+     * @param sheetWidth    The width of the sheet including the cutting width.
+     * @param sheetHeight   The height of the sheet including the cutting width.
+     * @param plankVariants For each plank all orientations it may be placed in ordered by the priority of the planks.
+     *                      The dimensions of the variants include the cutting width.
+     * @return The positions of the placed planks and the areas of the sheet which remain free in the sheet space. Each
+     * plank is placed at most once. The remaining areas must not overlap. They may be incomplete if a subclass is not
+     * able to describe them as non-overlapping rectangles.
+     */
+    abstract SheetLayout packSheet(int sheetWidth, int sheetHeight, List<List<PlankVariant>> plankVariants);
+
+    /**
+     * @param rotatedFirst Whether the rotated orientation of the plank is preferred in case both orientations are
+     *                     equally good.
+     */
+    static List<PlankVariant> createVariants(final RequiredPlank plank, final int plankIndex, final int cuttingWidth,
+                                             final PlankGrainDirection basePlankGrainDirection,
+                                             final boolean rotatedFirst) {
+        final PlankVariant variant = new PlankVariant(plankIndex, plank.getWidth() + cuttingWidth,
+                plank.getHeight() + cuttingWidth, plank.getGrainDirection(), false);
+        final List<PlankVariant> variants = new ArrayList<>(2);
+        final List<PlankVariant> orientations
+                = rotatedFirst ? List.of(variant.rotate(), variant) : List.of(variant, variant.rotate());
+        for (final PlankVariant orientation : orientations) {
+            if (orientation.matchesGrainDirection(basePlankGrainDirection)) {
+                variants.add(orientation);
+            }
+        }
+        return variants;
+    }
+
+    /**
+     * @param planks       The planks to place ordered by their priority.
+     * @param rotatedFirst Which of the planks prefer being rotated in case both orientations are equally good.
+     * @param placed       Which of the planks are already placed. The planks of the returned plan are not marked as
+     *                     placed.
+     * @return The resulting cutting plan. It has no rows if not a single plank fits onto the base plank.
+     */
+    private CuttingPlan fillBasePlank(final PlankProblemSnapshot problem, final BasePlank basePlank,
+                                      final int basePlankOversize, final RequiredPlank[] planks,
+                                      final boolean[] rotatedFirst, final boolean[] placed) {
+        final int cuttingWidth = problem.cuttingWidth();
+        final int usableWidth = basePlank.getWidth() - 2 * basePlankOversize;
+        final int usableHeight = basePlank.getHeight() - 2 * basePlankOversize;
+        CuttingPlan cuttingPlan;
+        if (usableWidth > 0 && usableHeight > 0) {
+            final List<List<PlankVariant>> plankVariants = new ArrayList<>();
+            for (int i = 0; i < planks.length; i++) {
+                if (!placed[i]) {
+                    final List<PlankVariant> variants
+                            = createVariants(planks[i], i, cuttingWidth, basePlank.getGrainDirection(),
+                            rotatedFirst[i]);
+                    if (!variants.isEmpty()) {
+                        plankVariants.add(variants);
+                    }
+                }
+            }
+            final SheetLayout layout
+                    = packSheet(usableWidth + cuttingWidth, usableHeight + cuttingWidth, plankVariants);
+            cuttingPlan = createCuttingPlan(basePlank, basePlankOversize, cuttingWidth, planks, layout);
+        } else {
+            cuttingPlan = new CuttingPlan(List.of(), basePlank, basePlankOversize, List.of());
+        }
+        return cuttingPlan;
+    }
+
+    /**
+     * @param planks The planks the {@link PlankVariant#plankIndex()} of the placements refers to.
+     * @param layout The placements on the usable area of the base plank whose dimensions include the cutting width.
+     * @return The cutting plan which places the planks as described by the given layout.
+     */
+    static CuttingPlan createCuttingPlan(final BasePlank basePlank, final int basePlankOversize,
+                                         final int cuttingWidth, final RequiredPlank[] planks,
+                                         final SheetLayout layout) {
+        final List<PlankSolutionRow> rows = new ArrayList<>();
+        final List<Placement> placements = new ArrayList<>(layout.placements());
+        placements.sort(Comparator.comparingInt(Placement::y)
+                .thenComparingInt(Placement::x));
+        for (final Placement placement : placements) {
+            final RequiredPlank requiredPlank = planks[placement.variant().plankIndex()];
+            final RequiredPlank plank = placement.variant().rotated() ? requiredPlank.rotated() : requiredPlank;
+            final PlankSolutionRow row = new PlankSolutionRow(
+                    new Point2D(basePlankOversize + placement.x(), basePlankOversize + placement.y()), true,
+                    plank.getWidth() + cuttingWidth, plank.getHeight(), cuttingWidth);
+            final boolean added = row.addPlank(plank);
+            assert added : "A row does not accept the single plank it was created for";
+            rows.add(row);
+        }
+
+        final List<Offcut> offcuts = new ArrayList<>();
+        for (final FreeArea area : layout.remainingAreas()) {
+            final int remnantWidth = area.width() - cuttingWidth;
+            final int remnantHeight = area.height() - cuttingWidth;
+            if (remnantWidth > 0 && remnantHeight > 0) {
+                offcuts.add(new Offcut(new BasePlank(basePlank.getPlankId(), remnantWidth, remnantHeight,
+                        basePlank.getGrainDirection(), basePlank.getMaterial(), basePlank.getComment()),
+                        new Point2D(basePlankOversize + area.x(), basePlankOversize + area.y())));
+            }
+        }
+        offcuts.sort(OFFCUT_ORDER);
+        return new CuttingPlan(rows, basePlank, basePlankOversize, offcuts);
+    }
+
+    private static void markPlaced(final CuttingPlan cuttingPlan, final RequiredPlank[] planks,
+                                   final boolean[] placed) {
+        final Set<RequiredPlank> placedPlanks = new HashSet<>();
+        for (final PlankSolutionRow row : cuttingPlan.getRows()) {
+            placedPlanks.addAll(row.getPlanks());
+        }
+        for (int i = 0; i < planks.length; i++) {
+            placed[i] |= placedPlanks.contains(planks[i]);
+        }
+    }
+
+    private static boolean isAnyUnplaced(final boolean[] placed) {
+        boolean anyUnplaced = false;
+        for (int i = 0; i < placed.length && !anyUnplaced; i++) {
+            anyUnplaced = !placed[i];
+        }
+        return anyUnplaced;
+    }
+
+    /**
+     * @return The next cutting plan together with the index of the stocked base plank it is cut out of or {@code null}
+     * if no unplaced plank fits on any of the available base planks.
+     */
+    private Pair<CuttingPlan, Integer> determineNextCuttingPlan(
+            final PlankProblemSnapshot problem, final int[] remainingQuantities, final RequiredPlank[] planks,
+            final boolean[] rotatedFirst, final boolean[] placed) {
+        final List<StockedBasePlank> stock = problem.basePlankStock();
+        Pair<CuttingPlan, Integer> bestCuttingPlan = null;
+        double bestRating = Double.NEGATIVE_INFINITY;
+        long bestPlacedArea = 0;
+        for (int i = 0; i < stock.size(); i++) {
+            if (remainingQuantities[i] != 0) {
+                final CuttingPlan cuttingPlan = fillBasePlank(
+                        problem, stock.get(i).getBasePlank(), problem.basePlankOversize(), planks, rotatedFirst,
+                        placed);
+                if (!cuttingPlan.getRows().isEmpty()) {
+                    final long placedArea = cuttingPlan.getRows()
+                            .stream()
+                            .mapToLong(PlankSolutionRow::getUtilizedArea)
+                            .sum();
+                    final double rating = problem.stockSelectionObjective().getRating(stock.get(i), placedArea);
+                    // On equally good plans prefer base planks which are earlier in the stock
+                    if (bestCuttingPlan == null
+                            || StockSelectionObjective.isBetter(rating, placedArea, bestRating, bestPlacedArea)) {
+                        bestCuttingPlan = new Pair<>(cuttingPlan, i);
+                        bestRating = rating;
+                        bestPlacedArea = placedArea;
+                    }
+                }
+            }
+        }
+        return bestCuttingPlan;
+    }
+
+    @Override
+    public Pair<Collection<CuttingPlan>, Set<RequiredPlank>> solve(final PlankProblemSnapshot problem) {
+        final RequiredPlank[] planks = problem.requiredPlanks()
+                .stream()
+                .sorted(PLACEMENT_ORDER)
+                .toArray(RequiredPlank[]::new);
+        return solve(problem, planks, new boolean[planks.length]);
+    }
+
+    /**
+     * Place the planks in the given order instead of placing larger planks first.
+     *
+     * @param planks       All required planks of the problem ordered by the priority they are placed with.
+     * @param rotatedFirst Which of the planks prefer being rotated in case both orientations are equally good.
+     * @see #solve(PlankProblemSnapshot)
+     */
+    Pair<Collection<CuttingPlan>, Set<RequiredPlank>> solve(
+            final PlankProblemSnapshot problem, final RequiredPlank[] planks, final boolean[] rotatedFirst) {
+        final boolean[] placed = new boolean[planks.length];
+        final Collection<CuttingPlan> cuttingPlans = new ArrayList<>();
+
+        // Use up offcuts before cutting any new base plank
+        for (final BasePlank offcut : problem.offcuts()) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new CancellationException("The solver was interrupted before a solution was found");
+            }
+            if (isAnyUnplaced(placed)) {
+                final CuttingPlan cuttingPlan = fillBasePlank(problem, offcut, 0, planks, rotatedFirst, placed);
+                if (!cuttingPlan.getRows().isEmpty()) {
+                    cuttingPlans.add(cuttingPlan);
+                    markPlaced(cuttingPlan, planks, placed);
+                }
+            }
+        }
+
+        final int[] remainingQuantities = problem.basePlankStock()
+                .stream()
+                .mapToInt(StockedBasePlank::getQuantity)
+                .toArray();
+        boolean potentialForMorePlacements = true;
+        while (isAnyUnplaced(placed) && potentialForMorePlacements) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new CancellationException("The solver was interrupted before a solution was found");
+            }
+            final Pair<CuttingPlan, Integer> nextCuttingPlan
+                    = determineNextCuttingPlan(problem, remainingQuantities, planks, rotatedFirst, placed);
+            if (nextCuttingPlan == null) {
+                // No unplaced plank fits on any of the available base planks
+                potentialForMorePlacements = false;
+            } else {
+                cuttingPlans.add(nextCuttingPlan.getKey());
+                markPlaced(nextCuttingPlan.getKey(), planks, placed);
+                final int stockIndex = nextCuttingPlan.getValue();
+                if (remainingQuantities[stockIndex] != StockedBasePlank.UNLIMITED_QUANTITY) {
+                    remainingQuantities[stockIndex]--;
+                }
+            }
+        }
+
+        final Set<RequiredPlank> ignoredPlanks = new HashSet<>();
+        for (int i = 0; i < planks.length; i++) {
+            if (!placed[i]) {
+                ignoredPlanks.add(planks[i]);
+            }
+        }
+        return new Pair<>(cuttingPlans, ignoredPlanks);
+    }
+
+    /**
+     * @param variant The orientation of the plank including the cutting width.
+     * @param x       The x coordinate of the left upper corner in the sheet space.
+     * @param y       The y coordinate of the left upper corner in the sheet space.
+     */
+    record Placement(
+            PlankVariant variant,
+            int x,
+            int y
+    ) {
+    }
+
+    /**
+     * A rectangular area of a sheet in the sheet space.
+     */
+    record FreeArea(
+            int x,
+            int y,
+            int width,
+            int height
+    ) {
+        public boolean canContain(final PlankVariant variant) {
+            return variant.width() <= width() && variant.height() <= height();
+        }
+
+        public boolean contains(final FreeArea other) {
+            return x() <= other.x() && y() <= other.y()
+                    && other.x() + other.width() <= x() + width()
+                    && other.y() + other.height() <= y() + height();
+        }
+
+        public boolean intersects(final Placement placement) {
+            return placement.x() < x() + width() && x() < placement.x() + placement.variant().width()
+                    && placement.y() < y() + height() && y() < placement.y() + placement.variant().height();
+        }
+    }
+
+    /**
+     * @param placements     The positions of all planks which are placed on the sheet.
+     * @param remainingAreas The non-overlapping areas of the sheet which are not covered by any plank.
+     */
+    record SheetLayout(
+            List<Placement> placements,
+            List<FreeArea> remainingAreas
+    ) {
+    }
+}
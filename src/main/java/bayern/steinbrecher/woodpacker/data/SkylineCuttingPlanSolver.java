@@ -0,0 +1,108 @@
+package bayern.steinbrecher.woodpacker.data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Places planks using the skyline algorithm. It solely keeps track of the lower border of all placed planks (the
+ * skyline) and places each plank such that its lower border is as high as possible. Among these positions the one
+ * closest to the left is chosen. It is the fastest solver but wastes the space which is enclosed below the skyline.
+ * The resulting cutting plans may not be cuttable with guillotine cuts only. Hence, no offcuts are reported.
+ *
+ * @author Stefan Huber
+ * @since 0.1
+ */
+public final class SkylineCuttingPlanSolver extends SheetPackingSolver {
+    public static final String SOLVER_ID = "skyline";
+
+    @Override
+    public String getSolverId() {
+        return SOLVER_ID;
+    }
+
+    /**
+     * @return The y coordinate of a plank of the given width if its left upper corner is placed at the start of the
+     * given segment. {@code -1} if the plank would exceed the sheet.
+     */
+    private static int determineYPos(final List<Segment> skyline, final int segmentIndex, final int plankWidth,
+                                     final int sheetWidth) {
+        final int xPos = skyline.get(segmentIndex).x();
+        int yPos = -1;
+        if (xPos + plankWidth <= sheetWidth) {
+            yPos = 0;
+            for (int i = segmentIndex; i < skyline.size() && skyline.get(i).x() < xPos + plankWidth; i++) {
+                yPos = Math.max(yPos, skyline.get(i).y());
+            }
+        }
+        return yPos;
+    }
+
+    private static void addToSkyline(final List<Segment> skyline, final int segmentIndex, final Placement placement) {
+        final int placementRight = placement.x() + placement.variant().width();
+        skyline.add(segmentIndex, new Segment(placement.x(), placement.y() + placement.variant().height(),
+                placement.variant().width()));
+
+        // Shrink or remove all segments which are covered by the new one
+        int i = segmentIndex + 1;
+        while (i < skyline.size() && skyline.get(i).x() < placementRight) {
+            final Segment segment = skyline.get(i);
+            final int segmentRight = segment.x() + segment.width();
+            if (segmentRight <= placementRight) {
+                skyline.remove(i);
+            } else {
+                skyline.set(i, new Segment(placementRight, segment.y(), segmentRight - placementRight));
+                i++;
+            }
+        }
+
+        // Merge neighbouring segments at the same height
+        for (int j = skyline.size() - 1; j > 0; j--) {
+            final Segment previous = skyline.get(j - 1);
+            final Segment current = skyline.get(j);
+            if (previous.y() == current.y()) {
+                skyline.set(j - 1, new Segment(previous.x(), previous.y(), previous.width() + current.width()));
+                skyline.remove(j);
+            }
+        }
+    }
+
+    @Override
+    SheetLayout packSheet(final int sheetWidth, final int sheetHeight, final List<List<PlankVariant>> plankVariants) {
+        final List<Segment> skyline = new ArrayList<>();
+        skyline.add(new Segment(0, 0, sheetWidth));
+        final List<Placement> placements = new ArrayList<>();
+        for (final List<PlankVariant> variants : plankVariants) {
+            Placement bestPlacement = null;
+            int bestSegmentIndex = -1;
+            int bestBottom = Integer.MAX_VALUE;
+            for (int i = 0; i < skyline.size(); i++) {
+                for (final PlankVariant variant : variants) {
+                    final int yPos = determineYPos(skyline, i, variant.width(), sheetWidth);
+                    final int bottom = yPos + variant.height();
+                    if (yPos >= 0 && bottom <= sheetHeight && bottom < bestBottom) {
+                        bestPlacement = new Placement(variant, skyline.get(i).x(), yPos);
+                        bestSegmentIndex = i;
+                        bestBottom = bottom;
+                    }
+                }
+            }
+            if (bestPlacement != null) {
+                placements.add(bestPlacement);
+                addToSkyline(skyline, bestSegmentIndex, bestPlacement);
+            }
+        }
+        return new SheetLayout(placements, List.of());
+    }
+
+    /**
+     * A horizontal part of the skyline.
+     *
+     * @param y The y coordinate of the lower border of the planks which are placed above this segment.
+     */
+    private record Segment(
+            int x,
+            int y,
+            int width
+    ) {
+    }
+}
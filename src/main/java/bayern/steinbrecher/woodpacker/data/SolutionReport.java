@@ -0,0 +1,236 @@
+package bayern.steinbrecher.woodpacker.data;
+
+import javafx.util.Pair;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Summarizes how good a solution of a {@link PlankProblemSnapshot} is and how far it is at most from an optimal one.
+ * The lower bounds solely refer to base planks cut out of the stock. They are cheap to compute and therefore rather
+ * weak. A gap of zero proves the solution to be optimal whereas a positive gap does not imply that there is a better
+ * solution. If the problem is split by material (see {@link PlankProblemSnapshot#partitionByMaterial()}) the lower
+ * bounds are the sums of the lower bounds of all materials.
+ *
+ * @param planUtilizations             The ratio of the area of the placed planks to the usable area of the base plank
+ *                                     for each cutting plan in the order of the solution.
+ * @param areaUtilization              The ratio of the area of all placed planks to the usable area of all cutting
+ *                                     plans.
+ * @param numBasePlanks                The number of base planks cut out of the stock, i.e. the number of cutting plans
+ *                                     which are not placed on any offcut.
+ * @param areaLowerBound               The number of stocked base planks which are required to cover the area of all
+ *                                     placed planks which exceeds the area of all offcuts.
+ * @param incompatiblePlanksLowerBound The number of placed planks which fit on no offcut and which pairwise do not fit
+ *                                     onto the same base plank of the stock.
+ * @param numUnplacedPlanks            The number of required planks which could not be placed.
+ * @param infeasiblePlanks             The unplaced planks which can not be placed by any solver along with the reason.
+ *                                     See {@link PlankInfeasibility}.
+ * @author Stefan Huber
+ * @since 0.1
+ */
+public record SolutionReport(
+        List<Double> planUtilizations,
+        double areaUtilization,
+        int numBasePlanks,
+        int areaLowerBound,
+        int incompatiblePlanksLowerBound,
+        int numUnplacedPlanks,
+        Map<RequiredPlank, PlankInfeasibility> infeasiblePlanks
+) {
+    /**
+     * The report of a solution without any cutting plans and without any unplaced planks.
+     */
+    public static final SolutionReport EMPTY = new SolutionReport(List.of(), 0, 0, 0, 0, 0, Map.of());
+
+    public SolutionReport {
+        planUtilizations = List.copyOf(planUtilizations);
+        infeasiblePlanks = Map.copyOf(infeasiblePlanks);
+    }
+
+    private static long determineUsableArea(final CuttingPlan cuttingPlan) {
+        final BasePlank basePlank = cuttingPlan.getBasePlank();
+        return ((long) basePlank.getWidth() - 2 * cuttingPlan.getOversize())
+                * (basePlank.getHeight() - 2 * cuttingPlan.getOversize());
+    }
+
+    /**
+     * @return {@code true} iff there are orientations of both planks such that they fit next to each other or one
+     * below the other onto a sheet of the given size. All dimensions include the cutting width.
+     */
+    private static boolean fitTogether(final List<PlankVariant> variantsA, final List<PlankVariant> variantsB,
+                                       final int sheetWidth, final int sheetHeight) {
+        boolean fitTogether = false;
+        for (final PlankVariant variantA : variantsA) {
+            for (final PlankVariant variantB : variantsB) {
+                fitTogether |= (variantA.width() + variantB.width() <= sheetWidth
+                        && Math.max(variantA.height(), variantB.height()) <= sheetHeight)
+                        || (variantA.height() + variantB.height() <= sheetHeight
+                        && Math.max(variantA.width(), variantB.width()) <= sheetWidth);
+            }
+        }
+        return fitTogether;
+    }
+
+    private static boolean fitsOn(final List<PlankVariant> variants, final int sheetWidth, final int sheetHeight) {
+        return variants.stream()
+                .anyMatch(variant -> variant.width() <= sheetWidth && variant.height() <= sheetHeight);
+    }
+
+    /**
+     * @param placedPlanks The placed planks ordered by descending area.
+     * @return The size of a set of planks which pairwise do not fit onto the same base plank of the stock. The set is
+     * determined greedily and is therefore not necessarily the largest one.
+     */
+    private static int countIncompatiblePlanks(final PlankProblemSnapshot problem,
+                                               final List<RequiredPlank> placedPlanks) {
+        final int cuttingWidth = problem.cuttingWidth();
+        final List<StockedBasePlank> stock = problem.basePlankStock();
+        final List<List<List<PlankVariant>>> incompatiblePlankVariants = new ArrayList<>();
+        for (final RequiredPlank plank : placedPlanks) {
+            final boolean fitsOnAnyOffcut = problem.offcuts()
+                    .stream()
+                    .anyMatch(offcut -> fitsOn(SheetPackingSolver.createVariants(
+                                    plank, 0, cuttingWidth, offcut.getGrainDirection(), false),
+                            offcut.getWidth() + cuttingWidth, offcut.getHeight() + cuttingWidth));
+            if (!fitsOnAnyOffcut) {
+                // The variants of the plank for each stocked base plank
+                final List<List<PlankVariant>> variantsPerStock = new ArrayList<>(stock.size());
+                for (final StockedBasePlank stockedBasePlank : stock) {
+                    variantsPerStock.add(SheetPackingSolver.createVariants(plank, 0, cuttingWidth,
+                            stockedBasePlank.getBasePlank().getGrainDirection(), false));
+                }
+                boolean incompatibleToAll = true;
+                for (int i = 0; i < incompatiblePlankVariants.size() && incompatibleToAll; i++) {
+                    for (int j = 0; j < stock.size() && incompatibleToAll; j++) {
+                        final BasePlank basePlank = stock.get(j).getBasePlank();
+                        incompatibleToAll = !fitTogether(variantsPerStock.get(j),
+                                incompatiblePlankVariants.get(i).get(j),
+                                basePlank.getWidth() - 2 * problem.basePlankOversize() + cuttingWidth,
+                                basePlank.getHeight() - 2 * problem.basePlankOversize() + cuttingWidth);
+                    }
+                }
+                if (incompatibleToAll) {
+                    incompatiblePlankVariants.add(variantsPerStock);
+                }
+            }
+        }
+        return incompatiblePlankVariants.size();
+    }
+
+    /**
+     * @param problem  The problem the solution was determined for.
+     * @param solution The cutting plans and the unplaced planks of the solution.
+     * @return The report of the given solution.
+     */
+    public static SolutionReport of(final PlankProblemSnapshot problem,
+                                    final Pair<Collection<CuttingPlan>, Set<RequiredPlank>> solution) {
+        final Set<BasePlank> offcuts = Collections.newSetFromMap(new IdentityHashMap<>());
+        offcuts.addAll(problem.offcuts());
+
+        final List<Double> planUtilizations = new ArrayList<>();
+        final List<RequiredPlank> placedPlanks = new ArrayList<>();
+        long usableArea = 0;
+        long utilizedArea = 0;
+        int numBasePlanks = 0;
+        for (final CuttingPlan cuttingPlan : solution.getKey()) {
+            final long planUsableArea = determineUsableArea(cuttingPlan);
+            long planUtilizedArea = 0;
+            for (final PlankSolutionRow row : cuttingPlan.getRows()) {
+                planUtilizedArea += row.getUtilizedArea();
+                placedPlanks.addAll(row.getPlanks());
+            }
+            planUtilizations.add((planUsableArea <= 0) ? 0d : ((double) planUtilizedArea) / planUsableArea);
+            usableArea += planUsableArea;
+            utilizedArea += planUtilizedArea;
+            if (!offcuts.contains(cuttingPlan.getBasePlank())) {
+                numBasePlanks++;
+            }
+        }
+        placedPlanks.sort(SheetPackingSolver.PLACEMENT_ORDER);
+
+        int areaLowerBound = 0;
+        int incompatiblePlanksLowerBound = 0;
+        final Map<RequiredPlank, PlankInfeasibility> infeasiblePlanks = new HashMap<>();
+        for (final PlankProblemSnapshot group : problem.partitionByMaterial().values()) {
+            final List<RequiredPlank> groupPlacedPlanks = placedPlanks.stream()
+                    .filter(plank -> group.requiredPlanks().contains(plank))
+                    .toList();
+            areaLowerBound += determineAreaLowerBound(group, groupPlacedPlanks);
+            incompatiblePlanksLowerBound += countIncompatiblePlanks(group, groupPlacedPlanks);
+            for (final RequiredPlank unplacedPlank : solution.getValue()) {
+                if (group.requiredPlanks().contains(unplacedPlank)) {
+                    PlankInfeasibility.determine(group, unplacedPlank)
+                            .ifPresent(infeasibility -> infeasiblePlanks.put(unplacedPlank, infeasibility));
+                }
+            }
+        }
+
+        final double areaUtilization = (usableArea <= 0) ? 0d : ((double) utilizedArea) / usableArea;
+        return new SolutionReport(planUtilizations, areaUtilization, numBasePlanks, areaLowerBound,
+                incompatiblePlanksLowerBound, solution.getValue().size(), infeasiblePlanks);
+    }
+
+    /**
+     * @param placedPlanks The placed planks of the given problem.
+     * @return The number of stocked base planks which are required to cover the area of the given planks which
+     * exceeds the area of all offcuts.
+     */
+    private static int determineAreaLowerBound(final PlankProblemSnapshot problem,
+                                               final List<RequiredPlank> placedPlanks) {
+        final int cuttingWidth = problem.cuttingWidth();
+
+        // All dimensions are enlarged by the cutting width such that the cuts are accounted for
+        long requiredArea = 0;
+        for (final RequiredPlank plank : placedPlanks) {
+            requiredArea += ((long) plank.getWidth() + cuttingWidth) * (plank.getHeight() + cuttingWidth);
+        }
+        for (final BasePlank offcut : problem.offcuts()) {
+            requiredArea -= ((long) offcut.getWidth() + cuttingWidth) * (offcut.getHeight() + cuttingWidth);
+        }
+        long maxStockArea = 0;
+        for (final StockedBasePlank stockedBasePlank : problem.basePlankStock()) {
+            final BasePlank basePlank = stockedBasePlank.getBasePlank();
+            maxStockArea = Math.max(maxStockArea,
+                    ((long) basePlank.getWidth() - 2 * problem.basePlankOversize() + cuttingWidth)
+                            * (basePlank.getHeight() - 2 * problem.basePlankOversize() + cuttingWidth));
+        }
+        return (requiredArea <= 0 || maxStockArea <= 0)
+                ? 0
+                : (int) ((requiredArea + maxStockArea - 1) / maxStockArea);
+    }
+
+    /**
+     * @return The number of base planks of the stock which any solution placing the same planks requires at least.
+     */
+    public int getLowerBound() {
+        return Math.max(areaLowerBound(), incompatiblePlanksLowerBound());
+    }
+
+    /**
+     * @return The number of base planks of the stock this solution may require more than an optimal one.
+     */
+    public int getGap() {
+        return Math.max(0, numBasePlanks() - getLowerBound());
+    }
+
+    /**
+     * @return The gap in relation to the number of base planks of the stock this solution requires. It is zero if
+     * the solution requires no base plank at all.
+     */
+    public double getRelativeGap() {
+        return (numBasePlanks() <= 0) ? 0d : ((double) getGap()) / numBasePlanks();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Solution report: %d base plank(s) (at least %d), %d unplaced plank(s) (%d infeasible), "
+                        + "%.2f%% area utilization", numBasePlanks(), getLowerBound(), numUnplacedPlanks(),
+                infeasiblePlanks().size(), 100 * areaUtilization());
+    }
+}
@@ -0,0 +1,72 @@
+package bayern.steinbrecher.woodpacker.data;
+
+import bayern.steinbrecher.woodpacker.WoodPacker;
+
+/**
+ * Describes which of the {@link StockedBasePlank}s to cut next in case multiple of them are in stock.
+ *
+ * @author Stefan Huber
+ * @since 0.1
+ */
+public enum StockSelectionObjective {
+    MINIMIZE_WASTE("minimizeWaste") {
+        /**
+         * The greater the share of a base plank which is covered by placed planks the better.
+         */
+        @Override
+        public double getRating(final StockedBasePlank stockedBasePlank, final long placedArea) {
+            final BasePlank basePlank = stockedBasePlank.getBasePlank();
+            return ((double) placedArea) / ((long) basePlank.getWidth() * basePlank.getHeight());
+        }
+    },
+    MINIMIZE_COST("minimizeCost") {
+        /**
+         * The smaller the cost for placing a certain area the better. Base planks without any cost are rated infinitely
+         * good. Hence, they are solely compared by the area placed on them (see {@link #isBetter(double, long, double,
+         * long)}).
+         */
+        @Override
+        public double getRating(final StockedBasePlank stockedBasePlank, final long placedArea) {
+            return (stockedBasePlank.getCost() <= 0)
+                    ? Double.POSITIVE_INFINITY
+                    : (placedArea / stockedBasePlank.getCost());
+        }
+    };
+    private final String resourceKey;
+
+    StockSelectionObjective(final String resourceKey) {
+        this.resourceKey = resourceKey;
+    }
+
+    /**
+     * Rate cutting a plan out of the given base plank.
+     *
+     * @param stockedBasePlank The base plank to cut the plan out of.
+     * @param placedArea       The total area of the planks which the plan places on the base plank.
+     * @return The higher the returned value the better the objective is fulfilled. Ratings are only comparable with
+     * ratings of the same objective.
+     */
+    public abstract double getRating(final StockedBasePlank stockedBasePlank, final long placedArea);
+
+    /**
+     * Compare the ratings of two cutting plans. On equal ratings the plan placing the larger area is better. This
+     * distinguishes base planks which are rated equally, e.g. multiple ones without any cost.
+     *
+     * @return {@code true} only if the first plan fulfills the objective strictly better than the second one. Hence, of
+     * two equally good plans the one which is tried first is kept.
+     */
+    public static boolean isBetter(final double rating, final long placedArea,
+                                   final double otherRating, final long otherPlacedArea) {
+        final int ratingComparison = Double.compare(rating, otherRating);
+        return ratingComparison > 0 || (ratingComparison == 0 && placedArea > otherPlacedArea);
+    }
+
+    public String getResourceKey() {
+        return resourceKey;
+    }
+
+    @Override
+    public String toString() {
+        return WoodPacker.getResource(getResourceKey());
+    }
+}
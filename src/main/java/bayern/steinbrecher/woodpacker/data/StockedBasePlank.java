@@ -0,0 +1,115 @@
+package bayern.steinbrecher.woodpacker.data;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * A format of {@link BasePlank} which is in stock together with how many of them are available and how much a single
+ * one of them costs.
+ *
+ * @author Stefan Huber
+ * @since 0.1
+ */
+public class StockedBasePlank implements Serializable {
+    /**
+     * The quantity of base planks which are available without any limit.
+     */
+    public static final int UNLIMITED_QUANTITY = -1;
+    @Serial
+    private static final long serialVersionUID = 4409165120384L;
+    private static final long INTERNAL_SERIAL_VERSION = 1L;
+
+    // Since internal serial version 1
+    private /*final*/ BasePlank basePlank;
+    private /*final*/ int quantity;
+    private /*final*/ double cost;
+
+    /**
+     * @param quantity The number of available base planks or {@link #UNLIMITED_QUANTITY}.
+     * @param cost     The cost of a single base plank. Costs are only compared with each other. Hence, the unit of
+     *                 the costs is arbitrary as long as it is the same for all stocked base planks.
+     */
+    public StockedBasePlank(final BasePlank basePlank, final int quantity, final double cost) {
+        if (quantity < 0 && quantity != UNLIMITED_QUANTITY) {
+            throw new IllegalArgumentException("The quantity has to be non-negative or unlimited");
+        }
+        if (cost < 0) {
+            throw new IllegalArgumentException("The cost has to be non-negative");
+        }
+        this.basePlank = Objects.requireNonNull(basePlank);
+        this.quantity = quantity;
+        this.cost = cost;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        boolean isEqual;
+        if (this == other) {
+            isEqual = true;
+        } else if (other == null || getClass() != other.getClass()) {
+            isEqual = false;
+        } else {
+            final StockedBasePlank that = (StockedBasePlank) other;
+            isEqual = getBasePlank().equals(that.getBasePlank())
+                    && getQuantity() == that.getQuantity()
+                    && Double.compare(getCost(), that.getCost()) == 0;
+        }
+        return isEqual;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(getBasePlank(), getQuantity(), getCost());
+    }
+
+    @Override
+    public String toString() {
+        final String quantityDescription = isQuantityLimited() ? String.valueOf(getQuantity()) : "∞";
+        return String.format("%s x %s", quantityDescription, getBasePlank());
+    }
+
+    @Serial
+    @SuppressWarnings("PMD.AvoidLiteralsInIfCondition")
+    private void readObject(final ObjectInputStream input) throws IOException, ClassNotFoundException {
+        final long inputSerialVersion = input.readLong();
+
+        // Internal serial version 1
+        assert inputSerialVersion >= 1 : "The internal serial version must be at least 1";
+        basePlank = (BasePlank) input.readObject();
+        quantity = input.readInt();
+        cost = input.readDouble();
+    }
+
+    @Serial
+    private void writeObject(final ObjectOutputStream output) throws IOException {
+        output.writeLong(INTERNAL_SERIAL_VERSION);
+
+        // Internal serial version 1
+        output.writeObject(getBasePlank());
+        output.writeInt(getQuantity());
+        output.writeDouble(getCost());
+    }
+
+    public BasePlank getBasePlank() {
+        return basePlank;
+    }
+
+    /**
+     * @return The number of available base planks or {@link #UNLIMITED_QUANTITY}.
+     */
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public boolean isQuantityLimited() {
+        return getQuantity() != UNLIMITED_QUANTITY;
+    }
+
+    public double getCost() {
+        return cost;
+    }
+}
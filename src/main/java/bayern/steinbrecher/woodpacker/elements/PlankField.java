@@ -46,6 +46,7 @@ public class PlankField<T extends Plank> extends Control implements CheckedContr
     private final StringProperty comment = new SimpleStringProperty("");
     private final SetProperty<EdgeBand> edgeBands = new SimpleSetProperty<>(FXCollections.observableSet());
     private final IntegerProperty edgeBandThickness = new SimpleIntegerProperty();
+    private final IntegerProperty quantity = new SimpleIntegerProperty(1);
     private final ReadOnlyBooleanWrapper allFieldsEmpty = new ReadOnlyBooleanWrapper();
     private final CheckableControlBase<PlankField<T>> rBase = new CheckableControlBase<>(this);
     private final Class<T> genericRuntimeType;
@@ -54,11 +55,9 @@ public class PlankField<T extends Plank> extends Control implements CheckedContr
         super();
 
         this.genericRuntimeType = genericRuntimeType;
-        if (BasePlank.class.isAssignableFrom(genericRuntimeType)) {
+        if (BasePlank.class.isAssignableFrom(genericRuntimeType)
+                || RequiredPlank.class.isAssignableFrom(genericRuntimeType)) {
             material.bind(selectedMaterialProperty());
-        } else if (RequiredPlank.class.isAssignableFrom(genericRuntimeType)) {
-            material.unbind();
-            material.set(PlankMaterial.UNDEFINED);
         } else {
             throw new UnsupportedOperationException(
                     String.format("%s does not support %s as generic type", PlankField.class.getCanonicalName(),
@@ -99,7 +98,8 @@ public class PlankField<T extends Plank> extends Control implements CheckedContr
         if (RequiredPlank.class.isAssignableFrom(genericRuntimeType)) {
             //noinspection unchecked
             createdPlank = (T) new RequiredPlank(getPlankId(), getPlankWidth().get(), getPlankHeight().get(),
-                    getGrainDirection(), getComment(), getEdgeBands(), getEdgeBandThickness());
+                    getGrainDirection(), getComment(), getEdgeBands(), getEdgeBandThickness(), getQuantity(),
+                    getMaterial());
         } else if (BasePlank.class.isAssignableFrom(genericRuntimeType)) {
             //noinspection unchecked
             createdPlank = (T) new BasePlank(
@@ -118,6 +118,7 @@ public class PlankField<T extends Plank> extends Control implements CheckedContr
         setPlankWidth(null);
         setSelectedMaterial(PlankMaterial.UNDEFINED);
         setComment("");
+        setQuantity(1);
     }
 
     public StringProperty plankIdProperty() {
@@ -225,6 +226,21 @@ public class PlankField<T extends Plank> extends Control implements CheckedContr
         edgeBandThicknessProperty().set(edgeBandThickness);
     }
 
+    /**
+     * @return The number of identical planks to create. It is solely used for {@link RequiredPlank}s.
+     */
+    public IntegerProperty quantityProperty() {
+        return quantity;
+    }
+
+    public int getQuantity() {
+        return quantityProperty().get();
+    }
+
+    public void setQuantity(final int quantity) {
+        quantityProperty().set(quantity);
+    }
+
     public ReadOnlyBooleanProperty allFieldsEmptyProperty() {
         return allFieldsEmpty.getReadOnlyProperty();
     }
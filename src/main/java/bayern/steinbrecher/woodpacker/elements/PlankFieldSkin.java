@@ -4,7 +4,6 @@ import bayern.steinbrecher.checkedElements.CheckedComboBox;
 import bayern.steinbrecher.checkedElements.spinner.CheckedIntegerSpinner;
 import bayern.steinbrecher.checkedElements.textfields.CheckedTextField;
 import bayern.steinbrecher.woodpacker.WoodPacker;
-import bayern.steinbrecher.woodpacker.data.BasePlank;
 import bayern.steinbrecher.woodpacker.data.Plank;
 import bayern.steinbrecher.woodpacker.data.PlankMaterial;
 import bayern.steinbrecher.woodpacker.data.RequiredPlank;
@@ -96,6 +95,29 @@ public class PlankFieldSkin<T extends Plank> extends SkinBase<PlankField<T>> {
         return content;
     }
 
+    private Node createQuantityField(final PlankField<T> control) {
+        final CheckedIntegerSpinner quantityField = new CheckedIntegerSpinner();
+        final SpinnerValueFactory<Integer> quantityFactory
+                = new SpinnerValueFactory.IntegerSpinnerValueFactory(1, Integer.MAX_VALUE, 1, 1);
+        quantityField.setValueFactory(quantityFactory);
+        quantityField.setEditable(true);
+        quantityFactory.valueProperty()
+                .addListener((obs, previousQuantity, currentQuantity) -> control.setQuantity(currentQuantity));
+        control.quantityProperty()
+                .addListener((obs, previousQuantity, currentQuantity)
+                        -> quantityFactory.setValue(currentQuantity.intValue()));
+
+        quantityField.checkedProperty()
+                .bind(control.checkedProperty());
+        control.addValidityConstraint(quantityField.validProperty());
+
+        final Label quantityLabel = new Label(WoodPacker.getResource("quantity"));
+        final HBox content = new HBox(quantityLabel, quantityField);
+        content.setAlignment(Pos.CENTER_LEFT);
+        content.setSpacing(5);
+        return content;
+    }
+
     private Node createCommentField(final PlankField<T> control) {
         final TextField commentField = new TextField();
         commentField.setPromptText(WoodPacker.getResource("description"));
@@ -152,6 +174,11 @@ public class PlankFieldSkin<T extends Plank> extends SkinBase<PlankField<T>> {
 
         final HBox sizeRow = new HBox(widthField, separator, heightField);
         sizeRow.setAlignment(Pos.CENTER_LEFT);
+        if (RequiredPlank.class.isAssignableFrom(genericRuntimeType)) {
+            sizeRow.setSpacing(5);
+            sizeRow.getChildren()
+                    .add(createQuantityField(control));
+        }
 
         final HBox propertyRow = new HBox();
         propertyRow.setAlignment(Pos.CENTER_LEFT);
@@ -170,11 +197,9 @@ public class PlankFieldSkin<T extends Plank> extends SkinBase<PlankField<T>> {
 
         propertyRow.getChildren()
                 .add(indicatorNode);
-        if (BasePlank.class.isAssignableFrom(genericRuntimeType)) {
-            final Node materialSelection = createMaterialSelection(control);
-            propertyRow.getChildren()
-                    .add(materialSelection);
-        }
+        final Node materialSelection = createMaterialSelection(control);
+        propertyRow.getChildren()
+                .add(materialSelection);
         if (RequiredPlank.class.isAssignableFrom(genericRuntimeType)) {
             final var edgeBandsSelection = createEdgeBandSelector(control);
             propertyRow.getChildren()
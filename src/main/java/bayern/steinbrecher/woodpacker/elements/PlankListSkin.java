@@ -198,8 +198,10 @@ public class PlankListSkin<T extends Plank> extends SkinBase<PlankList<T>> {
                             plankField.setSelectedMaterial(basePlank.getMaterial());
                         }
                         if (item instanceof RequiredPlank requiredPlank) {
+                            plankField.setSelectedMaterial(requiredPlank.getMaterial());
                             plankField.setEdgeBands(requiredPlank.getEdgeBands());
                             plankField.setEdgeBandThickness(requiredPlank.getEdgeBandThickness());
+                            plankField.setQuantity(requiredPlank.getQuantity());
                         }
                     };
 
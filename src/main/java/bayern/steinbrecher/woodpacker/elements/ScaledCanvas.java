@@ -6,10 +6,8 @@ import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleDoubleProperty;
 import javafx.beans.property.SimpleObjectProperty;
-import javafx.scene.SnapshotParameters;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.image.WritableImage;
 import javafx.scene.layout.Region;
 import javafx.scene.layout.StackPane;
 import javafx.scene.paint.Color;
@@ -92,10 +90,6 @@ public class ScaledCanvas extends Region {
         drawingActionsProperty().addListener(observable -> redraw.run());
     }
 
-    public WritableImage snapshotDrawingArea() {
-        return drawingArea.snapshot(new SnapshotParameters(), null);
-    }
-
     public DoubleProperty theoreticalWidthProperty() {
         return theoreticalWidth;
     }
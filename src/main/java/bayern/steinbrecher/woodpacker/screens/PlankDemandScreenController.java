@@ -8,46 +8,64 @@ import bayern.steinbrecher.screenswitcher.ScreenController;
 import bayern.steinbrecher.woodpacker.WoodPacker;
 import bayern.steinbrecher.woodpacker.data.BasePlank;
 import bayern.steinbrecher.woodpacker.data.CuttingPlan;
+import bayern.steinbrecher.woodpacker.data.CuttingPlanSolver;
+import bayern.steinbrecher.woodpacker.data.OffcutStore;
 import bayern.steinbrecher.woodpacker.data.Plank;
+import bayern.steinbrecher.woodpacker.data.PlankMaterial;
 import bayern.steinbrecher.woodpacker.data.PlankProblem;
 import bayern.steinbrecher.woodpacker.data.PlankSolutionCriterion;
 import bayern.steinbrecher.woodpacker.data.RequiredPlank;
+import bayern.steinbrecher.woodpacker.data.SolutionReport;
+import bayern.steinbrecher.woodpacker.data.StockSelectionObjective;
 import bayern.steinbrecher.woodpacker.elements.PlankList;
 import bayern.steinbrecher.woodpacker.elements.ScaledCanvas;
-import bayern.steinbrecher.woodpacker.elements.SnapshotPagination;
 import bayern.steinbrecher.woodpacker.utility.DrawActionGenerator;
 import bayern.steinbrecher.woodpacker.utility.PDFGenerator;
 import bayern.steinbrecher.woodpacker.utility.SerializationUtility;
+import javafx.beans.InvalidationListener;
+import javafx.beans.binding.Bindings;
 import javafx.beans.property.ReadOnlyBooleanProperty;
 import javafx.beans.property.ReadOnlyBooleanWrapper;
 import javafx.collections.FXCollections;
 import javafx.collections.MapChangeListener;
+import javafx.collections.ObservableList;
 import javafx.collections.ObservableSet;
 import javafx.collections.SetChangeListener;
 import javafx.fxml.FXML;
 import javafx.scene.Node;
-import javafx.scene.SnapshotParameters;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Alert.AlertType;
+import javafx.scene.control.Button;
 import javafx.scene.control.ButtonType;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
+import javafx.scene.control.Pagination;
 import javafx.scene.control.Slider;
+import javafx.scene.control.Spinner;
 import javafx.scene.control.SpinnerValueFactory;
+import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
+import javafx.scene.text.Text;
 import javafx.util.Pair;
+import javafx.util.StringConverter;
 
 import java.awt.Desktop;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -63,24 +81,48 @@ public class PlankDemandScreenController extends ScreenController {
     private static final Preferences USER_PREFERENCES_ROOT = Preferences.userRoot()
             .node("bayern/steinbrecher/woodpacker");
     private static final Preferences USER_DEFINED_BASE_PLANKS = USER_PREFERENCES_ROOT.node("baseplanks");
+    private static final int MAX_OPTIMIZATION_TIME_BUDGET_SECONDS = 600;
 
     @FXML
     private PlankList<BasePlank> basePlankList;
     @FXML
+    private VBox materialBasePlanksPane;
+    @FXML
     private PlankList<RequiredPlank> requiredPlanksView;
     @FXML
     private CheckedTextField cuttingPlanName;
     @FXML
-    private SnapshotPagination cuttingPlanPages;
+    private Pagination cuttingPlanPages;
     @FXML
     private CheckedIntegerSpinner oversizeSpinner;
     @FXML
     private CheckedIntegerSpinner cuttingWidthSpinner;
     @FXML
+    private ComboBox<CuttingPlanSolver> cuttingPlanSolverSelection;
+    @FXML
+    private ComboBox<StockSelectionObjective> stockSelectionObjectiveSelection;
+    @FXML
+    private Spinner<Double> basePlankCostSpinner;
+    @FXML
+    private CheckBox useOffcutsCheckBox;
+    @FXML
+    private CheckedIntegerSpinner optimizationTimeBudgetSpinner;
+    @FXML
+    private Button stopOptimizationButton;
+    @FXML
+    private Text solutionReportText;
+    @FXML
     private VBox criteriaPane;
     private final PlankProblem plankProblem = new PlankProblem();
     private final ReadOnlyBooleanWrapper plankProblemValid = new ReadOnlyBooleanWrapper();
     private final ReadOnlyBooleanWrapper plankProblemSaved = new ReadOnlyBooleanWrapper();
+    private final OffcutStore userOffcutStore = OffcutStore.openUserStore();
+    /**
+     * The solution whose offcuts were stored last. Exporting the same solution multiple times must not store its
+     * offcuts multiple times.
+     */
+    private final AtomicReference<Pair<Collection<CuttingPlan>, Set<RequiredPlank>>> committedSolution
+            = new AtomicReference<>();
 
     private void readUserDefinedBasePlanks() {
         // FIXME Show graphical feedback to user in any case where a logger is used
@@ -145,6 +187,51 @@ public class PlankDemandScreenController extends ScreenController {
                 });
     }
 
+    private void initializeMaterialBasePlanks() {
+        // NOTE The null entry represents cutting the planks of a material out of the selected base plank
+        final ObservableList<BasePlank> selectableBasePlanks = FXCollections.observableArrayList();
+        final InvalidationListener selectableBasePlanksUpdater = obs -> {
+            final List<BasePlank> entries = new ArrayList<>();
+            entries.add(null);
+            entries.addAll(basePlankList.getPlanks());
+            // NOTE Replacing all entries at once keeps the current selections of the combo boxes
+            selectableBasePlanks.setAll(entries);
+        };
+        basePlankList.planksProperty()
+                .addListener(selectableBasePlanksUpdater);
+        selectableBasePlanksUpdater.invalidated(null); // Ensure initial state
+
+        final Map<PlankMaterial, ComboBox<BasePlank>> basePlankSelections = new EnumMap<>(PlankMaterial.class);
+        for (final PlankMaterial material : PlankMaterial.values()) {
+            // NOTE Planks of an undefined material are always cut out of the selected base plank
+            if (material != PlankMaterial.UNDEFINED) {
+                final ComboBox<BasePlank> basePlankSelection = new ComboBox<>(selectableBasePlanks); // NOPMD
+                basePlankSelection.setPromptText(WoodPacker.getResource("selectedBasePlank"));
+                basePlankSelection.setValue(plankProblem.getMaterialBasePlank(material));
+                basePlankSelection.valueProperty()
+                        .addListener((obs, previousBasePlank, currentBasePlank)
+                                -> plankProblem.setMaterialBasePlank(material, currentBasePlank));
+                basePlankSelections.put(material, basePlankSelection);
+                materialBasePlanksPane.getChildren()
+                        .add(new HBox(new Label(material.toString()), basePlankSelection)); // NOPMD
+            }
+        }
+
+        // Sync material base planks of plank problem --> selected base planks
+        plankProblem.materialBasePlanksProperty()
+                .addListener((MapChangeListener<? super PlankMaterial, ? super BasePlank>) change -> {
+                    final ComboBox<BasePlank> basePlankSelection = basePlankSelections.get(change.getKey());
+                    if (basePlankSelection != null) {
+                        final BasePlank materialBasePlank = change.wasAdded() ? change.getValueAdded() : null;
+                        if (materialBasePlank != null) {
+                            basePlankList.getPlanks()
+                                    .add(materialBasePlank); // Ensure the base plank to select exists
+                        }
+                        basePlankSelection.setValue(materialBasePlank);
+                    }
+                });
+    }
+
     private void initializeRequiredPlanksList() {
         // Ensure planks being sorted
         final ObservableSet<RequiredPlank> sortedRequiredPlanks
@@ -197,6 +284,81 @@ public class PlankDemandScreenController extends ScreenController {
                 .addListener((obs, previousCuttingWidth, currentCuttingWidth)
                         -> cuttingWidthSpinner.getValueFactory().setValue(currentCuttingWidth.intValue()));
         plankProblem.setCuttingWidth(cuttingWidthSpinner.getValue()); // Ensure initial state
+
+        // Sync cutting plan solver <--> plank problem
+        final CuttingPlanSolver initialSolver = plankProblem.getCuttingPlanSolver();
+        // NOTE The solver of the problem is kept since it may be configured differently than the provided one
+        cuttingPlanSolverSelection.setItems(FXCollections.observableArrayList(
+                CuttingPlanSolver.getAvailableSolvers()
+                        .stream()
+                        .map(solver
+                                -> solver.getSolverId().equals(initialSolver.getSolverId()) ? initialSolver : solver)
+                        .toList()));
+        cuttingPlanSolverSelection.setConverter(new SolverNameConverter());
+        cuttingPlanSolverSelection.setValue(initialSolver); // Ensure initial state
+        cuttingPlanSolverSelection.valueProperty()
+                .addListener((obs, previousSolver, currentSolver) -> {
+                    if (currentSolver != null) {
+                        plankProblem.setCuttingPlanSolver(currentSolver);
+                    }
+                });
+        plankProblem.cuttingPlanSolverProperty()
+                .addListener((obs, previousSolver, currentSolver)
+                        -> cuttingPlanSolverSelection.setValue(currentSolver));
+
+        // Sync stock selection objective <--> plank problem
+        stockSelectionObjectiveSelection.setItems(FXCollections.observableArrayList(StockSelectionObjective.values()));
+        stockSelectionObjectiveSelection.setValue(plankProblem.getStockSelectionObjective()); // Ensure initial state
+        stockSelectionObjectiveSelection.valueProperty()
+                .addListener((obs, previousObjective, currentObjective) -> {
+                    if (currentObjective != null) {
+                        plankProblem.setStockSelectionObjective(currentObjective);
+                    }
+                });
+        plankProblem.stockSelectionObjectiveProperty()
+                .addListener((obs, previousObjective, currentObjective)
+                        -> stockSelectionObjectiveSelection.setValue(currentObjective));
+
+        // Sync base plank cost <--> plank problem
+        basePlankCostSpinner.setValueFactory(
+                new SpinnerValueFactory.DoubleSpinnerValueFactory(0, Double.MAX_VALUE, 0, 1));
+        basePlankCostSpinner.valueProperty()
+                .addListener((obs, previousCost, currentCost)
+                        -> plankProblem.setBasePlankCost(Objects.requireNonNullElse(currentCost, 0d)));
+        plankProblem.basePlankCostProperty()
+                .addListener((obs, previousCost, currentCost)
+                        -> basePlankCostSpinner.getValueFactory().setValue(currentCost.doubleValue()));
+        // The cost of the base plank solely matters when minimizing the cost
+        basePlankCostSpinner.disableProperty()
+                .bind(plankProblem.stockSelectionObjectiveProperty()
+                        .isNotEqualTo(StockSelectionObjective.MINIMIZE_COST));
+
+        // Sync offcut usage <--> plank problem
+        useOffcutsCheckBox.selectedProperty()
+                .addListener((obs, previouslyUsed, currentlyUsed)
+                        -> plankProblem.setOffcutStore(currentlyUsed ? userOffcutStore : null));
+        plankProblem.offcutStoreProperty()
+                .addListener((obs, previousStore, currentStore)
+                        -> useOffcutsCheckBox.setSelected(currentStore != null));
+        plankProblem.setOffcutStore(useOffcutsCheckBox.isSelected() ? userOffcutStore : null); // Ensure initial state
+
+        // Sync optimization time budget <--> plank problem
+        optimizationTimeBudgetSpinner.setValueFactory(
+                new SpinnerValueFactory.IntegerSpinnerValueFactory(0, MAX_OPTIMIZATION_TIME_BUDGET_SECONDS, 0, 5));
+        optimizationTimeBudgetSpinner.valueProperty()
+                .addListener((obs, previousBudget, currentBudget) -> plankProblem.setOptimizationTimeBudget(
+                        Duration.ofSeconds(Objects.requireNonNullElse(currentBudget, 0))));
+        plankProblem.optimizationTimeBudgetProperty()
+                .addListener((obs, previousBudget, currentBudget)
+                        -> optimizationTimeBudgetSpinner.getValueFactory().setValue((int) currentBudget.toSeconds()));
+        stopOptimizationButton.disableProperty()
+                .bind(plankProblem.optimizingProperty().not());
+        solutionReportText.textProperty()
+                .bind(Bindings.createStringBinding(() -> {
+                    final SolutionReport report = plankProblem.getSolutionReport();
+                    return WoodPacker.getResource("solutionReport", report.numBasePlanks(), report.getLowerBound(),
+                            report.areaUtilization(), report.infeasiblePlanks().size());
+                }, plankProblem.solutionReportProperty()));
     }
 
     private void initializeCriteriaPane() {
@@ -317,6 +479,7 @@ public class PlankDemandScreenController extends ScreenController {
                 .bindBidirectional(cuttingPlanName.textProperty());
 
         initializeBasePlankList();
+        initializeMaterialBasePlanks();
         initializeRequiredPlanksList();
         initializeSettingsPane();
         initializeCriteriaPane();
@@ -324,13 +487,7 @@ public class PlankDemandScreenController extends ScreenController {
     }
 
     public void loadPlankProblem(final PlankProblem setup) {
-        plankProblem.setBasePlank(setup.getBasePlank());
-        plankProblem.setRequiredPlanks(setup.getRequiredPlanks());
-        plankProblem.criterionWeightsProperty()
-                .putAll(setup.criterionWeightsProperty());
-        plankProblem.setBasePlankOversize(setup.getBasePlankOversize());
-        plankProblem.setCuttingWidth(setup.getCuttingWidth());
-        plankProblem.setProblemName(setup.getProblemName());
+        plankProblem.copyInputsFrom(setup);
         plankProblemSaved.set(true);
     }
 
@@ -387,17 +544,29 @@ public class PlankDemandScreenController extends ScreenController {
         }
     }
 
+    @SuppressWarnings("unused")
+    @FXML
+    private void stopOptimization() {
+        plankProblem.stopOptimization();
+    }
+
     @SuppressWarnings("unused")
     @FXML
     private void exportPreview() {
         final Optional<File> savePath = WoodPacker.getCuttingPlanChooser().askForSavePath();
+        final Pair<Collection<CuttingPlan>, Set<RequiredPlank>> solution = plankProblem.getProposedSolution();
+        final OffcutStore offcutStore = plankProblem.getOffcutStore();
         savePath.ifPresent(file -> new Thread(() -> {
             getScreenManager()
                     .showOverlay(WoodPacker.getResource("creatingCuttingPlanDocument"));
             try {
                 try {
                     PDFGenerator.generateCuttingPlanDocument(
-                            cuttingPlanPages.snapshotContents(new SnapshotParameters()), plankProblem, file);
+                            solution.getKey(), solution.getValue(), plankProblem, file);
+                    // NOTE Exporting the cutting plans is considered as cutting them
+                    if (offcutStore != null && committedSolution.getAndSet(solution) != solution) {
+                        offcutStore.commit(solution.getKey());
+                    }
                     Desktop.getDesktop()
                             .open(file);
                 } catch (FileNotFoundException ex) {
@@ -421,6 +590,28 @@ public class PlankDemandScreenController extends ScreenController {
         }).start());
     }
 
+    /**
+     * Shows the localized name of a solver or its ID if there is no localized name, e.g. for solvers of other modules.
+     */
+    private static class SolverNameConverter extends StringConverter<CuttingPlanSolver> {
+        @Override
+        public String toString(final CuttingPlanSolver solver) {
+            String name = "";
+            if (solver != null) {
+                final String resourceKey = solver.getSolverId() + "Solver";
+                name = WoodPacker.LANGUAGE_BUNDLE.containsKey(resourceKey)
+                        ? WoodPacker.getResource(resourceKey)
+                        : solver.getSolverId();
+            }
+            return name;
+        }
+
+        @Override
+        public CuttingPlanSolver fromString(final String name) {
+            throw new UnsupportedOperationException("Solvers are only chosen from the list of available ones");
+        }
+    }
+
     public ReadOnlyBooleanProperty plankProblemValidProperty() {
         return plankProblemValid.getReadOnlyProperty();
     }
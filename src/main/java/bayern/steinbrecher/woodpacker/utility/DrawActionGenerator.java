@@ -4,6 +4,7 @@ import bayern.steinbrecher.javaUtility.CompareUtility;
 import bayern.steinbrecher.woodpacker.data.BasePlank;
 import bayern.steinbrecher.woodpacker.data.CuttingPlan;
 import bayern.steinbrecher.woodpacker.data.EdgeBand;
+import bayern.steinbrecher.woodpacker.data.PlacedPlank;
 import bayern.steinbrecher.woodpacker.data.PlankSolutionRow;
 import bayern.steinbrecher.woodpacker.data.RequiredPlank;
 import bayern.steinbrecher.woodpacker.elements.ScaledCanvas;
@@ -13,7 +14,6 @@ import javafx.geometry.Point2D;
 import javafx.geometry.VPos;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
-import javafx.scene.shape.Line;
 import javafx.scene.text.Font;
 import javafx.scene.text.Text;
 import javafx.scene.text.TextAlignment;
@@ -46,8 +46,8 @@ public final class DrawActionGenerator {
     /**
      * The percentage of the width/height of a required plank which a label is allowed to take.
      */
-    private static final double MAX_LABEL_SIZE_FACTOR = 0.75;
-    private static final double LABEL_SIZE_FACTOR = 0.07;
+    static final double MAX_LABEL_SIZE_FACTOR = 0.75;
+    static final double LABEL_SIZE_FACTOR = 0.07;
     private static final double EDGE_BAND_INSET_FACTOR = 0.04;
     public static final Color REQUIRED_PLANK_COLOR = Color.BURLYWOOD;
 
@@ -59,64 +59,76 @@ public final class DrawActionGenerator {
         return forBasePlank(basePlank, 0);
     }
 
+    /**
+     * Determine the lines indicating the grain direction of the given base plank in the base plank space.
+     */
+    static List<LineSegment> determineGrainLines(final BasePlank basePlank) {
+        return switch (basePlank.getGrainDirection()) {
+            case HORIZONTAL -> {
+                final int numSteps = CompareUtility.clamp(
+                        basePlank.getHeight() / PREFERRED_GRAIN_INDICATION_STEP_SIZE,
+                        MIN_NUM_GRAIN_INDICATION_STEPS, MAX_NUM_GRAIN_INDICATION_STEPS);
+                final double stepSize = basePlank.getHeight() / (double) numSteps;
+                List<LineSegment> lines = new ArrayList<>();
+                for (double yPos = stepSize; yPos < basePlank.getHeight(); yPos += stepSize) {
+                    lines.add(new LineSegment(0, yPos, basePlank.getWidth(), yPos));
+                }
+                yield lines;
+            }
+            case VERTICAL -> {
+                final int numSteps = CompareUtility.clamp(
+                        basePlank.getWidth() / PREFERRED_GRAIN_INDICATION_STEP_SIZE,
+                        MIN_NUM_GRAIN_INDICATION_STEPS, MAX_NUM_GRAIN_INDICATION_STEPS);
+                final double stepSize = basePlank.getWidth() / (double) numSteps;
+                List<LineSegment> lines = new ArrayList<>();
+                for (double xPos = stepSize; xPos < basePlank.getWidth(); xPos += stepSize) {
+                    lines.add(new LineSegment(xPos, 0, xPos, basePlank.getHeight()));
+                }
+                yield lines;
+            }
+            case IRRELEVANT -> {
+                final double topBottomXDelta = basePlank.getHeight() / Math.tan(Math.toRadians(45));
+                final int numSteps = CompareUtility.clamp(
+                        basePlank.getWidth() / PREFERRED_GRAIN_INDICATION_STEP_SIZE,
+                        MIN_NUM_GRAIN_INDICATION_STEPS, MAX_NUM_GRAIN_INDICATION_STEPS);
+                final double stepSize = basePlank.getWidth() / (double) numSteps;
+                List<LineSegment> lines = new ArrayList<>();
+                for (double xPos = -topBottomXDelta + stepSize; xPos < basePlank.getWidth(); xPos += stepSize) {
+                    lines.add(new LineSegment(xPos, basePlank.getHeight(), xPos + topBottomXDelta, 0));
+                }
+                yield lines;
+            }
+        };
+    }
+
+    /**
+     * @return The width of the lines outlining planks on a base plank of the given size.
+     */
+    static double determineOutlineWidth(final BasePlank basePlank) {
+        final int maxDimension = Math.max(basePlank.getHeight(), basePlank.getWidth());
+        return Math.max(1, maxDimension / 500d);
+    }
+
     public static Consumer<GraphicsContext> forBasePlank(final BasePlank basePlank, final int oversize) {
         Consumer<GraphicsContext> drawingActions;
         if (basePlank == null) {
             drawingActions = gc -> {
             };
         } else {
-            final List<Line> grainLines = switch (basePlank.getGrainDirection()) {
-                case HORIZONTAL -> {
-                    final int numSteps = CompareUtility.clamp(
-                            basePlank.getHeight() / PREFERRED_GRAIN_INDICATION_STEP_SIZE,
-                            MIN_NUM_GRAIN_INDICATION_STEPS, MAX_NUM_GRAIN_INDICATION_STEPS);
-                    final double stepSize = basePlank.getHeight() / (double) numSteps;
-                    List<Line> lines = new ArrayList<>();
-                    for (double yPos = stepSize; yPos < basePlank.getHeight(); yPos += stepSize) {
-                        lines.add(new Line(0, yPos, basePlank.getWidth(), yPos));
-                    }
-                    yield lines;
-                }
-                case VERTICAL -> {
-                    final int numSteps = CompareUtility.clamp(
-                            basePlank.getWidth() / PREFERRED_GRAIN_INDICATION_STEP_SIZE,
-                            MIN_NUM_GRAIN_INDICATION_STEPS, MAX_NUM_GRAIN_INDICATION_STEPS);
-                    final double stepSize = basePlank.getWidth() / (double) numSteps;
-                    List<Line> lines = new ArrayList<>();
-                    for (double xPos = stepSize; xPos < basePlank.getWidth(); xPos += stepSize) {
-                        lines.add(new Line(xPos, 0, xPos, basePlank.getHeight()));
-                    }
-                    yield lines;
-                }
-                case IRRELEVANT -> {
-                    final double topBottomXDelta = basePlank.getHeight() / Math.tan(Math.toRadians(45));
-                    final int numSteps = CompareUtility.clamp(
-                            basePlank.getWidth() / PREFERRED_GRAIN_INDICATION_STEP_SIZE,
-                            MIN_NUM_GRAIN_INDICATION_STEPS, MAX_NUM_GRAIN_INDICATION_STEPS);
-                    final double stepSize = basePlank.getWidth() / (double) numSteps;
-                    List<Line> lines = new ArrayList<>();
-                    for (double xPos = -topBottomXDelta + stepSize; xPos < basePlank.getWidth(); xPos += stepSize) {
-                        lines.add(new Line(xPos, basePlank.getHeight(), xPos + topBottomXDelta, 0));
-                    }
-                    yield lines;
-                }
-            };
-
-            final int maxDimension = Math.max(basePlank.getHeight(), basePlank.getWidth());
+            final List<LineSegment> grainLines = determineGrainLines(basePlank);
 
             drawingActions = gc -> {
                 gc.beginPath();
                 gc.rect(0, 0, basePlank.getWidth(), basePlank.getHeight());
                 gc.setFill(BASE_PLANK_COLOR);
                 gc.fill();
-                gc.setLineWidth(Math.max(1, maxDimension / 500d));
+                gc.setLineWidth(determineOutlineWidth(basePlank));
                 gc.setStroke(Color.BLACK);
                 gc.stroke();
                 gc.closePath();
 
-                for (final Line grainLine : grainLines) {
-                    gc.strokeLine(grainLine.getStartX(), grainLine.getStartY(),
-                            grainLine.getEndX(), grainLine.getEndY());
+                for (final LineSegment grainLine : grainLines) {
+                    gc.strokeLine(grainLine.startX(), grainLine.startY(), grainLine.endX(), grainLine.endY());
                 }
 
                 gc.beginPath();
@@ -133,26 +145,42 @@ public final class DrawActionGenerator {
         return drawingActions;
     }
 
-    private static double drawEdgeBands(final GraphicsContext context, final RequiredPlank plank,
-                                        final double plankXPos, final double plankYPos) {
-        context.save();
-        context.setStroke(Color.GRAY);
-        final double edgeBandInset = Math.min(plank.getHeight(), plank.getWidth())
-                * EDGE_BAND_INSET_FACTOR;
+    static double determineEdgeBandInset(final RequiredPlank plank) {
+        return Math.min(plank.getHeight(), plank.getWidth()) * EDGE_BAND_INSET_FACTOR;
+    }
+
+    /**
+     * Determine the lines indicating the edge bands of the given plank in the base plank space.
+     */
+    static List<LineSegment> determineEdgeBandLines(
+            final RequiredPlank plank, final double plankXPos, final double plankYPos) {
+        final double edgeBandInset = determineEdgeBandInset(plank);
         final double minXPos = plankXPos + edgeBandInset;
         final double maxXPos = plankXPos + plank.getWidth() - edgeBandInset;
         final double minYPos = plankYPos + edgeBandInset;
         final double maxYPos = plankYPos + plank.getHeight() - edgeBandInset;
+        final List<LineSegment> edgeBandLines = new ArrayList<>();
         for (final EdgeBand edgeBand : plank.getEdgeBands()) {
-            switch (edgeBand) { // NOPMD - 2022-03-19: false-positive SwitchStmtsShouldHaveDefault
-                case LEFT -> context.strokeLine(minXPos, minYPos, minXPos, maxYPos);
-                case UPPER -> context.strokeLine(minXPos, minYPos, maxXPos, minYPos);
-                case RIGHT -> context.strokeLine(maxXPos, minYPos, maxXPos, maxYPos);
-                case LOWER -> context.strokeLine(minXPos, maxYPos, maxXPos, maxYPos);
-            }
+            edgeBandLines.add(switch (edgeBand) {
+                case LEFT -> new LineSegment(minXPos, minYPos, minXPos, maxYPos);
+                case UPPER -> new LineSegment(minXPos, minYPos, maxXPos, minYPos);
+                case RIGHT -> new LineSegment(maxXPos, minYPos, maxXPos, maxYPos);
+                case LOWER -> new LineSegment(minXPos, maxYPos, maxXPos, maxYPos);
+            });
+        }
+        return edgeBandLines;
+    }
+
+    private static double drawEdgeBands(final GraphicsContext context, final RequiredPlank plank,
+                                        final double plankXPos, final double plankYPos) {
+        context.save();
+        context.setStroke(Color.GRAY);
+        for (final LineSegment edgeBandLine : determineEdgeBandLines(plank, plankXPos, plankYPos)) {
+            context.strokeLine(
+                    edgeBandLine.startX(), edgeBandLine.startY(), edgeBandLine.endX(), edgeBandLine.endY());
         }
         context.restore();
-        return edgeBandInset;
+        return determineEdgeBandInset(plank);
     }
 
     private static PlankLabelInfo drawPlankLabel(
@@ -280,13 +308,12 @@ public final class DrawActionGenerator {
 
                 for (final PlankSolutionRow row : cuttingPlan.getRows()) {
                     final Point2D rowToBasePlankOffset = row.getStartOffset();
-                    double plankToRowXOffset = 0;
-                    double plankToRowYOffset = 0;
 
-                    for (final RequiredPlank plank : row.getPlanks()) {
+                    for (final PlacedPlank placedPlank : row.getPlacedPlanks()) {
                         // Draw plank shape
-                        final double plankXPos = rowToBasePlankOffset.getX() + plankToRowXOffset;
-                        final double plankYPos = rowToBasePlankOffset.getY() + plankToRowYOffset;
+                        final RequiredPlank plank = placedPlank.plank();
+                        final double plankXPos = placedPlank.position().getX();
+                        final double plankYPos = placedPlank.position().getY();
 
                         gc.beginPath();
                         gc.rect(plankXPos, plankYPos, plank.getWidth(), plank.getHeight());
@@ -303,13 +330,6 @@ public final class DrawActionGenerator {
                                 = drawPlankLabel(cuttingPlan, gc, plank, plankXPos, plankYPos);
 
                         drawDimensioningLabels(gc, plank, plankXPos, plankYPos, edgeBandInset, plankLabelInfo);
-
-                        // Move offset to next plank in solution row
-                        if (row.isAddingHorizontally()) {
-                            plankToRowXOffset += plank.getWidth() + row.getCuttingWidth();
-                        } else {
-                            plankToRowYOffset += plank.getHeight() + row.getCuttingWidth();
-                        }
                     }
 
                     if (CompileSettings.isGraphicalDebugEnabled()) {
@@ -356,6 +376,17 @@ public final class DrawActionGenerator {
         };
     }
 
+    /**
+     * A straight line in the base plank space.
+     */
+    record LineSegment(
+            double startX,
+            double startY,
+            double endX,
+            double endY
+    ) {
+    }
+
     private record PlankLabelInfo(
             String text,
             Font font,
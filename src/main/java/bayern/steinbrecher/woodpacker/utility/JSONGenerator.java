@@ -0,0 +1,177 @@
+package bayern.steinbrecher.woodpacker.utility;
+
+import bayern.steinbrecher.woodpacker.BuildConfig;
+import bayern.steinbrecher.woodpacker.data.BasePlank;
+import bayern.steinbrecher.woodpacker.data.CuttingPlan;
+import bayern.steinbrecher.woodpacker.data.EdgeBand;
+import bayern.steinbrecher.woodpacker.data.Offcut;
+import bayern.steinbrecher.woodpacker.data.PlacedPlank;
+import bayern.steinbrecher.woodpacker.data.Plank;
+import bayern.steinbrecher.woodpacker.data.PlankProblem;
+import bayern.steinbrecher.woodpacker.data.RequiredPlank;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+/**
+ * Generates a machine-readable JSON representation of cutting plans. All lengths are given in millimeters and all
+ * positions refer to the left upper corner of the respective base plank.
+ *
+ * @author Stefan Huber
+ * @since 0.1
+ */
+public final class JSONGenerator {
+    private JSONGenerator() {
+        throw new UnsupportedOperationException("The construction of instances is prohibited");
+    }
+
+    private static String quote(final String value) {
+        final StringBuilder quoted = new StringBuilder(value.length() + 2)
+                .append('"');
+        for (final char character : value.toCharArray()) {
+            switch (character) {
+                case '"' -> quoted.append("\\\"");
+                case '\\' -> quoted.append("\\\\");
+                case '\n' -> quoted.append("\\n");
+                case '\r' -> quoted.append("\\r");
+                case '\t' -> quoted.append("\\t");
+                default -> {
+                    if (character < 0x20) {
+                        quoted.append(String.format("\\u%04x", (int) character));
+                    } else {
+                        quoted.append(character);
+                    }
+                }
+            }
+        }
+        return quoted.append('"')
+                .toString();
+    }
+
+    private static <T> void appendArray(
+            final StringBuilder json, final Iterable<T> elements, final Consumer<T> elementAppender) {
+        json.append('[');
+        final Iterator<T> elementIterator = elements.iterator();
+        while (elementIterator.hasNext()) {
+            elementAppender.accept(elementIterator.next());
+            if (elementIterator.hasNext()) {
+                json.append(',');
+            }
+        }
+        json.append(']');
+    }
+
+    private static void appendPlankProperties(final StringBuilder json, final Plank plank) {
+        json.append("\"id\":")
+                .append(quote(plank.getPlankId()))
+                .append(",\"width\":")
+                .append(plank.getWidth())
+                .append(",\"height\":")
+                .append(plank.getHeight())
+                .append(",\"grainDirection\":")
+                .append(quote(plank.getGrainDirection().name()))
+                .append(",\"comment\":")
+                .append(quote(plank.getComment() == null ? "" : plank.getComment()));
+    }
+
+    private static void appendRequiredPlank(final StringBuilder json, final RequiredPlank plank) {
+        json.append('{');
+        appendPlankProperties(json, plank);
+        json.append(",\"edgeBands\":");
+        appendArray(json, plank.getEdgeBands()
+                .stream()
+                .sorted()
+                .toList(), (EdgeBand edgeBand) -> json.append(quote(edgeBand.name())));
+        json.append(",\"edgeBandThickness\":")
+                .append(plank.getEdgeBandThickness())
+                .append(",\"material\":")
+                .append(quote(plank.getMaterial().name()))
+                .append('}');
+    }
+
+    private static void appendBasePlank(final StringBuilder json, final BasePlank basePlank) {
+        if (basePlank == null) {
+            json.append("null");
+        } else {
+            json.append('{');
+            appendPlankProperties(json, basePlank);
+            json.append(",\"material\":")
+                    .append(quote(basePlank.getMaterial().name()))
+                    .append('}');
+        }
+    }
+
+    private static void appendCuttingPlan(final StringBuilder json, final CuttingPlan cuttingPlan) {
+        json.append("{\"basePlank\":");
+        appendBasePlank(json, cuttingPlan.getBasePlank());
+        json.append(",\"oversize\":")
+                .append(cuttingPlan.getOversize())
+                .append(",\"planks\":");
+        appendArray(json, cuttingPlan.getPlacedPlanks(), (PlacedPlank placedPlank) -> {
+            json.append("{\"x\":")
+                    .append((int) placedPlank.position().getX())
+                    .append(",\"y\":")
+                    .append((int) placedPlank.position().getY())
+                    .append(",\"plank\":");
+            appendRequiredPlank(json, placedPlank.plank());
+            json.append('}');
+        });
+        json.append(",\"offcuts\":");
+        appendArray(json, cuttingPlan.getOffcuts(), (Offcut offcut) -> {
+            json.append("{\"x\":")
+                    .append((int) offcut.position().getX())
+                    .append(",\"y\":")
+                    .append((int) offcut.position().getY())
+                    .append(",\"width\":")
+                    .append(offcut.remnant().getWidth())
+                    .append(",\"height\":")
+                    .append(offcut.remnant().getHeight())
+                    .append('}');
+        });
+        json.append('}');
+    }
+
+    /**
+     * @param cuttingPlans   The cutting plans solving the given problem.
+     * @param unplacedPlanks The required planks of the given problem which are not placed on any cutting plan.
+     * @param problem        The problem the cutting plans belong to.
+     * @return The JSON representation of the given cutting plans.
+     */
+    public static String generateCuttingPlanJSON(
+            final Collection<CuttingPlan> cuttingPlans, final Collection<RequiredPlank> unplacedPlanks,
+            final PlankProblem problem) {
+        final StringBuilder json = new StringBuilder("{\"creator\":")
+                .append(quote(BuildConfig.APP_NAME + " " + BuildConfig.APP_VERSION))
+                .append(",\"name\":")
+                .append(quote(problem.getProblemName()))
+                .append(",\"basePlank\":");
+        appendBasePlank(json, problem.getBasePlank());
+        json.append(",\"oversize\":")
+                .append(problem.getBasePlankOversize())
+                .append(",\"cuttingWidth\":")
+                .append(problem.getCuttingWidth())
+                .append(",\"cuttingPlans\":");
+        appendArray(json, cuttingPlans, (CuttingPlan cuttingPlan) -> appendCuttingPlan(json, cuttingPlan));
+        json.append(",\"unplacedPlanks\":");
+        appendArray(json, unplacedPlanks.stream()
+                .sorted(Comparator.comparing(Plank::getPlankId))
+                .toList(), (RequiredPlank plank) -> appendRequiredPlank(json, plank));
+        return json.append('}')
+                .toString();
+    }
+
+    public static void generateCuttingPlanDocument(
+            final Collection<CuttingPlan> cuttingPlans, final Collection<RequiredPlank> unplacedPlanks,
+            final PlankProblem problem, final File savePath) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(savePath.toPath(), StandardCharsets.UTF_8)) {
+            writer.write(generateCuttingPlanJSON(cuttingPlans, unplacedPlanks, problem));
+        }
+    }
+}
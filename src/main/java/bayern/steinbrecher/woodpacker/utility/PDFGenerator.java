@@ -2,13 +2,23 @@ package bayern.steinbrecher.woodpacker.utility;
 
 import bayern.steinbrecher.woodpacker.BuildConfig;
 import bayern.steinbrecher.woodpacker.WoodPacker;
+import bayern.steinbrecher.woodpacker.data.BasePlank;
+import bayern.steinbrecher.woodpacker.data.CuttingPlan;
+import bayern.steinbrecher.woodpacker.data.PlacedPlank;
+import bayern.steinbrecher.woodpacker.data.PlankMaterial;
 import bayern.steinbrecher.woodpacker.data.PlankProblem;
 import bayern.steinbrecher.woodpacker.data.PlankSolutionCriterion;
-import com.itextpdf.io.image.ImageDataFactory;
+import bayern.steinbrecher.woodpacker.data.RequiredPlank;
+import com.itextpdf.io.font.constants.StandardFonts;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
 import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.kernel.geom.Rectangle;
 import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.kernel.pdf.PdfDocumentInfo;
 import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import com.itextpdf.kernel.pdf.xobject.PdfFormXObject;
 import com.itextpdf.layout.Document;
 import com.itextpdf.layout.element.AreaBreak;
 import com.itextpdf.layout.element.BlockElement;
@@ -17,29 +27,46 @@ import com.itextpdf.layout.element.List;
 import com.itextpdf.layout.element.Paragraph;
 import com.itextpdf.layout.element.Table;
 import com.itextpdf.layout.property.AreaBreakType;
-import javafx.embed.swing.SwingFXUtils;
-import javafx.scene.image.PixelReader;
-import javafx.scene.image.PixelWriter;
-import javafx.scene.image.WritableImage;
-import javafx.scene.paint.Color;
-
-import javax.imageio.ImageIO;
-import java.awt.Graphics2D;
-import java.awt.image.BufferedImage;
-import java.io.ByteArrayOutputStream;
+
 import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.Iterator;
-import java.util.function.Supplier;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * @author Stefan Huber
  * @since 0.1
  */
 public final class PDFGenerator {
+    /**
+     * The distance between the vertical center of a text and its baseline relative to the font size.
+     */
+    private static final double BASELINE_TO_CENTER_FACTOR = 0.35;
+    private static final double DIMENSION_LABEL_SIZE_FACTOR = 0.6;
+    private static final float GRAIN_LINE_GRAY = 0.8f;
+    private static final float EDGE_BAND_GRAY = 0.5f;
+    private static final float OVERSIZE_GRAY = 0.75f;
+    /**
+     * The maximum number of cutting plans which are laid out ahead of writing them to a document.
+     */
+    private static final int MAX_PREPARED_LAYOUTS = 2;
+    private static final CuttingPlanLayout END_OF_LAYOUTS
+            = new CuttingPlanLayout(null, 0, java.util.List.of(), java.util.List.of(), java.util.List.of());
+    private static final ExecutorService LAYOUT_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        final Thread layoutThread = new Thread(runnable, "CuttingPlanLayouter");
+        layoutThread.setDaemon(true);
+        return layoutThread;
+    });
 
     private PDFGenerator() {
         throw new UnsupportedOperationException("The construction of instances is prohibited");
@@ -85,10 +112,31 @@ public final class PDFGenerator {
     private static Table generateExtendedInfo(final PlankProblem problem) {
         final Collection<Collection<BlockElement<?>>> cellEntries = new ArrayList<>();
 
+        final String basePlankDescription = (problem.getBasePlank() == null)
+                ? WoodPacker.getResource("noBasePlankSelected")
+                : problem.getBasePlank().toString();
         cellEntries.add(java.util.List.of(
                 new Paragraph(WoodPacker.getResource("basePlank")),
-                new Paragraph(problem.getBasePlank().toString())
+                new Paragraph(basePlankDescription)
         ));
+        cellEntries.add(java.util.List.of(
+                new Paragraph(WoodPacker.getResource("basePlankStock")),
+                generateList(problem.getEffectiveBasePlankStock())
+        ));
+        final Collection<String> materialBasePlanks = new ArrayList<>();
+        for (final Map.Entry<PlankMaterial, BasePlank> entry : problem.getMaterialBasePlanks().entrySet()) {
+            // Planks without a material are always cut out of the stock (see PlankProblemSnapshot)
+            if (entry.getKey() != PlankMaterial.UNDEFINED) {
+                materialBasePlanks.add(String.format(
+                        "%s: %s", WoodPacker.getResource(entry.getKey().getResourceKey()), entry.getValue()));
+            }
+        }
+        if (!materialBasePlanks.isEmpty()) {
+            cellEntries.add(java.util.List.of(
+                    new Paragraph(WoodPacker.getResource("materialBasePlanks")),
+                    generateList(materialBasePlanks)
+            ));
+        }
         cellEntries.add(java.util.List.of(
                 new Paragraph(WoodPacker.getResource("demandList")),
                 generateList(problem.getRequiredPlanks())
@@ -116,83 +164,353 @@ public final class PDFGenerator {
         return generateTable(cellEntries);
     }
 
-    private static Image generateCuttingPlanPage(final WritableImage cuttingPlan) throws IOException {
-        // Remove wood colored background
-        final PixelReader pixelReader = cuttingPlan.getPixelReader();
-        final PixelWriter pixelWriter = cuttingPlan.getPixelWriter();
-        for (int x = 0; x < cuttingPlan.getWidth(); x++) {
-            for (int y = 0; y < cuttingPlan.getHeight(); y++) {
-                final Color pixelColor = pixelReader.getColor(x, y);
-                if (pixelColor.equals(DrawActionGenerator.BASE_PLANK_COLOR)
-                        || pixelColor.equals(DrawActionGenerator.REQUIRED_PLANK_COLOR)) {
-                    pixelWriter.setColor(x, y, Color.WHITE);
-                }
-            }
+    private static void scaleAndCenterOnPage(final Image content, final PageSize pageSize) {
+        content.setAutoScale(true);
+        content.scaleToFit(pageSize.getWidth(), pageSize.getHeight());
+        final float leftMargin = (pageSize.getWidth() - content.getImageScaledWidth()) / 2;
+        content.setMarginLeft(Math.max(0, leftMargin));
+    }
+
+    private static Document createDocument(final File savePath) throws IOException {
+        final Document document = new Document(new PdfDocument(new PdfWriter(savePath)));
+        final PdfDocument pdfDocument = document.getPdfDocument();
+        pdfDocument.setDefaultPageSize(PageSize.A4);
+        final PdfDocumentInfo documentInfo = pdfDocument.getDocumentInfo();
+        documentInfo.setCreator(BuildConfig.APP_NAME + " " + BuildConfig.APP_VERSION);
+        return document;
+    }
+
+    private static Table generateCuttingList(final CuttingPlan cuttingPlan) {
+        final Collection<Collection<BlockElement<?>>> cellEntries = new ArrayList<>();
+        cellEntries.add(java.util.List.of(
+                new Paragraph(WoodPacker.getResource("identifier")),
+                new Paragraph(WoodPacker.getResource("positionX")),
+                new Paragraph(WoodPacker.getResource("positionY")),
+                new Paragraph(WoodPacker.getResource("width")),
+                new Paragraph(WoodPacker.getResource("height"))
+        ));
+        for (final PlacedPlank placedPlank : cuttingPlan.getPlacedPlanks()) {
+            final RequiredPlank plank = placedPlank.plank();
+            cellEntries.add(java.util.List.of(
+                    new Paragraph(plank.getPlankId()),
+                    new Paragraph(String.valueOf((int) placedPlank.position().getX())),
+                    new Paragraph(String.valueOf((int) placedPlank.position().getY())),
+                    new Paragraph(String.valueOf(plank.getWidth())),
+                    new Paragraph(String.valueOf(plank.getHeight()))
+            ));
         }
+        return generateTable(cellEntries);
+    }
 
-        final boolean rotateVertical = cuttingPlan.getWidth() > cuttingPlan.getHeight();
+    private static void addLine(final PdfCanvas canvas, final DrawActionGenerator.LineSegment line) {
+        canvas.moveTo(line.startX(), line.startY())
+                .lineTo(line.endX(), line.endY());
+    }
 
-        // Create output AWT image with modifying properties (including grayscale and eventual rotation)
-        final var modifiedCuttingPlan = ((Supplier<BufferedImage>) () -> {
-            if (rotateVertical) {
-                return new BufferedImage((int) cuttingPlan.getHeight(), (int) cuttingPlan.getWidth(),
-                        BufferedImage.TYPE_USHORT_GRAY);
-            }
-            return new BufferedImage((int) cuttingPlan.getWidth(), (int) cuttingPlan.getHeight(),
-                    BufferedImage.TYPE_USHORT_GRAY);
-        }).get();
+    private static float fitFontSize(
+            final PdfFont font, final String text, final double preferredSize, final double maxLength) {
+        final double preferredLength = font.getWidth(text, (float) preferredSize);
+        double fontSize = preferredSize;
+        if (preferredLength > maxLength) {
+            fontSize *= maxLength / preferredLength;
+        }
+        return (float) fontSize;
+    }
+
+    /**
+     * Determine where to place text such that it is centered around the given point of the base plank space.
+     */
+    private static PositionedText layoutCenteredText(final PdfFont fontMetrics, final float fontSize,
+                                                     final String text, final double centerX, final double centerY,
+                                                     final boolean vertical) {
+        // Reading direction and upwards direction of the text in the base plank space (where y points downwards)
+        final float directionX = vertical ? 0 : 1;
+        final float directionY = vertical ? -1 : 0;
+        final float upX = vertical ? -1 : 0;
+        final float upY = vertical ? 0 : -1;
+        final double halfTextLength = fontMetrics.getWidth(text, fontSize) / 2;
+        final double baselineShift = BASELINE_TO_CENTER_FACTOR * fontSize;
+        final double originX = centerX - directionX * halfTextLength - upX * baselineShift;
+        final double originY = centerY - directionY * halfTextLength - upY * baselineShift;
+        return new PositionedText(text, fontSize, (float) originX, (float) originY, vertical);
+    }
+
+    private static void showText(final PdfCanvas canvas, final PdfFont font, final PositionedText text) {
+        canvas.beginText()
+                .setFontAndSize(font, text.fontSize());
+        if (text.vertical()) {
+            canvas.setTextMatrix(0, -1, -1, 0, text.originX(), text.originY());
+        } else {
+            canvas.setTextMatrix(1, 0, 0, -1, text.originX(), text.originY());
+        }
+        canvas.showText(text.text())
+                .endText();
+    }
+
+    private static void layoutPlankLabels(
+            final PdfFont fontMetrics, final BasePlank basePlank, final RequiredPlank plank, final double plankXPos,
+            final double plankYPos, final Collection<PositionedText> labels) {
+        final String plankLabel = plank.getPlankId();
+        final boolean drawLabelVertical = plank.getHeight() > plank.getWidth();
+        final double maxPossibleLabelLength = drawLabelVertical ? plank.getHeight() : plank.getWidth();
+        final double maxPossibleLabelHeight = drawLabelVertical ? plank.getWidth() : plank.getHeight();
+        final float labelFontSize = fitFontSize(fontMetrics, plankLabel,
+                Math.min(DrawActionGenerator.LABEL_SIZE_FACTOR * basePlank.getHeight(),
+                        DrawActionGenerator.MAX_LABEL_SIZE_FACTOR * maxPossibleLabelHeight),
+                DrawActionGenerator.MAX_LABEL_SIZE_FACTOR * maxPossibleLabelLength);
+        labels.add(layoutCenteredText(fontMetrics, labelFontSize, plankLabel,
+                plankXPos + plank.getWidth() / 2d, plankYPos + plank.getHeight() / 2d, drawLabelVertical));
+
+        // Place the dimensioning labels along the upper and the left edge without intersecting the plank label
+        final double labelLength = fontMetrics.getWidth(plankLabel, labelFontSize);
+        final double labelWidthInPlank = drawLabelVertical ? labelFontSize : labelLength;
+        final double labelHeightInPlank = drawLabelVertical ? labelLength : labelFontSize;
+        final double edgeBandInset = DrawActionGenerator.determineEdgeBandInset(plank);
+        final double maxDimensionLabelSize = Math.min(DIMENSION_LABEL_SIZE_FACTOR * labelFontSize, Math.min(
+                (plank.getHeight() - labelHeightInPlank - 2 * edgeBandInset) / 2,
+                (plank.getWidth() - labelWidthInPlank - 2 * edgeBandInset) / 2));
+        if (maxDimensionLabelSize > 0) {
+            final String widthLabel = String.valueOf(plank.getWidth());
+            final String heightLabel = String.valueOf(plank.getHeight());
+            final float widthLabelSize = fitFontSize(fontMetrics, widthLabel, maxDimensionLabelSize,
+                    plank.getWidth() - 2 * edgeBandInset);
+            final float heightLabelSize = fitFontSize(fontMetrics, heightLabel, maxDimensionLabelSize,
+                    plank.getHeight() - 2 * edgeBandInset);
+            labels.add(layoutCenteredText(fontMetrics, widthLabelSize, widthLabel,
+                    plankXPos + plank.getWidth() / 2d, plankYPos + edgeBandInset + maxDimensionLabelSize / 2, false));
+            labels.add(layoutCenteredText(fontMetrics, heightLabelSize, heightLabel,
+                    plankXPos + edgeBandInset + maxDimensionLabelSize / 2, plankYPos + plank.getHeight() / 2d, true));
+        }
+    }
+
+    /**
+     * Determine everything about drawing the given cutting plan which does not require access to the document, i.e.
+     * the positions of all labels and all lines.
+     *
+     * @param fontMetrics A font which is solely used for measuring text. It must not be used with any document.
+     */
+    private static CuttingPlanLayout layoutCuttingPlan(
+            final PdfFont fontMetrics, final CuttingPlan cuttingPlan, final int cuttingPlanIndex) {
+        final java.util.List<PositionedText> labels = new ArrayList<>();
+        final java.util.List<DrawActionGenerator.LineSegment> edgeBandLines = new ArrayList<>();
+        for (final PlacedPlank placedPlank : cuttingPlan.getPlacedPlanks()) {
+            final double plankXPos = placedPlank.position().getX();
+            final double plankYPos = placedPlank.position().getY();
+            layoutPlankLabels(fontMetrics, cuttingPlan.getBasePlank(), placedPlank.plank(), plankXPos, plankYPos,
+                    labels);
+            edgeBandLines.addAll(
+                    DrawActionGenerator.determineEdgeBandLines(placedPlank.plank(), plankXPos, plankYPos));
+        }
+        return new CuttingPlanLayout(cuttingPlan, cuttingPlanIndex,
+                DrawActionGenerator.determineGrainLines(cuttingPlan.getBasePlank()), edgeBandLines, labels);
+    }
+
+    /**
+     * Draw the given cutting plan as vector graphic. The drawing uses the base plank space, i.e. the unit is
+     * millimeters and the origin is the left upper corner of the base plank. Base planks which are wider than high
+     * are rotated by 90° to make better use of portrait pages.
+     */
+    private static PdfFormXObject generateCuttingPlanDrawing(
+            final PdfDocument pdfDocument, final PdfFont font, final CuttingPlanLayout layout) {
+        final CuttingPlan cuttingPlan = layout.cuttingPlan();
+        final BasePlank basePlank = cuttingPlan.getBasePlank();
+        final int width = basePlank.getWidth();
+        final int height = basePlank.getHeight();
+        final boolean rotateVertical = width > height;
 
-        final Graphics2D modifiedCuttingPlanDrawer = modifiedCuttingPlan.createGraphics();
+        final PdfFormXObject drawing = new PdfFormXObject(rotateVertical
+                ? new Rectangle(height, width)
+                : new Rectangle(width, height));
+        final PdfCanvas canvas = new PdfCanvas(drawing, pdfDocument);
+        // Map the base plank space, where y points downwards, to the PDF space, where y points upwards
         if (rotateVertical) {
-            // Move origin to right upper corner
-            modifiedCuttingPlanDrawer.translate(
-                    modifiedCuttingPlan.getWidth() / 2d, modifiedCuttingPlan.getHeight() / 2d);
+            canvas.concatMatrix(0, -1, -1, 0, height, width);
+        } else {
+            canvas.concatMatrix(1, 0, 0, -1, 0, height);
+        }
+
+        final float outlineWidth = (float) DrawActionGenerator.determineOutlineWidth(basePlank);
+        canvas.setLineWidth(outlineWidth);
 
-            // Rotate context by 90°
-            modifiedCuttingPlanDrawer.rotate(Math.PI / 2d);
+        // Grain direction
+        canvas.saveState()
+                .rectangle(0, 0, width, height)
+                .clip()
+                .endPath()
+                .setStrokeColorGray(GRAIN_LINE_GRAY)
+                .setLineWidth(outlineWidth / 2);
+        for (final DrawActionGenerator.LineSegment grainLine : layout.grainLines()) {
+            addLine(canvas, grainLine);
+        }
+        canvas.stroke()
+                .restoreState();
 
-            // Move origin back to center
-            modifiedCuttingPlanDrawer.translate(
-                    -modifiedCuttingPlan.getHeight() / 2d, -modifiedCuttingPlan.getWidth() / 2d);
+        // Oversize border consisting of an upper, right, lower and left bar
+        final int oversize = cuttingPlan.getOversize();
+        if (oversize > 0) {
+            canvas.saveState()
+                    .setFillColorGray(OVERSIZE_GRAY)
+                    .rectangle(0, 0, width, oversize)
+                    .rectangle(width - oversize, oversize, oversize, height - 2 * oversize)
+                    .rectangle(0, height - oversize, width, oversize)
+                    .rectangle(0, oversize, oversize, height - 2 * oversize)
+                    .fill()
+                    .restoreState();
         }
 
-        // Convert JavaFX image to AWT image
-        final BufferedImage bufferedCuttingPlan = SwingFXUtils.fromFXImage(cuttingPlan, null);
+        canvas.rectangle(0, 0, width, height)
+                .stroke();
+
+        for (final PlacedPlank placedPlank : cuttingPlan.getPlacedPlanks()) {
+            final RequiredPlank plank = placedPlank.plank();
+            canvas.setFillColorGray(1)
+                    .rectangle(placedPlank.position().getX(), placedPlank.position().getY(), plank.getWidth(),
+                            plank.getHeight())
+                    .fillStroke();
+        }
 
-        // Apply cutting plan to modifying output AWT image
-        modifiedCuttingPlanDrawer.drawImage(bufferedCuttingPlan, 0, 0, null);
+        if (!layout.edgeBandLines().isEmpty()) {
+            canvas.saveState()
+                    .setStrokeColorGray(EDGE_BAND_GRAY);
+            for (final DrawActionGenerator.LineSegment edgeBandLine : layout.edgeBandLines()) {
+                addLine(canvas, edgeBandLine);
+            }
+            canvas.stroke()
+                    .restoreState();
+        }
 
-        // Convert AWT image to PDF image
-        final ByteArrayOutputStream snapshotByteStream = new ByteArrayOutputStream();
-        ImageIO.write(modifiedCuttingPlan, "png", snapshotByteStream);
-        return new Image(ImageDataFactory.create(snapshotByteStream.toByteArray()));
+        canvas.setFillColorGray(0);
+        for (final PositionedText label : layout.labels()) {
+            showText(canvas, font, label);
+        }
+        canvas.release();
+        return drawing;
     }
 
-    private static void scaleAndCenterOnPage(final Image content, final PageSize pageSize) {
-        content.setAutoScale(true);
-        content.scaleToFit(pageSize.getWidth(), pageSize.getHeight());
-        final float leftMargin = (pageSize.getWidth() - content.getImageScaledWidth()) / 2;
-        content.setMarginLeft(Math.max(0, leftMargin));
+    private static Future<?> startLayouting(
+            final Iterable<CuttingPlan> cuttingPlans, final BlockingQueue<CuttingPlanLayout> preparedLayouts) {
+        return LAYOUT_EXECUTOR.submit(() -> {
+            boolean cancelled = false;
+            try {
+                final PdfFont fontMetrics = PdfFontFactory.createFont(StandardFonts.HELVETICA);
+                int cuttingPlanIndex = 1;
+                for (final CuttingPlan cuttingPlan : cuttingPlans) {
+                    preparedLayouts.put(layoutCuttingPlan(fontMetrics, cuttingPlan, cuttingPlanIndex));
+                    cuttingPlanIndex++;
+                }
+            } catch (InterruptedException ex) {
+                cancelled = true;
+                throw ex;
+            } finally {
+                if (cancelled) {
+                    /* NOTE The writer cancelled the layouting and takes no further layouts. Hence, the queue may stay
+                     * full and waiting for space would block this thread forever.
+                     */
+                    preparedLayouts.offer(END_OF_LAYOUTS);
+                } else {
+                    preparedLayouts.put(END_OF_LAYOUTS);
+                }
+            }
+            return null;
+        });
+    }
+
+    private static CuttingPlanLayout takeLayout(final BlockingQueue<CuttingPlanLayout> preparedLayouts)
+            throws InterruptedIOException {
+        try {
+            return preparedLayouts.take();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw (InterruptedIOException) new InterruptedIOException(
+                    "Interrupted while waiting for the next cutting plan").initCause(ex);
+        }
     }
 
+    private static void awaitLayouting(final Future<?> layouter) throws IOException {
+        try {
+            layouter.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw (InterruptedIOException) new InterruptedIOException(
+                    "Interrupted while waiting for the layout of the cutting plans").initCause(ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof IOException) {
+                throw (IOException) ex.getCause();
+            }
+            throw new IOException("Could not lay out the cutting plans", ex.getCause());
+        }
+    }
+
+    /**
+     * Generate a cutting plan document which shows every cutting plan as vector graphic followed by a list of the
+     * positions of its planks. The document does not require a running JavaFX toolkit and its size does not depend on
+     * any resolution.
+     * <p>
+     * The document is written as a stream. While a background thread lays out upcoming cutting plans, i.e. determines
+     * the positions of all of their labels and lines, the calling thread writes the current one and flushes its
+     * drawing to the file immediately. Hence, the memory required does not grow with the number of cutting plans.
+     * Writing the drawing operations and the pages itself is not done in parallel since a {@link PdfDocument} must
+     * not be accessed by multiple threads.
+     */
     public static void generateCuttingPlanDocument(
-            final Iterable<WritableImage> cuttingPlanSnapshots, final PlankProblem problem, final File savePath)
-            throws IOException {
-        try (Document document = new Document(new PdfDocument(new PdfWriter(savePath)))) {
+            final Collection<CuttingPlan> cuttingPlans, final Collection<RequiredPlank> unplacedPlanks,
+            final PlankProblem problem, final File savePath) throws IOException {
+        final BlockingQueue<CuttingPlanLayout> preparedLayouts = new ArrayBlockingQueue<>(MAX_PREPARED_LAYOUTS);
+        final Future<?> layouter = startLayouting(cuttingPlans, preparedLayouts);
+        try (Document document = createDocument(savePath)) {
             final PdfDocument pdfDocument = document.getPdfDocument();
-            pdfDocument.setDefaultPageSize(PageSize.A4);
-            final PdfDocumentInfo documentInfo = pdfDocument.getDocumentInfo();
-            documentInfo.setCreator(BuildConfig.APP_NAME + " " + BuildConfig.APP_VERSION);
-
+            final PdfFont labelFont = PdfFontFactory.createFont(StandardFonts.HELVETICA);
             document.add(generateExtendedInfo(problem));
 
-            // Append cutting plans
-            for (final WritableImage snapshot : cuttingPlanSnapshots) {
+            CuttingPlanLayout layout = takeLayout(preparedLayouts);
+            while (layout != END_OF_LAYOUTS) { // NOPMD - Compare against the sentinel instance on purpose
+                final CuttingPlan cuttingPlan = layout.cuttingPlan();
                 document.add(new AreaBreak(AreaBreakType.NEXT_PAGE));
-                final Image cuttingPlan = generateCuttingPlanPage(snapshot);
-                scaleAndCenterOnPage(cuttingPlan, pdfDocument.getDefaultPageSize());
-                document.add(cuttingPlan);
+                document.add(new Paragraph(String.format("%s %d/%d: %s", WoodPacker.getResource("cuttingPlan"),
+                        layout.index(), cuttingPlans.size(), cuttingPlan.getBasePlank())));
+                final PdfFormXObject drawing = generateCuttingPlanDrawing(pdfDocument, labelFont, layout);
+                final Image drawingImage = new Image(drawing);
+                scaleAndCenterOnPage(drawingImage, pdfDocument.getDefaultPageSize());
+                document.add(drawingImage);
+                // The drawing is complete and placed. Hence, it is not required to keep it in memory any longer.
+                drawing.flush();
+                document.add(new AreaBreak(AreaBreakType.NEXT_PAGE));
+                document.add(generateCuttingList(cuttingPlan));
+                layout = takeLayout(preparedLayouts);
             }
+            awaitLayouting(layouter);
+
+            if (!unplacedPlanks.isEmpty()) {
+                document.add(new AreaBreak(AreaBreakType.NEXT_PAGE));
+                document.add(new Paragraph(WoodPacker.getResource("unplacedPlanks")));
+                document.add(generateList(unplacedPlanks));
+            }
+        } finally {
+            layouter.cancel(true);
         }
     }
+
+    /**
+     * Text in the base plank space. Vertical text reads from bottom to top.
+     *
+     * @param originX The x coordinate of the start of the baseline of the text.
+     * @param originY The y coordinate of the start of the baseline of the text.
+     */
+    private record PositionedText(
+            String text,
+            float fontSize,
+            float originX,
+            float originY,
+            boolean vertical
+    ) {
+    }
+
+    private record CuttingPlanLayout(
+            CuttingPlan cuttingPlan,
+            int index, // Starting at 1
+            java.util.List<DrawActionGenerator.LineSegment> grainLines,
+            java.util.List<DrawActionGenerator.LineSegment> edgeBandLines,
+            java.util.List<PositionedText> labels
+    ) {
+    }
 }
@@ -8,7 +8,6 @@ module bayern.steinbrecher.WoodPacker {
     requires javafx.controls;
     requires javafx.fxml;
     requires javafx.graphics;
-    requires javafx.swing;
     requires org.jetbrains.annotations;
 
     // iText modules
@@ -19,4 +18,13 @@ module bayern.steinbrecher.WoodPacker {
     opens bayern.steinbrecher.woodpacker to javafx.graphics;
     opens bayern.steinbrecher.woodpacker.elements to javafx.fxml;
     opens bayern.steinbrecher.woodpacker.screens to javafx.fxml;
+
+    uses bayern.steinbrecher.woodpacker.data.CuttingPlanSolver;
+    provides bayern.steinbrecher.woodpacker.data.CuttingPlanSolver with
+            bayern.steinbrecher.woodpacker.data.ExactCuttingPlanSolver,
+            bayern.steinbrecher.woodpacker.data.GreedyRowCuttingPlanSolver,
+            bayern.steinbrecher.woodpacker.data.GuillotineCuttingPlanSolver,
+            bayern.steinbrecher.woodpacker.data.MaxRectsCuttingPlanSolver,
+            bayern.steinbrecher.woodpacker.data.MultiStartCuttingPlanSolver,
+            bayern.steinbrecher.woodpacker.data.SkylineCuttingPlanSolver;
 }
\ No newline at end of file
@@ -0,0 +1,185 @@
+package bayern.steinbrecher.woodpacker.data;
+
+import javafx.geometry.Point2D;
+import javafx.util.Pair;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Stefan Huber
+ * @since 0.1
+ */
+@Test(groups = {"exact"})
+@SuppressWarnings("PMD")
+public final class ExactCuttingPlanSolverTest {
+    private static final BasePlank BASE_PLANK
+            = new BasePlank("Base", 100, 100, PlankGrainDirection.IRRELEVANT, PlankMaterial.UNDEFINED);
+    /**
+     * The seed of a problem with 30 planks whose exact search does not prove optimality within several seconds.
+     */
+    private static final long HARD_PROBLEM_SEED = 9;
+    private ForkJoinPool searchPool;
+
+    @BeforeClass
+    public void createSearchPool() {
+        searchPool = new ForkJoinPool(2);
+    }
+
+    @AfterClass
+    public void shutdownSearchPool() throws InterruptedException {
+        searchPool.shutdownNow();
+        searchPool.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private static PlankProblemSnapshot createSnapshot(final Collection<RequiredPlank> requiredPlanks) {
+        final Map<PlankSolutionCriterion, Double> criterionWeights = new EnumMap<>(PlankSolutionCriterion.class);
+        for (final PlankSolutionCriterion criterion : PlankSolutionCriterion.values()) {
+            criterionWeights.put(criterion, 1d);
+        }
+        return new PlankProblemSnapshot(BASE_PLANK, new HashSet<>(requiredPlanks), criterionWeights, 0, 0);
+    }
+
+    private static PlankProblemSnapshot createSnapshot(final int... dimensions) {
+        final List<RequiredPlank> requiredPlanks = new ArrayList<>();
+        for (int i = 0; i < dimensions.length; i += 2) {
+            requiredPlanks.add(new RequiredPlank(
+                    "P" + i / 2, dimensions[i], dimensions[i + 1], PlankGrainDirection.IRRELEVANT));
+        }
+        return createSnapshot(requiredPlanks);
+    }
+
+    private static PlankProblemSnapshot createHardSnapshot() {
+        final Random random = new Random(HARD_PROBLEM_SEED);
+        final List<RequiredPlank> requiredPlanks = new ArrayList<>();
+        for (int i = 0; i < ExactCuttingPlanSolver.MAX_EXACT_PLANKS; i++) {
+            requiredPlanks.add(new RequiredPlank("P" + i, 10 * (2 + random.nextInt(6)), 10 * (2 + random.nextInt(6)),
+                    PlankGrainDirection.IRRELEVANT));
+        }
+        return createSnapshot(requiredPlanks);
+    }
+
+    /**
+     * Check that every required plank is placed exactly once, lies within its base plank and does not overlap any other
+     * plank on the same base plank.
+     */
+    private static void assertValidSolution(final PlankProblemSnapshot snapshot,
+                                            final Pair<Collection<CuttingPlan>, Set<RequiredPlank>> solution) {
+        Assert.assertTrue(solution.getValue().isEmpty(), "Not all planks were placed");
+        final Set<RequiredPlank> placedPlanks = new HashSet<>();
+        for (final CuttingPlan cuttingPlan : solution.getKey()) {
+            final List<PlacedPlank> planksOnBasePlank = cuttingPlan.getPlacedPlanks();
+            for (int i = 0; i < planksOnBasePlank.size(); i++) {
+                final RequiredPlank plank = planksOnBasePlank.get(i).plank();
+                final Point2D position = planksOnBasePlank.get(i).position();
+                Assert.assertTrue(placedPlanks.add(plank), "The plank " + plank + " was placed multiple times");
+                Assert.assertTrue(position.getX() >= 0 && position.getY() >= 0
+                                && position.getX() + plank.getWidth() <= BASE_PLANK.getWidth()
+                                && position.getY() + plank.getHeight() <= BASE_PLANK.getHeight(),
+                        "The plank " + plank + " exceeds its base plank");
+                for (int j = 0; j < i; j++) {
+                    final RequiredPlank otherPlank = planksOnBasePlank.get(j).plank();
+                    final Point2D otherPosition = planksOnBasePlank.get(j).position();
+                    final boolean overlapping = position.getX() < otherPosition.getX() + otherPlank.getWidth()
+                            && otherPosition.getX() < position.getX() + plank.getWidth()
+                            && position.getY() < otherPosition.getY() + otherPlank.getHeight()
+                            && otherPosition.getY() < position.getY() + plank.getHeight();
+                    Assert.assertFalse(overlapping, "The planks " + plank + " and " + otherPlank + " overlap");
+                }
+            }
+        }
+        Assert.assertEquals(placedPlanks.size(), snapshot.requiredPlanks().size(), "Not all planks were placed");
+    }
+
+    @Test
+    public void checkFindsOptimumMissedByHeuristic() {
+        // The planks 70x30 and 70x60 stacked next to the plank 20x90 fit onto a single base plank
+        final PlankProblemSnapshot snapshot = createSnapshot(70, 30, 20, 90, 70, 60);
+        Assert.assertEquals(new GuillotineCuttingPlanSolver().solve(snapshot).getKey().size(), 2,
+                "The heuristic does not need a base plank too many anymore");
+
+        final Pair<Collection<CuttingPlan>, Set<RequiredPlank>> solution
+                = new ExactCuttingPlanSolver(searchPool, Duration.ofMinutes(1)).solve(snapshot);
+        assertValidSolution(snapshot, solution);
+        Assert.assertEquals(solution.getKey().size(), 1, "The exact solver missed the optimum");
+    }
+
+    @Test
+    public void checkReachesAreaLowerBound() {
+        // The total area of 12,600 requires at least two base planks
+        final PlankProblemSnapshot snapshot = createSnapshot(50, 70, 80, 20, 60, 40, 30, 70, 60, 50);
+        Assert.assertEquals(new GuillotineCuttingPlanSolver().solve(snapshot).getKey().size(), 3,
+                "The heuristic does not need a base plank too many anymore");
+
+        final Pair<Collection<CuttingPlan>, Set<RequiredPlank>> solution
+                = new ExactCuttingPlanSolver(searchPool, Duration.ofMinutes(1)).solve(snapshot);
+        assertValidSolution(snapshot, solution);
+        Assert.assertEquals(solution.getKey().size(), 2, "The exact solver missed the optimum");
+    }
+
+    @Test
+    public void checkExpiredTimeLimitYieldsHeuristicSolution() {
+        final PlankProblemSnapshot snapshot = createSnapshot(70, 30, 20, 90, 70, 60);
+        final Pair<Collection<CuttingPlan>, Set<RequiredPlank>> solution
+                = new ExactCuttingPlanSolver(searchPool, Duration.ZERO).solve(snapshot);
+        assertValidSolution(snapshot, solution);
+        Assert.assertEquals(solution.getKey().size(), new GuillotineCuttingPlanSolver().solve(snapshot).getKey().size(),
+                "Without any time left the solution of the heuristic has to be returned");
+    }
+
+    @Test
+    public void checkTimeLimitIsRespected() {
+        final PlankProblemSnapshot snapshot = createHardSnapshot();
+        final int heuristicNumBasePlanks = new GuillotineCuttingPlanSolver().solve(snapshot).getKey().size();
+        final long startNanos = System.nanoTime();
+        final Pair<Collection<CuttingPlan>, Set<RequiredPlank>> solution
+                = new ExactCuttingPlanSolver(searchPool, Duration.ofMillis(200)).solve(snapshot);
+        final Duration elapsed = Duration.ofNanos(System.nanoTime() - startNanos);
+        Assert.assertTrue(elapsed.compareTo(Duration.ofSeconds(2)) < 0,
+                "The search took " + elapsed + " despite a time limit of 200ms");
+        assertValidSolution(snapshot, solution);
+        Assert.assertTrue(solution.getKey().size() <= heuristicNumBasePlanks,
+                "The solution is worse than the one of the heuristic");
+    }
+
+    @Test
+    public void checkInterruptCancelsSearch() throws InterruptedException {
+        final PlankProblemSnapshot snapshot = createHardSnapshot();
+        final Thread solvingThread = Thread.currentThread();
+        final Thread interrupter = new Thread(() -> {
+            try {
+                Thread.sleep(500);
+                solvingThread.interrupt();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        interrupter.start();
+        final long startNanos = System.nanoTime();
+        try {
+            Assert.expectThrows(CancellationException.class,
+                    () -> new ExactCuttingPlanSolver(searchPool, Duration.ofMinutes(1)).solve(snapshot));
+            Assert.assertTrue(Thread.currentThread().isInterrupted(), "The interrupt was swallowed");
+        } finally {
+            interrupter.join();
+            Thread.interrupted(); // Do not affect other tests
+        }
+        final Duration elapsed = Duration.ofNanos(System.nanoTime() - startNanos);
+        Assert.assertTrue(elapsed.compareTo(Duration.ofSeconds(10)) < 0,
+                "The search was not cancelled in time but took " + elapsed);
+    }
+}
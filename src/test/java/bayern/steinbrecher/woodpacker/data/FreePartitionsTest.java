@@ -0,0 +1,105 @@
+package bayern.steinbrecher.woodpacker.data;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * @author Stefan Huber
+ * @since 0.1
+ */
+@Test(groups = {"index"})
+@SuppressWarnings("PMD")
+public final class FreePartitionsTest {
+    private static final long SEED = 20_220_612L;
+    private static final int MAX_LENGTH = 60;
+
+    private static Set<FreePartitions.Partition> filterAtLeast(
+            final List<FreePartitions.Partition> partitions, final int minShorterSide, final int minLongerSide) {
+        return partitions.stream()
+                .filter(partition -> partition.getShorterSide() >= minShorterSide
+                        && partition.getLongerSide() >= minLongerSide)
+                .collect(Collectors.toSet());
+    }
+
+    private static void assertStreamAtLeast(final FreePartitions freePartitions,
+                                            final List<FreePartitions.Partition> expectedPartitions,
+                                            final int minShorterSide, final int minLongerSide) {
+        final List<FreePartitions.Partition> found = freePartitions.streamAtLeast(minShorterSide, minLongerSide)
+                .toList();
+        Assert.assertEquals(new HashSet<>(found), filterAtLeast(expectedPartitions, minShorterSide, minLongerSide),
+                String.format("Wrong partitions of at least %d x %d", minShorterSide, minLongerSide));
+        Assert.assertEquals(found.size(), new HashSet<>(found).size(), "A partition was streamed multiple times");
+        for (int i = 1; i < found.size(); i++) {
+            Assert.assertTrue(found.get(i - 1).getShorterSide() <= found.get(i).getShorterSide(),
+                    "The partitions are not ordered by their shorter side");
+        }
+    }
+
+    @Test
+    public void checkStreamAtLeastMatchesFilter() {
+        final Random random = new Random(SEED);
+        final FreePartitions freePartitions = new FreePartitions();
+        final List<FreePartitions.Partition> expectedPartitions = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            // Equal sizes at different positions have to be kept apart
+            final FreePartitions.Partition partition = new FreePartitions.Partition(i % 20, i / 20,
+                    1 + random.nextInt(MAX_LENGTH), 1 + random.nextInt(MAX_LENGTH), null);
+            freePartitions.add(partition);
+            expectedPartitions.add(partition);
+        }
+        Assert.assertEquals(freePartitions.size(), expectedPartitions.size());
+
+        for (int i = 0; i < 500; i++) {
+            assertStreamAtLeast(freePartitions, expectedPartitions,
+                    random.nextInt(MAX_LENGTH + 2), random.nextInt(MAX_LENGTH + 2));
+        }
+        assertStreamAtLeast(freePartitions, expectedPartitions, 0, 0);
+        assertStreamAtLeast(freePartitions, expectedPartitions, MAX_LENGTH, MAX_LENGTH);
+        assertStreamAtLeast(freePartitions, expectedPartitions, MAX_LENGTH + 1, 0);
+    }
+
+    @Test
+    public void checkRemoveMatchesFilter() {
+        final Random random = new Random(SEED);
+        final FreePartitions freePartitions = new FreePartitions();
+        final List<FreePartitions.Partition> expectedPartitions = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            // Many partitions share their size such that removals must not remove partitions of equal size
+            final FreePartitions.Partition partition = new FreePartitions.Partition(
+                    random.nextInt(1000), i, 10 * (1 + random.nextInt(3)), 10 * (1 + random.nextInt(3)), null);
+            freePartitions.add(partition);
+            expectedPartitions.add(partition);
+        }
+
+        Assert.assertNull(freePartitions.remove(-1, -1), "A partition was removed from an unused position");
+        while (!expectedPartitions.isEmpty()) {
+            final FreePartitions.Partition toRemove
+                    = expectedPartitions.remove(random.nextInt(expectedPartitions.size()));
+            Assert.assertEquals(freePartitions.remove(toRemove.x(), toRemove.y()), toRemove);
+            Assert.assertNull(freePartitions.remove(toRemove.x(), toRemove.y()), "A partition was removed twice");
+            Assert.assertEquals(freePartitions.size(), expectedPartitions.size());
+            Assert.assertEquals(new HashSet<>(freePartitions.getPartitions()), new HashSet<>(expectedPartitions));
+            assertStreamAtLeast(freePartitions, expectedPartitions, 0, 0);
+            assertStreamAtLeast(freePartitions, expectedPartitions, 20, 20);
+        }
+        Assert.assertTrue(freePartitions.isEmpty());
+    }
+
+    @Test
+    public void checkPositionsAreUnique() {
+        final FreePartitions freePartitions = new FreePartitions();
+        freePartitions.add(new FreePartitions.Partition(3, 4, 10, 20, null));
+        Assert.expectThrows(IllegalArgumentException.class,
+                () -> freePartitions.add(new FreePartitions.Partition(3, 4, 30, 40, true)));
+        // Positions whose coordinates are swapped are different positions
+        freePartitions.add(new FreePartitions.Partition(4, 3, 10, 20, null));
+        Assert.assertEquals(freePartitions.size(), 2);
+    }
+}
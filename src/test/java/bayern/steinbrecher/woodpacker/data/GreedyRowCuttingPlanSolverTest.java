@@ -0,0 +1,113 @@
+package bayern.steinbrecher.woodpacker.data;
+
+import javafx.util.Pair;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * @author Stefan Huber
+ * @since 0.1
+ */
+@Test(groups = {"index"})
+@SuppressWarnings("PMD")
+public final class GreedyRowCuttingPlanSolverTest {
+    private static final long SEED = 20_220_614L;
+    /**
+     * Planks which are not removed after being placed may be placed over and over again.
+     */
+    private static final long TIMEOUT_MILLIS = 60_000;
+
+    /**
+     * Create a problem whose planks share only few shapes such that placing a plank removes it from a group of
+     * identical planks. The stock offers two formats such that the unplaced planks are copied for each of them.
+     */
+    private static PlankProblemSnapshot createProblem(final Random random) {
+        final PlankGrainDirection[] grainDirections = PlankGrainDirection.values();
+        final Set<RequiredPlank> requiredPlanks = new HashSet<>();
+        for (int i = 0; i < 40; i++) {
+            requiredPlanks.add(new RequiredPlank("P" + i, 100 * (1 + random.nextInt(4)), 100 * (1 + random.nextInt(3)),
+                    grainDirections[random.nextInt(grainDirections.length)], "", Set.of(), 0,
+                    1 + random.nextInt(5)));
+        }
+        // This plank fits on no base plank at all
+        requiredPlanks.add(new RequiredPlank("Oversized", 5000, 5000, PlankGrainDirection.IRRELEVANT));
+        final Map<PlankSolutionCriterion, Double> criterionWeights = new EnumMap<>(PlankSolutionCriterion.class);
+        for (final PlankSolutionCriterion criterion : PlankSolutionCriterion.values()) {
+            criterionWeights.put(criterion, 1d);
+        }
+        final List<StockedBasePlank> stock = List.of(
+                new StockedBasePlank(new BasePlank(
+                        "Small", 800, 600, PlankGrainDirection.HORIZONTAL, PlankMaterial.UNDEFINED), 3, 0),
+                new StockedBasePlank(new BasePlank(
+                        "Large", 2800, 2070, PlankGrainDirection.VERTICAL, PlankMaterial.UNDEFINED),
+                        StockedBasePlank.UNLIMITED_QUANTITY, 0));
+        return new PlankProblemSnapshot(null, requiredPlanks, criterionWeights, 10, 4, stock,
+                StockSelectionObjective.MINIMIZE_WASTE, List.of(), Map.of());
+    }
+
+    /**
+     * Check that every plank of the problem is either placed exactly once or left unplaced.
+     */
+    private static void assertEachPlankCovered(final PlankProblemSnapshot problem,
+                                               final Pair<Collection<CuttingPlan>, Set<RequiredPlank>> solution) {
+        final Set<RequiredPlank> placedPlanks = new HashSet<>();
+        for (final CuttingPlan cuttingPlan : solution.getKey()) {
+            for (final PlacedPlank placedPlank : cuttingPlan.getPlacedPlanks()) {
+                Assert.assertTrue(placedPlanks.add(placedPlank.plank()),
+                        "The plank " + placedPlank.plank() + " was placed multiple times");
+                Assert.assertFalse(solution.getValue().contains(placedPlank.plank()),
+                        "The plank " + placedPlank.plank() + " was placed but is reported as unplaced");
+            }
+        }
+        final Set<RequiredPlank> coveredPlanks = new HashSet<>(placedPlanks);
+        coveredPlanks.addAll(solution.getValue());
+        Assert.assertEquals(coveredPlanks, problem.requiredPlanks(), "Not every plank was either placed or unplaced");
+    }
+
+    @DataProvider
+    public static Object[][] solvers() {
+        return new Object[][]{
+                {new GreedyRowCuttingPlanSolver()},
+                {new GreedyRowCuttingPlanSolver(ForkJoinPool.commonPool())}
+        };
+    }
+
+    @Test(dataProvider = "solvers", timeOut = TIMEOUT_MILLIS)
+    public void checkEachPlankPlacedOnce(final GreedyRowCuttingPlanSolver solver) {
+        final Random random = new Random(SEED);
+        for (int i = 0; i < 5; i++) {
+            final PlankProblemSnapshot problem = createProblem(random);
+            final Pair<Collection<CuttingPlan>, Set<RequiredPlank>> solution = solver.solve(problem);
+            assertEachPlankCovered(problem, solution);
+            Assert.assertEquals(solution.getValue().size(), 1, "Only the oversized plank may be left unplaced");
+        }
+    }
+
+    @Test(dataProvider = "solvers", timeOut = TIMEOUT_MILLIS)
+    public void checkEachPlankPlacedOnceIncrementally(final GreedyRowCuttingPlanSolver solver) {
+        final Random random = new Random(SEED);
+        final PlankProblemSnapshot previousProblem = createProblem(random);
+        final Pair<Collection<CuttingPlan>, Set<RequiredPlank>> previousSolution = solver.solve(previousProblem);
+
+        // Planks of cutting plans which are taken over must not be placed another time
+        final Set<RequiredPlank> changedPlanks = new HashSet<>(previousProblem.requiredPlanks());
+        changedPlanks.add(new RequiredPlank("Additional", 300, 200, PlankGrainDirection.IRRELEVANT));
+        final PlankProblemSnapshot problem = new PlankProblemSnapshot(null, changedPlanks,
+                previousProblem.criterionWeights(), previousProblem.basePlankOversize(),
+                previousProblem.cuttingWidth(), previousProblem.basePlankStock(),
+                previousProblem.stockSelectionObjective(), List.of(), Map.of());
+        final Pair<Collection<CuttingPlan>, Set<RequiredPlank>> solution
+                = solver.solveIncrementally(problem, previousProblem, previousSolution);
+        assertEachPlankCovered(problem, solution);
+    }
+}
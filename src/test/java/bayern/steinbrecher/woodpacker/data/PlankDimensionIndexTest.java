@@ -0,0 +1,109 @@
+package bayern.steinbrecher.woodpacker.data;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+
+/**
+ * @author Stefan Huber
+ * @since 0.1
+ */
+@Test(groups = {"index"})
+@SuppressWarnings("PMD")
+public final class PlankDimensionIndexTest {
+    private static final long SEED = 20_220_613L;
+    private static final int MAX_LENGTH = 20;
+
+    /**
+     * @param id Distinguishes planks of equal dimensions.
+     */
+    private record Dimensions(int id, int width, int height) {
+    }
+
+    private static PlankDimensionIndex<Dimensions> createIndex(final List<Dimensions> planks) {
+        return new PlankDimensionIndex<>(planks, Dimensions::width, Dimensions::height);
+    }
+
+    private static List<Dimensions> createPlanks(final int numPlanks, final int maxLength, final Random random) {
+        final List<Dimensions> planks = new ArrayList<>();
+        for (int i = 0; i < numPlanks; i++) {
+            planks.add(new Dimensions(i, 1 + random.nextInt(maxLength), 1 + random.nextInt(maxLength)));
+        }
+        return planks;
+    }
+
+    private static void assertSamePlanks(final List<Dimensions> actual, final List<Dimensions> planks,
+                                         final Predicate<Dimensions> filter, final String message) {
+        final List<Dimensions> sortedActual = new ArrayList<>(actual);
+        sortedActual.sort(Comparator.comparingInt(Dimensions::id));
+        final List<Dimensions> expected = planks.stream()
+                .filter(filter)
+                .toList();
+        // NOTE Comparing lists instead of sets reveals planks which are found multiple times
+        Assert.assertEquals(sortedActual, expected, message);
+    }
+
+    private static void assertMatchesFilter(final List<Dimensions> planks, final int maxQueryLength) {
+        final PlankDimensionIndex<Dimensions> index = createIndex(planks);
+        for (int minWidth = 0; minWidth <= maxQueryLength; minWidth++) {
+            for (int minHeight = 0; minHeight <= maxQueryLength; minHeight++) {
+                final int width = minWidth;
+                final int height = minHeight;
+                assertSamePlanks(index.findAtLeast(width, height), planks,
+                        plank -> plank.width() >= width && plank.height() >= height,
+                        String.format("Wrong planks of at least %d x %d", width, height));
+                assertSamePlanks(index.findAtMost(width, height), planks,
+                        plank -> plank.width() <= width && plank.height() <= height,
+                        String.format("Wrong planks of at most %d x %d", width, height));
+            }
+        }
+    }
+
+    /**
+     * Numbers of planks which are no power of two leave some nodes of the tree with leaves of different depths.
+     */
+    @DataProvider
+    public static Object[][] numPlanks() {
+        return new Object[][]{{1}, {2}, {3}, {5}, {7}, {8}, {13}, {64}, {100}};
+    }
+
+    @Test(dataProvider = "numPlanks")
+    public void checkQueriesMatchFilter(final int numPlanks) {
+        final List<Dimensions> planks = createPlanks(numPlanks, MAX_LENGTH, new Random(SEED + numPlanks));
+        assertMatchesFilter(planks, MAX_LENGTH + 1);
+    }
+
+    @Test(dataProvider = "numPlanks")
+    public void checkDuplicateDimensions(final int numPlanks) {
+        // Only few distinct dimensions lead to many planks of equal width and equal height
+        final List<Dimensions> planks = createPlanks(numPlanks, 3, new Random(SEED - numPlanks));
+        assertMatchesFilter(planks, 4);
+    }
+
+    @Test
+    public void checkEmptyIndex() {
+        final PlankDimensionIndex<Dimensions> index = createIndex(List.of());
+        Assert.assertTrue(index.findAtLeast(0, 0).isEmpty());
+        Assert.assertTrue(index.findAtLeast(Integer.MIN_VALUE, Integer.MIN_VALUE).isEmpty());
+        Assert.assertTrue(index.findAtMost(Integer.MAX_VALUE, Integer.MAX_VALUE).isEmpty());
+    }
+
+    @Test
+    public void checkExtremeBounds() {
+        final List<Dimensions> planks = createPlanks(11, MAX_LENGTH, new Random(SEED));
+        final PlankDimensionIndex<Dimensions> index = createIndex(planks);
+        assertSamePlanks(index.findAtLeast(Integer.MIN_VALUE, Integer.MIN_VALUE), planks, plank -> true,
+                "Not all planks are at least of the minimal dimensions");
+        assertSamePlanks(index.findAtMost(Integer.MAX_VALUE, Integer.MAX_VALUE), planks, plank -> true,
+                "Not all planks are at most of the maximal dimensions");
+        Assert.assertTrue(index.findAtLeast(Integer.MAX_VALUE, 0).isEmpty());
+        Assert.assertTrue(index.findAtMost(-1, Integer.MAX_VALUE).isEmpty());
+        Assert.assertTrue(index.findAtMost(Integer.MAX_VALUE, -1).isEmpty());
+    }
+}
@@ -0,0 +1,75 @@
+package bayern.steinbrecher.woodpacker.data;
+
+import javafx.util.Pair;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * @author Stefan Huber
+ * @since 0.1
+ */
+@Test(groups = {"copies"})
+@SuppressWarnings("PMD")
+public final class RequiredPlankTest {
+    @Test
+    public void checkCopiesDoNotCollideWithPlanksOfSameId() {
+        final RequiredPlank multiplePlank = new RequiredPlank(
+                "X", 20, 10, PlankGrainDirection.IRRELEVANT, "", Set.of(), 0, 2);
+        final RequiredPlank collidingPlank = new RequiredPlank("X #1", 20, 10, PlankGrainDirection.IRRELEVANT);
+        final PlankProblemSnapshot snapshot = new PlankProblemSnapshot(
+                new BasePlank("Base", 100, 100, PlankGrainDirection.IRRELEVANT, PlankMaterial.UNDEFINED),
+                Set.of(multiplePlank, collidingPlank), Map.of(PlankSolutionCriterion.BREATH_DIFFERENCES, 1d,
+                PlankSolutionCriterion.NUM_PLANKS, 1d, PlankSolutionCriterion.ROW_SPACE_WASTE, 1d), 0, 0);
+        Assert.assertEquals(snapshot.requiredPlanks().size(), 3, "A copy replaced a plank sharing its ID");
+
+        final Pair<Collection<CuttingPlan>, Set<RequiredPlank>> solution
+                = new GreedyRowCuttingPlanSolver().solve(snapshot);
+        final Set<RequiredPlank> coveredPlanks = new HashSet<>(solution.getValue());
+        solution.getKey()
+                .forEach(cuttingPlan -> cuttingPlan.getPlacedPlanks()
+                        .forEach(placedPlank -> coveredPlanks.add(placedPlank.plank())));
+        Assert.assertEquals(coveredPlanks.size(), 3, "Not every plank was either placed or left unplaced");
+        Assert.assertEquals(solution.getValue().size(), 0, "Not all planks were placed");
+    }
+
+    @Test
+    public void checkSnapshotsShareCopiesAndRotatedPlanks() {
+        final RequiredPlank singlePlank = new RequiredPlank("A", 30, 10, PlankGrainDirection.HORIZONTAL);
+        final RequiredPlank multiplePlank = new RequiredPlank(
+                "B", 20, 10, PlankGrainDirection.IRRELEVANT, "", Set.of(EdgeBand.LEFT), 1, 2);
+        final BasePlank basePlank
+                = new BasePlank("Base", 100, 100, PlankGrainDirection.IRRELEVANT, PlankMaterial.UNDEFINED);
+        final Map<PlankSolutionCriterion, Double> criterionWeights = Map.of(
+                PlankSolutionCriterion.BREATH_DIFFERENCES, 1d, PlankSolutionCriterion.NUM_PLANKS, 1d,
+                PlankSolutionCriterion.ROW_SPACE_WASTE, 1d);
+        final Set<RequiredPlank> requiredPlanks = Set.of(singlePlank, multiplePlank);
+        final PlankProblemSnapshot firstSnapshot
+                = new PlankProblemSnapshot(basePlank, requiredPlanks, criterionWeights, 0, 0);
+        final PlankProblemSnapshot secondSnapshot
+                = new PlankProblemSnapshot(basePlank, requiredPlanks, criterionWeights, 0, 0);
+        Assert.assertEquals(firstSnapshot.requiredPlanks().size(), 3);
+        for (final RequiredPlank copy : firstSnapshot.requiredPlanks()) {
+            final RequiredPlank sharedCopy = secondSnapshot.requiredPlanks()
+                    .stream()
+                    .filter(copy::equals)
+                    .findAny()
+                    .orElseThrow();
+            Assert.assertSame(sharedCopy, copy, "The snapshots do not share the copy " + copy);
+            Assert.assertSame(sharedCopy.rotated(), copy.rotated(), "The snapshots do not share the rotated " + copy);
+        }
+
+        multiplePlank.setEdgeBands(Set.of(EdgeBand.RIGHT));
+        final PlankProblemSnapshot changedSnapshot
+                = new PlankProblemSnapshot(basePlank, requiredPlanks, criterionWeights, 0, 0);
+        for (final RequiredPlank copy : changedSnapshot.requiredPlanks()) {
+            if (copy.getPlankId().startsWith("B")) {
+                Assert.assertEquals(copy.getEdgeBands(), Set.of(EdgeBand.RIGHT), "A copy kept outdated edge bands");
+            }
+        }
+    }
+}
@@ -7,6 +7,8 @@ import bayern.steinbrecher.woodpacker.data.PlankMaterial;
 import bayern.steinbrecher.woodpacker.data.PlankProblem;
 import bayern.steinbrecher.woodpacker.data.PlankSolutionCriterion;
 import bayern.steinbrecher.woodpacker.data.RequiredPlank;
+import bayern.steinbrecher.woodpacker.data.StockSelectionObjective;
+import bayern.steinbrecher.woodpacker.data.StockedBasePlank;
 import bayern.steinbrecher.woodpacker.test.utility.ComparisonUtility;
 import javafx.collections.FXCollections;
 import org.testng.Assert;
@@ -32,6 +34,9 @@ import java.util.Set;
 @SuppressWarnings("PMD")
 public final class SerializationUtilityTest {
     private static final String REFERENCE_FILE_PATTERN = "serialized%s%d.bin";
+    private static final String[] PLANK_PROBLEM_METHODS_TO_IGNORE = {
+            "getProposedSolution", "getOffcutStore", "getCuttingPlanSolver", "getSolutionReport"
+    };
 
     private <C extends Serializable> void checkSerializationForClass(
             final Map<Long, C> references, final Class<C> typeDummy, final String... methodsToIgnore)
@@ -92,15 +97,22 @@ public final class SerializationUtilityTest {
         final RequiredPlank REQUIRED_PLANK_V2 = new RequiredPlank(
                 "RequiredPlank reference", 17, 18, PlankGrainDirection.VERTICAL, "some required plank",
                 Set.of(EdgeBand.LEFT, EdgeBand.RIGHT, EdgeBand.UPPER), 2);
+        final RequiredPlank REQUIRED_PLANK_V3 = new RequiredPlank(
+                "RequiredPlank reference", 17, 18, PlankGrainDirection.VERTICAL, "some required plank",
+                Set.of(EdgeBand.LEFT, EdgeBand.RIGHT, EdgeBand.UPPER), 2, 3);
+        final RequiredPlank REQUIRED_PLANK_V4 = new RequiredPlank(
+                "RequiredPlank reference", 17, 18, PlankGrainDirection.VERTICAL, "some required plank",
+                Set.of(EdgeBand.LEFT, EdgeBand.RIGHT, EdgeBand.UPPER), 2, 3, PlankMaterial.BIRCH);
 
         checkSerializationForClass(Map.of(
                 1L, REQUIRED_PLANK_V1,
-                2L, REQUIRED_PLANK_V2
+                2L, REQUIRED_PLANK_V2,
+                3L, REQUIRED_PLANK_V3,
+                4L, REQUIRED_PLANK_V4
         ), RequiredPlank.class);
     }
 
-    @Test
-    public void checkSerializationForPlankProblems() throws URISyntaxException, IOException, ClassNotFoundException {
+    private Map<Long, PlankProblem> createPlankProblemReferences() {
         final PlankProblem PLANK_PROBLEM_V1 = new PlankProblem();
         PLANK_PROBLEM_V1.setBasePlank(
                 new BasePlank("BasePlank reference", 86, 42, PlankGrainDirection.IRRELEVANT, PlankMaterial.OAK));
@@ -134,10 +146,80 @@ public final class SerializationUtilityTest {
         PLANK_PROBLEM_V3.setCuttingWidth(3);
         PLANK_PROBLEM_V3.setProblemName("My fancy plan");
 
-        checkSerializationForClass(Map.of(
+        final PlankProblem PLANK_PROBLEM_V4 = new PlankProblem();
+        PLANK_PROBLEM_V4.setBasePlank(new BasePlank(
+                "BasePlank reference", 86, 42, PlankGrainDirection.IRRELEVANT, PlankMaterial.OAK));
+        PLANK_PROBLEM_V4.setCriterionWeight(PlankSolutionCriterion.BREATH_DIFFERENCES, 1);
+        PLANK_PROBLEM_V4.setCriterionWeight(PlankSolutionCriterion.NUM_PLANKS, 2);
+        PLANK_PROBLEM_V4.setCriterionWeight(PlankSolutionCriterion.ROW_SPACE_WASTE, 3);
+        PLANK_PROBLEM_V4.setRequiredPlanks(FXCollections.observableSet(
+                new RequiredPlank("first", 11, 12, PlankGrainDirection.VERTICAL, "first comment"),
+                new RequiredPlank("second", 14, 13, PlankGrainDirection.HORIZONTAL, "second comment")));
+        PLANK_PROBLEM_V4.setCuttingWidth(3);
+        PLANK_PROBLEM_V4.setProblemName("My fancy plan");
+        PLANK_PROBLEM_V4.setBasePlankCost(12.5);
+        PLANK_PROBLEM_V4.getBasePlankStock().addAll(
+                new StockedBasePlank(new BasePlank(
+                        "Stocked reference", 40, 30, PlankGrainDirection.VERTICAL, PlankMaterial.BEECH), 3, 4.25),
+                new StockedBasePlank(new BasePlank(
+                        "Unlimited reference", 90, 50, PlankGrainDirection.IRRELEVANT, PlankMaterial.OAK),
+                        StockedBasePlank.UNLIMITED_QUANTITY, 20));
+        PLANK_PROBLEM_V4.setStockSelectionObjective(StockSelectionObjective.MINIMIZE_COST);
+
+        final PlankProblem PLANK_PROBLEM_V5 = new PlankProblem();
+        PLANK_PROBLEM_V5.setBasePlank(new BasePlank(
+                "BasePlank reference", 86, 42, PlankGrainDirection.IRRELEVANT, PlankMaterial.OAK));
+        PLANK_PROBLEM_V5.setCriterionWeight(PlankSolutionCriterion.BREATH_DIFFERENCES, 1);
+        PLANK_PROBLEM_V5.setCriterionWeight(PlankSolutionCriterion.NUM_PLANKS, 2);
+        PLANK_PROBLEM_V5.setCriterionWeight(PlankSolutionCriterion.ROW_SPACE_WASTE, 3);
+        PLANK_PROBLEM_V5.setRequiredPlanks(FXCollections.observableSet(
+                new RequiredPlank("first", 11, 12, PlankGrainDirection.VERTICAL, "first comment"),
+                new RequiredPlank("second", 14, 13, PlankGrainDirection.HORIZONTAL, "second comment"),
+                new RequiredPlank("third", 15, 16, PlankGrainDirection.VERTICAL, "third comment", Set.of(), 0, 2,
+                        PlankMaterial.BEECH)));
+        PLANK_PROBLEM_V5.setCuttingWidth(3);
+        PLANK_PROBLEM_V5.setProblemName("My fancy plan");
+        PLANK_PROBLEM_V5.setBasePlankCost(12.5);
+        PLANK_PROBLEM_V5.getBasePlankStock().addAll(
+                new StockedBasePlank(new BasePlank(
+                        "Stocked reference", 40, 30, PlankGrainDirection.VERTICAL, PlankMaterial.BEECH), 3, 4.25),
+                new StockedBasePlank(new BasePlank(
+                        "Unlimited reference", 90, 50, PlankGrainDirection.IRRELEVANT, PlankMaterial.OAK),
+                        StockedBasePlank.UNLIMITED_QUANTITY, 20));
+        PLANK_PROBLEM_V5.setStockSelectionObjective(StockSelectionObjective.MINIMIZE_COST);
+        PLANK_PROBLEM_V5.setMaterialBasePlank(PlankMaterial.BEECH, new BasePlank(
+                "Material reference", 60, 40, PlankGrainDirection.VERTICAL, PlankMaterial.BEECH));
+
+        return Map.of(
                 1L, PLANK_PROBLEM_V1,
                 2L, PLANK_PROBLEM_V2,
-                3L, PLANK_PROBLEM_V3
-        ), PlankProblem.class, "getProposedSolution");
+                3L, PLANK_PROBLEM_V3,
+                4L, PLANK_PROBLEM_V4,
+                5L, PLANK_PROBLEM_V5
+        );
+    }
+
+    @Test
+    public void checkSerializationForPlankProblems() throws URISyntaxException, IOException, ClassNotFoundException {
+        checkSerializationForClass(createPlankProblemReferences(), PlankProblem.class, PLANK_PROBLEM_METHODS_TO_IGNORE);
+    }
+
+    @Test
+    public void checkCopyingInputsOfPlankProblems() throws URISyntaxException, IOException, ClassNotFoundException {
+        final Map<Long, PlankProblem> references = createPlankProblemReferences();
+        List<String> failMessages = new ArrayList<>();
+        for (final long version : List.of(4L, 5L)) {
+            final String referenceFileName = String.format(
+                    REFERENCE_FILE_PATTERN, PlankProblem.class.getSimpleName(), version);
+            final Path referenceFilePath = Path.of(
+                    SerializationUtilityTest.class.getResource(referenceFileName).toURI());
+            final PlankProblem deserialized = SerializationUtility.deserialize(Files.readAllBytes(referenceFilePath));
+            final PlankProblem loaded = new PlankProblem();
+            loaded.copyInputsFrom(deserialized);
+            ComparisonUtility.comparePublicValues(
+                            PlankProblem.class, loaded, references.get(version), PLANK_PROBLEM_METHODS_TO_IGNORE)
+                    .ifPresent(failMessages::add);
+        }
+        Assert.assertTrue(failMessages.isEmpty(), String.join("\n", failMessages));
     }
 }